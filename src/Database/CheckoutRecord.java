@@ -0,0 +1,18 @@
+package Database;
+
+/**
+ * Everything an exit needs from storage for one plate, read together:
+ * the parked_vehicles row and the plate's outstanding unpaid fine.
+ */
+public final class CheckoutRecord {
+    private final ParkedVehicleRecord vehicle;
+    private final double unpaidFine;
+
+    public CheckoutRecord(ParkedVehicleRecord vehicle, double unpaidFine) {
+        this.vehicle = vehicle;
+        this.unpaidFine = unpaidFine;
+    }
+
+    public ParkedVehicleRecord getVehicle() { return vehicle; }
+    public double getUnpaidFine() { return unpaidFine; }
+}
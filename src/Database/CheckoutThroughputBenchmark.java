@@ -0,0 +1,119 @@
+package Database;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exit throughput of the JDBC store with synchronous checkout against the
+ * write-behind journal. Gate threads check out pre-parked BENCH- plates as
+ * fast as they can. The run reports how long each gate waited for checkout
+ * to return, which is the time the barrier stays closed, and exits per
+ * second. The journaled run also reports when the writer had everything in
+ * the database, since that work only moves off the barrier.
+ *
+ * Needs the MySQL server configured in Database, preferably a scratch
+ * database. BENCH- rows are removed afterwards and the rollups rebuilt.
+ * Run after compiling: java -cp "lib/*;bin" Database.CheckoutThroughputBenchmark [exits] [threads] [fsync]
+ */
+public class CheckoutThroughputBenchmark {
+    private static final String PLATE_PREFIX = "BENCH-";
+
+    public static void main(String[] args) throws Exception {
+        int exits = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        boolean fsync = args.length <= 2 || Boolean.parseBoolean(args[2]);
+
+        File journalFile = File.createTempFile("checkout-bench", ".log");
+        journalFile.deleteOnExit();
+        PaymentJournal journal = new PaymentJournal(journalFile, fsync, 200L, 100);
+
+        JdbcParkingStore sync = new JdbcParkingStore(null);
+        sync.initialize();
+        JdbcParkingStore journaled = new JdbcParkingStore(journal);
+        journaled.initialize();
+
+        try {
+            run("synchronous", sync, null, exits, threads);
+            run("journaled (fsync=" + fsync + ")", journaled, journal, exits, threads);
+        } finally {
+            cleanUp(sync);
+            journal.close();
+        }
+        System.exit(0);
+    }
+
+    private static void run(String mode, JdbcParkingStore store, PaymentJournal journal, int exits, int threads)
+            throws InterruptedException {
+        String prefix = PLATE_PREFIX + (journal == null ? "S" : "J") + "-";
+        long entryMillis = System.currentTimeMillis() - 3_600_000L;
+        for (int i = 0; i < exits; i++) {
+            store.saveParkedVehicle(new ParkedVehicleRecord(prefix + i, "Car", "bench", "", entryMillis));
+        }
+
+        long[] latencies = new long[exits];
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong failures = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] gates = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            gates[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = next.getAndIncrement(); i < exits; i = next.getAndIncrement()) {
+                    PaymentRecord payment = new PaymentRecord(prefix + i, 5.0, "Cash", 5.0, 0.0,
+                            System.currentTimeMillis(), "Regular");
+                    long began = System.nanoTime();
+                    if (!store.checkout(payment, 0.0)) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - began;
+                }
+            }, "bench-gate-" + t);
+            gates[t].start();
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Thread gate : gates) {
+            gate.join();
+        }
+        long barrierNanos = System.nanoTime() - began;
+        long writtenNanos = barrierNanos;
+        if (journal != null) {
+            journal.flush();
+            writtenNanos = System.nanoTime() - began;
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("%-22s %d exits on %d threads: %.0f exits/s at the barrier, wait p50 %.2f ms, p99 %.2f ms, max %.2f ms; "
+                + "all written after %d ms; %d failed%n",
+            mode, exits, threads, exits / (barrierNanos / 1e9), percentile(latencies, 0.50), percentile(latencies, 0.99),
+            latencies[exits - 1] / 1e6, writtenNanos / 1_000_000L, failures.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+
+    // Drops the benchmark's rows, then rebuilds the rollups they had moved
+    private static void cleanUp(JdbcParkingStore store) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            for (String table : new String[]{"payments", "parked_vehicles"}) {
+                try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM " + table + " WHERE license_plate LIKE ?")) {
+                    pstmt.setString(1, PLATE_PREFIX + "%");
+                    pstmt.executeUpdate();
+                }
+            }
+        }
+        store.reconcileRollups();
+    }
+}
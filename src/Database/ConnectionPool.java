@@ -0,0 +1,414 @@
+package Database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded JDBC connection pool used behind Database.getConnection().
+ * Callers borrow a connection and return it by calling close() as usual.
+ */
+public class ConnectionPool {
+
+    // Upper bounds (ms) of the wait-time histogram buckets; the last bucket is open ended
+    private static final long[] WAIT_BUCKETS_MS = {1, 5, 10, 50, 100, 500, 1000};
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long validateAfterIdleMillis;
+    private final long leakThresholdMillis;
+
+    private final Object lock = new Object();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private int totalConnections = 0;
+    private int waiters = 0;
+    private boolean closed = false;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    // Statement executions (database round trips) made through leased connections
+    private final AtomicLong executionCount = new AtomicLong();
+    private final AtomicLongArray waitHistogram = new AtomicLongArray(WAIT_BUCKETS_MS.length + 1);
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(String url, String user, String password,
+                          int minSize, int maxSize,
+                          long acquireTimeoutMillis, long idleTimeoutMillis,
+                          long validateAfterIdleMillis, long leakThresholdMillis) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validateAfterIdleMillis = validateAfterIdleMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000L, Math.min(idleTimeoutMillis, leakThresholdMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the acquire timeout when the pool is exhausted.
+     * Closing the returned connection hands it back to the pool.
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean create = false;
+
+            synchronized (lock) {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    if (!idle.isEmpty()) {
+                        candidate = idle.pollFirst();
+                        break;
+                    }
+                    if (totalConnections < maxSize) {
+                        totalConnections++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeoutCount.incrementAndGet();
+                        throw new SQLException("Timed out after " + acquireTimeoutMillis
+                                + " ms waiting for a database connection (" + stats() + ")");
+                    }
+                    waiters++;
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waiters--;
+                    }
+                }
+            }
+
+            if (create) {
+                try {
+                    candidate = new PooledConnection(DriverManager.getConnection(url, user, password));
+                    createdCount.incrementAndGet();
+                } catch (SQLException e) {
+                    synchronized (lock) {
+                        totalConnections--;
+                        lock.notify();
+                    }
+                    throw e;
+                }
+            } else if (!validate(candidate)) {
+                destroy(candidate);
+                continue;
+            }
+
+            recordWait(System.nanoTime() - start);
+            return candidate.lease();
+        }
+    }
+
+    /**
+     * Open connections up to the configured minimum size.
+     */
+    public void warmUp() {
+        while (true) {
+            synchronized (lock) {
+                if (closed || totalConnections >= minSize) {
+                    return;
+                }
+                totalConnections++;
+            }
+            try {
+                PooledConnection pc = new PooledConnection(DriverManager.getConnection(url, user, password));
+                createdCount.incrementAndGet();
+                release(pc);
+            } catch (SQLException e) {
+                synchronized (lock) {
+                    totalConnections--;
+                }
+                System.err.println("Connection pool warm-up failed: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Close every idle connection and refuse further borrows.
+     * Connections still in use are closed when they are returned.
+     */
+    public void shutdown() {
+        List<PooledConnection> toClose;
+        synchronized (lock) {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            lock.notifyAll();
+        }
+        for (PooledConnection pc : toClose) {
+            destroy(pc);
+        }
+        housekeeper.shutdownNow();
+    }
+
+    public PoolStats stats() {
+        synchronized (lock) {
+            long borrows = borrowCount.get();
+            long[] histogram = new long[waitHistogram.length()];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = waitHistogram.get(i);
+            }
+            double avgWaitMillis = borrows == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / borrows;
+            return new PoolStats(active.size(), idle.size(), waiters, totalConnections, minSize, maxSize,
+                    borrows, createdCount.get(), destroyedCount.get(), timeoutCount.get(), leakCount.get(),
+                    executionCount.get(), avgWaitMillis, WAIT_BUCKETS_MS.clone(), histogram);
+        }
+    }
+
+    private boolean validate(PooledConnection pc) {
+        long idleFor = System.currentTimeMillis() - pc.lastReturnedAt;
+        if (idleFor < validateAfterIdleMillis) {
+            return true;
+        }
+        try {
+            return pc.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pc) {
+        boolean healthy = true;
+        try {
+            if (pc.physical.isClosed()) {
+                healthy = false;
+            } else if (!pc.physical.getAutoCommit()) {
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        boolean shouldDestroy;
+        synchronized (lock) {
+            shouldDestroy = closed || !healthy;
+            if (!shouldDestroy) {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.addFirst(pc);
+                lock.notify();
+            }
+        }
+        if (shouldDestroy) {
+            destroy(pc);
+        }
+    }
+
+    private void destroy(PooledConnection pc) {
+        try {
+            pc.physical.close();
+        } catch (SQLException ignored) {
+        }
+        destroyedCount.incrementAndGet();
+        synchronized (lock) {
+            totalConnections--;
+            lock.notify();
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        int bucket = WAIT_BUCKETS_MS.length;
+        for (int i = 0; i < WAIT_BUCKETS_MS.length; i++) {
+            if (waitMillis < WAIT_BUCKETS_MS[i]) {
+                bucket = i;
+                break;
+            }
+        }
+        waitHistogram.incrementAndGet(bucket);
+    }
+
+    // Evict idle connections above the minimum size and report connections held for too long
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> evicted = new ArrayList<>();
+        synchronized (lock) {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && totalConnections - evicted.size() > minSize) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastReturnedAt >= idleTimeoutMillis) {
+                    it.remove();
+                    evicted.add(pc);
+                }
+            }
+        }
+        for (PooledConnection pc : evicted) {
+            destroy(pc);
+        }
+
+        for (PooledConnection pc : active) {
+            if (!pc.leakReported && now - pc.borrowedAt >= leakThresholdMillis) {
+                pc.leakReported = true;
+                leakCount.incrementAndGet();
+                System.err.println("Connection pool warning: connection held for " + (now - pc.borrowedAt)
+                        + " ms without being closed (possible leak). Borrowed at:");
+                pc.borrowSite.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool. Each borrow hands out a fresh proxy so
+     * a stale reference closed twice cannot return the connection to the pool again.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection lease() {
+            borrowedAt = System.currentTimeMillis();
+            borrowSite = new Throwable("Connection borrowed here");
+            leakReported = false;
+            active.add(this);
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this, executionCount));
+        }
+
+        private void giveBack() {
+            active.remove(this);
+            release(this);
+        }
+    }
+
+    private static final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection owner;
+        private final AtomicLong executions;
+        private final List<Statement> statements = new ArrayList<>();
+        private boolean returned = false;
+
+        private LeaseHandler(PooledConnection owner, AtomicLong executions) {
+            this.owner = owner;
+            this.executions = executions;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        closeStatements();
+                        owner.giveBack();
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || owner.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + owner.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            try {
+                Object result = method.invoke(owner.physical, args);
+                // Statements are closed with the lease, as they were when callers closed a real connection
+                if (result instanceof Statement) {
+                    statements.add((Statement) result);
+                    return countingStatement((Statement) result, method.getReturnType());
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Same statement interface (Statement/PreparedStatement/CallableStatement), counting execute* calls
+        private Statement countingStatement(Statement statement, Class<?> type) {
+            return (Statement) Proxy.newProxyInstance(
+                    Statement.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            executions.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(statement, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        private void closeStatements() {
+            for (Statement stmt : statements) {
+                try {
+                    stmt.close();
+                } catch (SQLException ignored) {
+                }
+            }
+            statements.clear();
+        }
+    }
+}
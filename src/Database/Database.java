@@ -1,7 +1,6 @@
 package Database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class Database {
@@ -11,10 +10,22 @@ public class Database {
 	// Database: parking_lot
 	// User: root
 	// Password: (empty - XAMPP default)
-	private static final String URL = "jdbc:mysql://localhost:5222/parking_lot?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+	// Prepared statements are cached per physical connection, so pooled connections reuse them
+	private static final String URL = "jdbc:mysql://localhost:5222/parking_lot?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC"
+			+ "&cachePrepStmts=true&useServerPrepStmts=true&prepStmtCacheSize=64&prepStmtCacheSqlLimit=1024";
 	private static final String USER = "root";
 	private static final String PASSWORD = "";
 
+	// Pool sizing and timeouts, overridable with -Dparking.pool.<name>=<value>
+	private static final int POOL_MIN_SIZE = Integer.getInteger("parking.pool.minSize", 2);
+	private static final int POOL_MAX_SIZE = Integer.getInteger("parking.pool.maxSize", 10);
+	private static final long POOL_ACQUIRE_TIMEOUT_MS = Long.getLong("parking.pool.acquireTimeoutMs", 5000L);
+	private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("parking.pool.idleTimeoutMs", 300000L);
+	private static final long POOL_VALIDATE_AFTER_MS = Long.getLong("parking.pool.validateAfterIdleMs", 30000L);
+	private static final long POOL_LEAK_THRESHOLD_MS = Long.getLong("parking.pool.leakThresholdMs", 60000L);
+
+	private static volatile ConnectionPool pool;
+
 	static {
 		try {
 			Class.forName("com.mysql.cj.jdbc.Driver");
@@ -24,10 +35,45 @@ public class Database {
 	}
 
 	/**
-	 * Get a new Connection to the MySQL database. Caller must close the connection.
+	 * Get a Connection to the MySQL database from the shared pool.
+	 * Caller must close the connection, which returns it to the pool.
 	 */
 	public static Connection getConnection() throws SQLException {
-		return DriverManager.getConnection(URL, USER, PASSWORD);
+		return getPool().getConnection();
+	}
+
+	/**
+	 * The shared pool, created on first use so a missing database does not fail class loading.
+	 */
+	public static ConnectionPool getPool() {
+		ConnectionPool p = pool;
+		if (p == null) {
+			synchronized (Database.class) {
+				p = pool;
+				if (p == null) {
+					p = new ConnectionPool(URL, USER, PASSWORD, POOL_MIN_SIZE, POOL_MAX_SIZE,
+							POOL_ACQUIRE_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_VALIDATE_AFTER_MS, POOL_LEAK_THRESHOLD_MS);
+					pool = p;
+				}
+			}
+		}
+		return p;
+	}
+
+	public static PoolStats getPoolStats() {
+		return getPool().stats();
+	}
+
+	/**
+	 * Close all pooled connections (e.g. on application exit).
+	 */
+	public static void shutdownPool() {
+		synchronized (Database.class) {
+			if (pool != null) {
+				pool.shutdown();
+				pool = null;
+			}
+		}
 	}
 
 	/**
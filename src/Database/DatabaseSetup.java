@@ -2,182 +2,267 @@ package Database;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class DatabaseSetup {
 
     // XAMPP MySQL Configuration (Port 5222 - MariaDB)
     private static final String BASE_URL = "jdbc:mysql://localhost:5222/"; // Note: No database name yet
     private static final String DB_NAME = "parking_lot";
-    private static final String FULL_URL = "jdbc:mysql://localhost:5222/" + DB_NAME + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
     private static final String USER = "root";
     private static final String PASSWORD = ""; // XAMPP default has no password
 
-    public static void initialize() {
+    // MySQL error code for "Unknown database"
+    private static final int ER_BAD_DB_ERROR = 1049;
+
+    // Ordered schema history. Never edit an applied step; add a new version instead.
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+        new Migration(1, "Baseline tables",
+            "CREATE TABLE IF NOT EXISTS users ("
+                + "user_id VARCHAR(50) PRIMARY KEY, "
+                + "name VARCHAR(100), "
+                + "password VARCHAR(100), "
+                + "role VARCHAR(20), "
+                + "license_plate VARCHAR(20)"
+                + ")",
+            "CREATE TABLE IF NOT EXISTS payments ("
+                + "payment_id INT AUTO_INCREMENT PRIMARY KEY, "
+                + "license_plate VARCHAR(20), "
+                + "amount DOUBLE, "
+                + "method VARCHAR(20), "
+                + "parking_fee DOUBLE DEFAULT 0, "
+                + "fine_amount DOUBLE DEFAULT 0, "
+                + "payment_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP"
+                + ")",
+            "CREATE TABLE IF NOT EXISTS fine_schemes ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY, "
+                + "scheme_name VARCHAR(100) UNIQUE, "
+                + "is_active TINYINT(1) DEFAULT 0, "
+                + "changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP"
+                + ")",
+            // Logs all scheme changes over time
+            "CREATE TABLE IF NOT EXISTS fine_scheme_history ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY, "
+                + "scheme_name VARCHAR(100) NOT NULL, "
+                + "activated_at TIMESTAMP NOT NULL, "
+                + "INDEX idx_activated (activated_at)"
+                + ")",
+            "CREATE TABLE IF NOT EXISTS parked_vehicles ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY,"
+                + "license_plate VARCHAR(50) NOT NULL UNIQUE,"
+                + "vehicle_type VARCHAR(50),"
+                + "entry_time VARCHAR(50),"
+                + "parking_spot VARCHAR(50),"
+                + "entry_millis BIGINT,"
+                + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP"
+                + ")",
+            "CREATE TABLE IF NOT EXISTS vip_plates ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY,"
+                + "license_plate VARCHAR(50) NOT NULL UNIQUE,"
+                + "registered_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP"
+                + ")",
+            "CREATE TABLE IF NOT EXISTS oku_card_holders ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY,"
+                + "license_plate VARCHAR(50) NOT NULL UNIQUE,"
+                + "registered_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP"
+                + ")",
+            "CREATE TABLE IF NOT EXISTS unpaid_fines ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY,"
+                + "license_plate VARCHAR(50) NOT NULL,"
+                + "amount DOUBLE DEFAULT 0.0,"
+                + "recorded_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,"
+                + "UNIQUE(license_plate)"
+                + ")"),
+
+        // Databases created by older builds may predate these columns
+        new AddMissingColumnsMigration(2, "Add columns missing from pre-versioned databases", new String[][]{
+            {"parked_vehicles", "entry_millis", "ALTER TABLE parked_vehicles ADD COLUMN entry_millis BIGINT AFTER parking_spot"},
+            {"payments", "license_plate", "ALTER TABLE payments ADD COLUMN license_plate VARCHAR(20) AFTER payment_id"},
+            {"payments", "parking_fee", "ALTER TABLE payments ADD COLUMN parking_fee DOUBLE DEFAULT 0"},
+            {"payments", "fine_amount", "ALTER TABLE payments ADD COLUMN fine_amount DOUBLE DEFAULT 0"},
+            {"fine_schemes", "changed_at", "ALTER TABLE fine_schemes ADD COLUMN changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP"}
+        }),
+
+        new Migration(3, "Seed default admin, fine scheme and OKU plate",
+            "INSERT IGNORE INTO users (user_id, name, password, role) "
+                + "VALUES ('admin', 'System Administrator', 'admin123', 'ADMIN')",
+            "INSERT IGNORE INTO fine_schemes (scheme_name, is_active) "
+                + "VALUES ('Option A (Fixed)', 1)",
+            // Initial history entry for whichever scheme is active, only if no history exists yet
+            "INSERT INTO fine_scheme_history (scheme_name, activated_at) "
+                + "SELECT scheme_name, changed_at FROM fine_schemes WHERE is_active = 1 "
+                + "AND NOT EXISTS (SELECT 1 FROM fine_scheme_history) LIMIT 1",
+            // Example OKU plate used by tests/UI
+            "INSERT IGNORE INTO oku_card_holders (license_plate) VALUES ('OKU-1')"),
+
+        // Lets the write-behind payment journal replay with INSERT IGNORE
+        new AddMissingColumnsMigration(4, "Add payments.journal_id for idempotent journal replay", new String[][]{
+            {"payments", "journal_id", "ALTER TABLE payments ADD COLUMN journal_id VARCHAR(40) NULL UNIQUE"}
+        }),
+
+        new AddMissingColumnsMigration(5, "Add payments.spot_type for revenue by spot type", new String[][]{
+            {"payments", "spot_type", "ALTER TABLE payments ADD COLUMN spot_type VARCHAR(20) NULL"}
+        }),
+
+        // Filled in by the first reconciliation after startup, then maintained with each write
+        new Migration(6, "Revenue and fine rollups",
+            "CREATE TABLE IF NOT EXISTS rollups ("
+                + "dimension VARCHAR(20) NOT NULL, "
+                + "bucket VARCHAR(40) NOT NULL, "
+                + "amount DOUBLE NOT NULL DEFAULT 0, "
+                + "payments BIGINT NOT NULL DEFAULT 0, "
+                + "PRIMARY KEY (dimension, bucket)"
+                + ")"),
+
+        // One vehicle per spot, whichever instance parks it
+        new UniqueParkingSpotMigration(7, "Make parked_vehicles.parking_spot unique",
+            "ALTER TABLE parked_vehicles ADD UNIQUE KEY uq_parked_spot (parking_spot)")
+    );
+
+    // Fails when a migration cannot be applied, so the app never runs on a schema missing a guarantee it relies on
+    public static void initialize() throws SQLException {
         try {
-            // Step 1: Connect to MySQL Server (without selecting a DB) to create the DB
-            try (Connection conn = DriverManager.getConnection(BASE_URL, USER, PASSWORD);
-                 Statement stmt = conn.createStatement()) {
-                
-                System.out.println("Checking database...");
-                String createDbSql = "CREATE DATABASE IF NOT EXISTS " + DB_NAME;
-                stmt.executeUpdate(createDbSql);
-                System.out.println("Database '" + DB_NAME + "' confirmed.");
+            long start = System.nanoTime();
+            try (Connection conn = openApplicationDatabase()) {
+                new SchemaMigrator(MIGRATIONS).migrate(conn);
             }
+            System.out.println("Database initialized in " + (System.nanoTime() - start) / 1_000_000L + " ms.");
+        } catch (SQLException e) {
+            System.err.println("Database Initialization Error: " + e.getMessage());
+            throw e;
+        }
+    }
 
-            // Step 2: Connect to the new 'parking_lot' database to create tables
-            try (Connection conn = DriverManager.getConnection(FULL_URL, USER, PASSWORD);
-                 Statement stmt = conn.createStatement()) {
-
-                // Create Users Table
-                String createUsersTable = "CREATE TABLE IF NOT EXISTS users ("
-                        + "user_id VARCHAR(50) PRIMARY KEY, "
-                        + "name VARCHAR(100), "
-                        + "password VARCHAR(100), "
-                        + "role VARCHAR(20), "
-                        + "license_plate VARCHAR(20)"
-                        + ")";
-                stmt.executeUpdate(createUsersTable);
-
-                // Create Payments Table
-                String createPaymentsTable = "CREATE TABLE IF NOT EXISTS payments ("
-                        + "payment_id INT AUTO_INCREMENT PRIMARY KEY, "
-                        + "license_plate VARCHAR(20), "
-                        + "amount DOUBLE, "
-                        + "method VARCHAR(20), "
-                        + "parking_fee DOUBLE DEFAULT 0, "
-                        + "fine_amount DOUBLE DEFAULT 0, "
-                        + "payment_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP"
-                        + ")";
-                stmt.executeUpdate(createPaymentsTable);
-
-                // Create Fine Schemes Table
-                String createFineSchemesTable = "CREATE TABLE IF NOT EXISTS fine_schemes ("
-                        + "id INT AUTO_INCREMENT PRIMARY KEY, "
-                        + "scheme_name VARCHAR(100) UNIQUE, "
-                        + "is_active TINYINT(1) DEFAULT 0, "
-                        + "changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP"
-                        + ")";
-                stmt.executeUpdate(createFineSchemesTable);
-
-                // Create Fine Scheme History Table (logs all scheme changes over time)
-                String createFineSchemeHistoryTable = "CREATE TABLE IF NOT EXISTS fine_scheme_history ("
-                        + "id INT AUTO_INCREMENT PRIMARY KEY, "
-                        + "scheme_name VARCHAR(100) NOT NULL, "
-                        + "activated_at TIMESTAMP NOT NULL, "
-                        + "INDEX idx_activated (activated_at)"
-                        + ")";
-                stmt.executeUpdate(createFineSchemeHistoryTable);
-
-                // Insert Default Admin (Using INSERT IGNORE to prevent crashing if admin exists)
-                String insertAdmin = "INSERT IGNORE INTO users (user_id, name, password, role) "
-                        + "VALUES ('admin', 'System Administrator', 'admin123', 'ADMIN')";
-                stmt.executeUpdate(insertAdmin);
-
-                // Insert Default Fine Scheme
-                String insertFineScheme = "INSERT IGNORE INTO fine_schemes (scheme_name, is_active) "
-                        + "VALUES ('Option A (Fixed)', 1)";
-                stmt.executeUpdate(insertFineScheme);
-                
-                // Insert initial history entry for default scheme
-                String insertHistory = "INSERT IGNORE INTO fine_scheme_history (scheme_name, activated_at) "
-                        + "VALUES ('Option A (Fixed)', CURRENT_TIMESTAMP)";
-                stmt.executeUpdate(insertHistory);
-
-                // Migrate existing tables - add entry_millis column if it doesn't exist
-                try {
-                    // Check if entry_millis column exists
-                    java.sql.ResultSet rs = stmt.executeQuery(
-                        "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS " +
-                        "WHERE TABLE_SCHEMA = '" + DB_NAME + "' " +
-                        "AND TABLE_NAME = 'parked_vehicles' " +
-                        "AND COLUMN_NAME = 'entry_millis'");
-                    
-                    if (!rs.next()) {
-                        // Column doesn't exist, add it
-                        stmt.executeUpdate("ALTER TABLE parked_vehicles ADD COLUMN entry_millis BIGINT AFTER parking_spot");
-                        System.out.println("Migration: Added entry_millis column to parked_vehicles table.");
-                    }
-                    
-                    // Check and add license_plate column to payments if it doesn't exist
-                    rs = stmt.executeQuery(
-                        "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS " +
-                        "WHERE TABLE_SCHEMA = '" + DB_NAME + "' " +
-                        "AND TABLE_NAME = 'payments' " +
-                        "AND COLUMN_NAME = 'license_plate'");
-                    
-                    if (!rs.next()) {
-                        stmt.executeUpdate("ALTER TABLE payments ADD COLUMN license_plate VARCHAR(20) AFTER payment_id");
-                        System.out.println("Migration: Added license_plate column to payments table.");
-                    }
-                    
-                    // Check and add parking_fee column if it doesn't exist
-                    rs = stmt.executeQuery(
-                        "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS " +
-                        "WHERE TABLE_SCHEMA = '" + DB_NAME + "' " +
-                        "AND TABLE_NAME = 'payments' " +
-                        "AND COLUMN_NAME = 'parking_fee'");
-                    
-                    if (!rs.next()) {
-                        stmt.executeUpdate("ALTER TABLE payments ADD COLUMN parking_fee DOUBLE DEFAULT 0");
-                        System.out.println("Migration: Added parking_fee column to payments table.");
-                    }
-                    
-                    // Check and add fine_amount column if it doesn't exist
-                    rs = stmt.executeQuery(
-                        "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS " +
-                        "WHERE TABLE_SCHEMA = '" + DB_NAME + "' " +
-                        "AND TABLE_NAME = 'payments' " +
-                        "AND COLUMN_NAME = 'fine_amount'");
-                    
-                    if (!rs.next()) {
-                        stmt.executeUpdate("ALTER TABLE payments ADD COLUMN fine_amount DOUBLE DEFAULT 0");
-                        System.out.println("Migration: Added fine_amount column to payments table.");
-                    }
-
-                    // Check and add changed_at column to fine_schemes if it doesn't exist
-                    rs = stmt.executeQuery(
-                        "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS " +
-                        "WHERE TABLE_SCHEMA = '" + DB_NAME + "' " +
-                        "AND TABLE_NAME = 'fine_schemes' " +
-                        "AND COLUMN_NAME = 'changed_at'");
-                    
-                    if (!rs.next()) {
-                        stmt.executeUpdate("ALTER TABLE fine_schemes ADD COLUMN changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
-                        System.out.println("Migration: Added changed_at column to fine_schemes table.");
-                    }
-
-                    // Check if fine_scheme_history table exists, if not create it
-                    rs = stmt.executeQuery(
-                        "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES " +
-                        "WHERE TABLE_SCHEMA = '" + DB_NAME + "' " +
-                        "AND TABLE_NAME = 'fine_scheme_history'");
-                    
-                    if (!rs.next()) {
-                        String createHistoryTable = "CREATE TABLE fine_scheme_history ("
-                                + "id INT AUTO_INCREMENT PRIMARY KEY, "
-                                + "scheme_name VARCHAR(100) NOT NULL, "
-                                + "activated_at TIMESTAMP NOT NULL, "
-                                + "INDEX idx_activated (activated_at)"
-                                + ")";
-                        stmt.executeUpdate(createHistoryTable);
-                        System.out.println("Migration: Created fine_scheme_history table.");
-                        
-                        // Populate initial history entry
-                        stmt.executeUpdate("INSERT IGNORE INTO fine_scheme_history (scheme_name, activated_at) " +
-                                "SELECT scheme_name, changed_at FROM fine_schemes WHERE is_active = 1 LIMIT 1");
-                    }
-                } catch (SQLException e) {
-                    System.err.println("Migration warning: " + e.getMessage());
+    // Connect to 'parking_lot', creating the database only when the server reports it missing
+    private static Connection openApplicationDatabase() throws SQLException {
+        try {
+            return Database.getConnection();
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ER_BAD_DB_ERROR) {
+                throw e;
+            }
+        }
+
+        try (Connection conn = DriverManager.getConnection(BASE_URL, USER, PASSWORD);
+             Statement stmt = conn.createStatement()) {
+            System.out.println("Creating database...");
+            stmt.executeUpdate("CREATE DATABASE IF NOT EXISTS " + DB_NAME);
+            System.out.println("Database '" + DB_NAME + "' confirmed.");
+        }
+        return Database.getConnection();
+    }
+
+    /**
+     * Adds an index unless the table already has one by that name, so the step can be re-run.
+     */
+    private static class AddMissingIndexMigration extends Migration {
+        private final String table;
+        private final String index;
+
+        AddMissingIndexMigration(int version, String description, String table, String index, String statement) {
+            super(version, description, statement);
+            this.table = table;
+            this.index = index;
+        }
+
+        @Override
+        public void apply(Statement stmt) throws SQLException {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT 1 FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() "
+                    + "AND TABLE_NAME = '" + table + "' AND INDEX_NAME = '" + index + "'")) {
+                if (rs.next()) {
+                    return;
                 }
+            }
+            addIndex(stmt);
+            System.out.println("Migration: Added index " + index + " to " + table + " table.");
+        }
 
-                System.out.println("Tables and Default Admin initialized successfully!");
+        protected void addIndex(Statement stmt) throws SQLException {
+            super.apply(stmt);
+        }
+    }
+
+    /**
+     * Adds the unique spot key. Databases from before it may hold empty spots
+     * (parks whose spot was never resolved), which become NULL so they do not
+     * collide, and spots held by two plates, which cannot be settled
+     * automatically: the step then fails listing them, to be checked out or
+     * moved by hand before the next start.
+     */
+    private static class UniqueParkingSpotMigration extends AddMissingIndexMigration {
+        UniqueParkingSpotMigration(int version, String description, String statement) {
+            super(version, description, "parked_vehicles", "uq_parked_spot", statement);
+        }
+
+        @Override
+        protected void addIndex(Statement stmt) throws SQLException {
+            int cleared = stmt.executeUpdate("UPDATE parked_vehicles SET parking_spot = NULL WHERE parking_spot = ''");
+            if (cleared > 0) {
+                System.out.println("Migration: Cleared " + cleared + " empty parking spot(s) in parked_vehicles.");
             }
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-            System.err.println("Database Initialization Error: " + e.getMessage());
+            List<String> conflicts = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT parking_spot, GROUP_CONCAT(license_plate ORDER BY entry_millis SEPARATOR ', ') AS plates "
+                    + "FROM parked_vehicles WHERE parking_spot IS NOT NULL "
+                    + "GROUP BY parking_spot HAVING COUNT(*) > 1")) {
+                while (rs.next()) {
+                    conflicts.add(rs.getString("parking_spot") + " (" + rs.getString("plates") + ")");
+                }
+            }
+            if (!conflicts.isEmpty()) {
+                throw new SQLException("Cannot make parked_vehicles.parking_spot unique; spots held by more than one plate: "
+                        + String.join("; ", conflicts) + ". Check out or move the extra vehicles and restart.");
+            }
+            super.addIndex(stmt);
+        }
+    }
+
+    /**
+     * Adds columns that may be absent from tables created by earlier builds,
+     * using one INFORMATION_SCHEMA query for all of them.
+     */
+    private static class AddMissingColumnsMigration extends Migration {
+        private final String[][] columns; // {table, column, ALTER statement}
+
+        AddMissingColumnsMigration(int version, String description, String[][] columns) {
+            super(version, description, alterStatements(columns));
+            this.columns = columns;
+        }
+
+        private static String[] alterStatements(String[][] columns) {
+            String[] sql = new String[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                sql[i] = columns[i][2];
+            }
+            return sql;
+        }
+
+        @Override
+        public void apply(Statement stmt) throws SQLException {
+            Set<String> existing = new HashSet<>();
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT TABLE_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS "
+                    + "WHERE TABLE_SCHEMA = DATABASE()")) {
+                while (rs.next()) {
+                    existing.add(rs.getString("TABLE_NAME").toLowerCase() + "." + rs.getString("COLUMN_NAME").toLowerCase());
+                }
+            }
+
+            for (String[] column : columns) {
+                if (!existing.contains(column[0] + "." + column[1])) {
+                    stmt.executeUpdate(column[2]);
+                    System.out.println("Migration: Added " + column[1] + " column to " + column[0] + " table.");
+                }
+            }
         }
     }
-}
\ No newline at end of file
+}
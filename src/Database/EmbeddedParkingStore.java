@@ -0,0 +1,590 @@
+package Database;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-process ParkingStore. State lives in memory; every change is appended to a
+ * write-ahead journal before it is applied and the journal is replayed on start.
+ * Needs no database server, so kiosks and benchmarks can run on one box.
+ */
+public class EmbeddedParkingStore implements ParkingStore {
+
+    private static final char SEP = '\t';
+
+    private final File journalFile;
+    private final boolean fsync;
+
+    private final Object lock = new Object();
+    private FileOutputStream journalStream;
+    private Writer journal;
+
+    // In-memory tables
+    private final Map<String, ParkedVehicleRecord> parkedVehicles = new LinkedHashMap<>();
+    private final List<PaymentRecord> payments = new ArrayList<>();
+    private RevenueRollup rollup = new RevenueRollup();
+    private final Map<String, Double> unpaidFines = new TreeMap<>();
+    private final Map<String, Long> vipPlates = new LinkedHashMap<>();
+    private final Map<String, Long> okuCardHolders = new LinkedHashMap<>();
+    private final Map<String, String[]> users = new LinkedHashMap<>(); // user_id -> {name, password, role, license_plate}
+    private final TreeMap<Long, String> schemeHistory = new TreeMap<>();
+    private String activeScheme;
+
+    public EmbeddedParkingStore(File journalFile, boolean fsync) {
+        this.journalFile = journalFile;
+        this.fsync = fsync;
+    }
+
+    @Override
+    public void initialize() throws SQLException {
+        synchronized (lock) {
+            try {
+                File parent = journalFile.getAbsoluteFile().getParentFile();
+                if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                    throw new IOException("Cannot create directory " + parent);
+                }
+                boolean fresh = !journalFile.exists() || journalFile.length() == 0;
+                int replayed = fresh ? 0 : replay();
+
+                journalStream = new FileOutputStream(journalFile, true);
+                journal = new OutputStreamWriter(journalStream, StandardCharsets.UTF_8);
+                if (!fresh && !endsWithNewline()) {
+                    // Terminate a torn last record so the next append starts on its own line
+                    journal.write('\n');
+                    journal.flush();
+                }
+
+                if (fresh) {
+                    seedDefaults();
+                }
+                System.out.println("Embedded store ready (" + journalFile.getPath() + ", " + replayed + " journal entries replayed).");
+            } catch (IOException e) {
+                throw new SQLException("Cannot open embedded store journal " + journalFile + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Embedded (" + journalFile.getPath() + ")";
+    }
+
+    // Same defaults the JDBC migrations seed
+    private void seedDefaults() {
+        saveUser("admin", "System Administrator", "admin123", "ADMIN");
+        saveActiveFineScheme("Option A (Fixed)", System.currentTimeMillis());
+        addOkuCardHolder("OKU-1");
+    }
+
+    // --- Parked vehicles ---
+
+    @Override
+    public List<ParkedVehicleRecord> loadParkedVehicles() {
+        synchronized (lock) {
+            return new ArrayList<>(parkedVehicles.values());
+        }
+    }
+
+    @Override
+    public ParkedVehicleRecord findParkedVehicle(String plate) {
+        synchronized (lock) {
+            return parkedVehicles.get(plate);
+        }
+    }
+
+    @Override
+    public CheckoutRecord loadCheckout(String plate) {
+        synchronized (lock) {
+            ParkedVehicleRecord vehicle = parkedVehicles.get(plate);
+            if (vehicle == null) {
+                return null;
+            }
+            Double amount = unpaidFines.get(plate);
+            return new CheckoutRecord(vehicle, amount == null ? 0.0 : amount);
+        }
+    }
+
+    @Override
+    public boolean checkout(PaymentRecord p, double fineSettled) {
+        synchronized (lock) {
+            if (!parkedVehicles.containsKey(p.getPlate())) {
+                return false;
+            }
+            // One journal record, so replay never sees half an exit
+            return write("CHECKOUT", p.getPlate(), Double.toString(p.getAmount()), p.getMethod(),
+                    Double.toString(p.getParkingFee()), Double.toString(p.getFineAmount()),
+                    Long.toString(p.getPaidAtMillis()), Double.toString(fineSettled), p.getSpotType());
+        }
+    }
+
+    @Override
+    public boolean saveParkedVehicle(ParkedVehicleRecord v) {
+        synchronized (lock) {
+            // One vehicle per spot, as the JDBC store's unique key enforces
+            for (ParkedVehicleRecord other : parkedVehicles.values()) {
+                if (!other.getPlate().equals(v.getPlate()) && v.getParkingSpot() != null && !v.getParkingSpot().isEmpty()
+                        && v.getParkingSpot().equals(other.getParkingSpot())) {
+                    System.err.println("Error adding parked vehicle: spot " + v.getParkingSpot() + " is held by " + other.getPlate());
+                    return false;
+                }
+            }
+            return write("PARK", v.getPlate(), v.getVehicleType(), v.getEntryTime(), v.getParkingSpot(), Long.toString(v.getEntryMillis()));
+        }
+    }
+
+    @Override
+    public void deleteParkedVehicle(String plate) {
+        write("UNPARK", plate);
+    }
+
+    // --- Payments ---
+
+    @Override
+    public double getTotalRevenue() {
+        synchronized (lock) {
+            return rollup.getTotalRevenue();
+        }
+    }
+
+    @Override
+    public RevenueRollup getRevenueRollup() {
+        synchronized (lock) {
+            return rollup.copy();
+        }
+    }
+
+    @Override
+    public List<String> reconcileRollups() {
+        synchronized (lock) {
+            RevenueRollup rebuilt = new RevenueRollup();
+            for (PaymentRecord payment : payments) {
+                rebuilt.addPayment(payment, 1);
+            }
+            for (double amount : unpaidFines.values()) {
+                rebuilt.addUnpaidFines(amount);
+            }
+            List<String> drift = rollup.driftFrom(rebuilt);
+            rollup = rebuilt;
+            return drift;
+        }
+    }
+
+    // --- Unpaid fines ---
+
+    @Override
+    public double getUnpaidFine(String plate) {
+        synchronized (lock) {
+            Double amount = unpaidFines.get(plate);
+            return amount == null ? 0.0 : amount;
+        }
+    }
+
+    @Override
+    public void addUnpaidFine(String plate, double amount) {
+        write("FINE_ADD", plate, Double.toString(amount));
+    }
+
+    @Override
+    public void setUnpaidFine(String plate, double amount) {
+        write("FINE_SET", plate, Double.toString(amount));
+    }
+
+    @Override
+    public double getTotalUnpaidFines() {
+        synchronized (lock) {
+            return rollup.getTotalUnpaidFines();
+        }
+    }
+
+    @Override
+    public Map<String, Double> getAllUnpaidFines() {
+        synchronized (lock) {
+            return new TreeMap<>(unpaidFines);
+        }
+    }
+
+    // --- VIP and OKU registries ---
+
+    @Override
+    public boolean isVipPlate(String plate) {
+        synchronized (lock) {
+            return vipPlates.containsKey(plate);
+        }
+    }
+
+    @Override
+    public Set<String> getVipPlates() {
+        synchronized (lock) {
+            return new HashSet<>(vipPlates.keySet());
+        }
+    }
+
+    @Override
+    public void addVipPlate(String plate) {
+        write("VIP_ADD", plate, Long.toString(System.currentTimeMillis()));
+    }
+
+    @Override
+    public void removeVipPlate(String plate) {
+        write("VIP_DEL", plate);
+    }
+
+    @Override
+    public boolean isOkuCardHolder(String plate) {
+        synchronized (lock) {
+            return okuCardHolders.containsKey(plate);
+        }
+    }
+
+    @Override
+    public Set<String> getOkuCardHolders() {
+        synchronized (lock) {
+            return new HashSet<>(okuCardHolders.keySet());
+        }
+    }
+
+    @Override
+    public void addOkuCardHolder(String plate) {
+        write("OKU_ADD", plate, Long.toString(System.currentTimeMillis()));
+    }
+
+    @Override
+    public void removeOkuCardHolder(String plate) {
+        write("OKU_DEL", plate);
+    }
+
+    @Override
+    public Map<String, Long> getVipPlatesSince(long sinceMillis) {
+        return platesSince(vipPlates, sinceMillis);
+    }
+
+    @Override
+    public Map<String, Long> getOkuCardHoldersSince(long sinceMillis) {
+        return platesSince(okuCardHolders, sinceMillis);
+    }
+
+    private Map<String, Long> platesSince(Map<String, Long> registry, long sinceMillis) {
+        Map<String, Long> plates = new HashMap<>();
+        synchronized (lock) {
+            for (Map.Entry<String, Long> entry : registry.entrySet()) {
+                if (entry.getValue() >= sinceMillis) {
+                    plates.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return plates;
+    }
+
+    // --- Users ---
+
+    @Override
+    public Map<String, String> findUserById(String userId, String password) {
+        synchronized (lock) {
+            String[] user = users.get(userId);
+            if (user != null && equalsNullable(user[1], password)) {
+                return toUserMap(userId, user);
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public Map<String, String> findUserByName(String name, String password) {
+        synchronized (lock) {
+            for (Map.Entry<String, String[]> entry : users.entrySet()) {
+                String[] user = entry.getValue();
+                if (equalsNullable(user[0], name) && equalsNullable(user[1], password)) {
+                    return toUserMap(entry.getKey(), user);
+                }
+            }
+            return null;
+        }
+    }
+
+    private Map<String, String> toUserMap(String userId, String[] user) {
+        Map<String, String> map = new HashMap<>();
+        map.put("user_id", userId);
+        map.put("name", user[0]);
+        map.put("role", user[2]);
+        map.put("license_plate", user[3]);
+        return map;
+    }
+
+    @Override
+    public void saveUser(String userId, String name, String password, String role) {
+        write("USER", userId, name, password, role);
+    }
+
+    @Override
+    public void deleteUser(String userId) {
+        write("USER_DEL", userId);
+    }
+
+    @Override
+    public List<Map<String, String>> getNonAdminUsers() {
+        synchronized (lock) {
+            List<Map<String, String>> result = new ArrayList<>();
+            for (Map.Entry<String, String[]> entry : users.entrySet()) {
+                if (!"ADMIN".equals(entry.getValue()[2])) {
+                    Map<String, String> user = toUserMap(entry.getKey(), entry.getValue());
+                    user.remove("license_plate");
+                    result.add(user);
+                }
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public boolean userExists(String userId) {
+        synchronized (lock) {
+            return users.containsKey(userId);
+        }
+    }
+
+    // --- Fine schemes ---
+
+    @Override
+    public String loadActiveFineScheme() {
+        synchronized (lock) {
+            return activeScheme;
+        }
+    }
+
+    @Override
+    public void saveActiveFineScheme(String scheme, long activatedAtMillis) {
+        write("SCHEME", scheme, Long.toString(activatedAtMillis));
+    }
+
+    @Override
+    public String getFineSchemeAtTime(long millis) {
+        synchronized (lock) {
+            Map.Entry<Long, String> entry = schemeHistory.floorEntry(millis);
+            return entry == null ? null : entry.getValue();
+        }
+    }
+
+    @Override
+    public NavigableMap<Long, String> loadFineSchemeHistory() {
+        synchronized (lock) {
+            return new TreeMap<>(schemeHistory);
+        }
+    }
+
+    // --- Journal ---
+
+    // Append the change to the journal first, then apply it to memory
+    // Returns false when the record could not be journaled (and so was not applied)
+    private boolean write(String... fields) {
+        String line = encode(fields);
+        synchronized (lock) {
+            try {
+                journal.write(line);
+                journal.write('\n');
+                journal.flush();
+                if (fsync) {
+                    journalStream.getFD().sync();
+                }
+            } catch (IOException e) {
+                System.err.println("Embedded store journal write failed (" + fields[0] + "): " + e.getMessage());
+                return false;
+            }
+            apply(fields);
+            return true;
+        }
+    }
+
+    private int replay() throws IOException {
+        int count = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(journalFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    apply(decode(line));
+                    count++;
+                } catch (RuntimeException e) {
+                    // Typically a record torn by a crash mid-write; later records are still applied
+                    System.err.println("Embedded store: skipping unreadable journal line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean endsWithNewline() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "r")) {
+            if (file.length() == 0) {
+                return true;
+            }
+            file.seek(file.length() - 1);
+            return file.read() == '\n';
+        }
+    }
+
+    private void apply(String[] f) {
+        switch (f[0]) {
+            case "PARK":
+                parkedVehicles.put(f[1], new ParkedVehicleRecord(f[1], f[2], f[3], f[4], Long.parseLong(f[5])));
+                break;
+            case "UNPARK":
+                parkedVehicles.remove(f[1]);
+                break;
+            case "PAY": {
+                // Written by older builds (standalone payments); spot type was added later, so older records end after the timestamp
+                PaymentRecord payment = new PaymentRecord(f[1], Double.parseDouble(f[2]), f[3],
+                        Double.parseDouble(f[4]), Double.parseDouble(f[5]), Long.parseLong(f[6]), f.length > 7 ? f[7] : null);
+                payments.add(payment);
+                rollup.addPayment(payment, 1);
+                break;
+            }
+            case "CHECKOUT": {
+                PaymentRecord payment = new PaymentRecord(f[1], Double.parseDouble(f[2]), f[3],
+                        Double.parseDouble(f[4]), Double.parseDouble(f[5]), Long.parseLong(f[6]), f.length > 8 ? f[8] : null);
+                payments.add(payment);
+                rollup.addPayment(payment, 1);
+                Double fine = unpaidFines.get(f[1]);
+                if (fine != null) {
+                    double remaining = fine - Double.parseDouble(f[7]);
+                    if (remaining <= 0.0) {
+                        unpaidFines.remove(f[1]);
+                        rollup.addUnpaidFines(-fine);
+                    } else {
+                        unpaidFines.put(f[1], remaining);
+                        rollup.addUnpaidFines(remaining - fine);
+                    }
+                }
+                parkedVehicles.remove(f[1]);
+                break;
+            }
+            case "FINE_ADD": {
+                double amount = Double.parseDouble(f[2]);
+                unpaidFines.merge(f[1], amount, Double::sum);
+                rollup.addUnpaidFines(amount);
+                break;
+            }
+            case "FINE_SET": {
+                double amount = Double.parseDouble(f[2]);
+                Double previous = unpaidFines.get(f[1]);
+                if (previous == null) {
+                    break;
+                }
+                if (amount <= 0.0) {
+                    unpaidFines.remove(f[1]);
+                    rollup.addUnpaidFines(-previous);
+                } else {
+                    unpaidFines.put(f[1], amount);
+                    rollup.addUnpaidFines(amount - previous);
+                }
+                break;
+            }
+            case "VIP_ADD":
+                vipPlates.putIfAbsent(f[1], Long.parseLong(f[2]));
+                break;
+            case "VIP_DEL":
+                vipPlates.remove(f[1]);
+                break;
+            case "OKU_ADD":
+                okuCardHolders.putIfAbsent(f[1], Long.parseLong(f[2]));
+                break;
+            case "OKU_DEL":
+                okuCardHolders.remove(f[1]);
+                break;
+            case "USER": {
+                String[] existing = users.get(f[1]);
+                String licensePlate = existing == null ? null : existing[3];
+                users.put(f[1], new String[]{f[2], f[3], f[4], licensePlate});
+                break;
+            }
+            case "USER_DEL":
+                users.remove(f[1]);
+                break;
+            case "SCHEME":
+                activeScheme = f[1];
+                schemeHistory.put(Long.parseLong(f[2]), f[1]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown journal record " + f[0]);
+        }
+    }
+
+    private static boolean equalsNullable(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    // Fields are tab separated; nulls are written as \0 and separators/newlines are escaped
+    static String encode(String[] fields) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                sb.append(SEP);
+            }
+            String field = fields[i];
+            if (field == null) {
+                sb.append("\\0");
+                continue;
+            }
+            for (int j = 0; j < field.length(); j++) {
+                char c = field.charAt(j);
+                switch (c) {
+                    case '\\': sb.append("\\\\"); break;
+                    case '\t': sb.append("\\t"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    default: sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    static String[] decode(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean isNull = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == SEP) {
+                fields.add(isNull ? null : current.toString());
+                current.setLength(0);
+                isNull = false;
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                switch (next) {
+                    case 't': current.append('\t'); break;
+                    case 'n': current.append('\n'); break;
+                    case 'r': current.append('\r'); break;
+                    case '0': isNull = true; break;
+                    default: current.append(next);
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(isNull ? null : current.toString());
+        return fields.toArray(new String[0]);
+    }
+}
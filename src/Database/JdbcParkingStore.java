@@ -0,0 +1,984 @@
+package Database;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ParkingStore backed by the MySQL/MariaDB server configured in Database.
+ */
+public class JdbcParkingStore implements ParkingStore {
+
+    // Write-behind exits (-Dparking.payments.writeBehind=true), null when checkout commits synchronously
+    private final PaymentJournal paymentJournal;
+
+    // How often the rollups are rebuilt from the raw rows and checked for drift
+    private static final long ROLLUP_RECONCILE_MS = Long.getLong("parking.rollup.reconcileMs", 3600000L);
+    private ScheduledExecutorService reconciler;
+
+    public JdbcParkingStore() {
+        this(Boolean.getBoolean("parking.payments.writeBehind")
+                ? new PaymentJournal(
+                        new File(System.getProperty("parking.payments.journal", "data/payment-journal.log")),
+                        Boolean.parseBoolean(System.getProperty("parking.payments.fsync", "true")),
+                        Long.getLong("parking.payments.flushMs", 200L),
+                        Integer.getInteger("parking.payments.batchSize", 100))
+                : null);
+    }
+
+    public JdbcParkingStore(PaymentJournal paymentJournal) {
+        this.paymentJournal = paymentJournal;
+    }
+
+    @Override
+    public void initialize() throws SQLException {
+        DatabaseSetup.initialize();
+
+        // Verify database connection
+        try (Connection conn = Database.getConnection()) {
+            if (!conn.isValid(5)) {
+                throw new SQLException("Database connection is not valid");
+            }
+            System.out.println("Database connection successful.");
+        }
+        Database.getPool().warmUp();
+        if (paymentJournal != null) {
+            try {
+                paymentJournal.start();
+            } catch (IOException e) {
+                throw new SQLException("Cannot open payment journal: " + e.getMessage(), e);
+            }
+        }
+        startRollupReconciler();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            reconciler.shutdownNow();
+            if (paymentJournal != null) {
+                paymentJournal.close();
+            }
+            Database.shutdownPool();
+        }, "connection-pool-shutdown"));
+    }
+
+    // Runs every ROLLUP_RECONCILE_MS to report and repair drift. It only runs at startup when the
+    // rollups table is still empty (first start after the migration), to fill it
+    private void startRollupReconciler() {
+        reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rollup-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        reconciler.scheduleWithFixedDelay(() -> {
+            List<String> drift = reconcileRollups();
+            if (!drift.isEmpty()) {
+                System.err.println("Revenue rollups had drifted and were rebuilt:");
+                for (String line : drift) {
+                    System.err.println("  " + line);
+                }
+            }
+        }, rollupsEmpty() ? 0 : ROLLUP_RECONCILE_MS, ROLLUP_RECONCILE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean rollupsEmpty() {
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1 FROM rollups LIMIT 1")) {
+            return !rs.next();
+        } catch (SQLException e) {
+            System.err.println("Error reading revenue rollups: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "MySQL (JDBC)";
+    }
+
+    // --- Parked vehicles ---
+
+    @Override
+    public List<ParkedVehicleRecord> loadParkedVehicles() {
+        List<PaymentJournal.Exit> exiting = pendingExits(null);
+        List<ParkedVehicleRecord> vehicles = new ArrayList<>();
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT license_plate, vehicle_type, entry_time, parking_spot, entry_millis FROM parked_vehicles");
+            while (rs.next()) {
+                ParkedVehicleRecord vehicle = readParkedVehicle(rs);
+                if (!isExiting(exiting, vehicle)) {
+                    vehicles.add(vehicle);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading parked vehicles: " + e.getMessage());
+        }
+        return vehicles;
+    }
+
+    @Override
+    public ParkedVehicleRecord findParkedVehicle(String plate) {
+        List<PaymentJournal.Exit> exiting = pendingExits(plate);
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT license_plate, vehicle_type, entry_time, parking_spot, entry_millis FROM parked_vehicles WHERE license_plate = ?")) {
+            pstmt.setString(1, plate);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                ParkedVehicleRecord vehicle = readParkedVehicle(rs);
+                return isExiting(exiting, vehicle) ? null : vehicle;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting parked vehicle data: " + e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public CheckoutRecord loadCheckout(String plate) {
+        List<PaymentJournal.Exit> exiting = pendingExits(plate);
+        try {
+            return readWithExits(exiting, conn -> {
+                PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT p.license_plate, p.vehicle_type, p.entry_time, p.parking_spot, p.entry_millis, " +
+                    "COALESCE(f.amount, 0) AS unpaid_fine " +
+                    "FROM parked_vehicles p LEFT JOIN unpaid_fines f ON f.license_plate = p.license_plate " +
+                    "WHERE p.license_plate = ?");
+                pstmt.setString(1, plate);
+                ResultSet rs = pstmt.executeQuery();
+                if (!rs.next()) {
+                    return null;
+                }
+                ParkedVehicleRecord vehicle = readParkedVehicle(rs);
+                if (isExiting(exiting, vehicle)) {
+                    return null;
+                }
+                // Parked again while an earlier exit is still being written: that exit's settlement still applies
+                double fine = Math.max(0.0, rs.getDouble("unpaid_fine") - fineSettling(conn, exiting));
+                return new CheckoutRecord(vehicle, fine);
+            });
+        } catch (SQLException e) {
+            System.err.println("Error loading checkout data: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private ParkedVehicleRecord readParkedVehicle(ResultSet rs) throws SQLException {
+        return new ParkedVehicleRecord(
+            rs.getString("license_plate"),
+            rs.getString("vehicle_type"),
+            rs.getString("entry_time"),
+            nullToEmpty(rs.getString("parking_spot")),
+            rs.getLong("entry_millis")
+        );
+    }
+
+    // --- Journaled exits not yet written ---
+
+    // Pending exits for the plate (all plates when null), taken before the read they adjust
+    private List<PaymentJournal.Exit> pendingExits(String plate) {
+        if (paymentJournal == null) {
+            return new ArrayList<>();
+        }
+        List<PaymentJournal.Exit> exits = paymentJournal.getPendingExits();
+        if (plate != null) {
+            exits.removeIf(exit -> !exit.getPlate().equals(plate));
+        }
+        return exits;
+    }
+
+    // The row a pending exit ends. Once that exit is written the row is gone, so the check needs no snapshot
+    private static boolean isExiting(List<PaymentJournal.Exit> exiting, ParkedVehicleRecord vehicle) {
+        for (PaymentJournal.Exit exit : exiting) {
+            if (exit.getPlate().equals(vehicle.getPlate()) && exit.getEntryMillis() == vehicle.getEntryMillis()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private interface SnapshotRead<T> {
+        T read(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Runs the read on one connection. When exits are pending it runs in one
+     * REPEATABLE READ transaction, so fineSettling() sees the same state as
+     * the rows it adjusts, and an exit written in between is not counted twice.
+     */
+    private static <T> T readWithExits(List<PaymentJournal.Exit> exiting, SnapshotRead<T> read) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            if (exiting.isEmpty()) {
+                return read.read(conn);
+            }
+            int isolation = conn.getTransactionIsolation();
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            conn.setAutoCommit(false);
+            try {
+                return read.read(conn);
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(true);
+                conn.setTransactionIsolation(isolation);
+            }
+        }
+    }
+
+    // Exits among those given that the snapshot does not include yet (no payment row with their journal_id)
+    private static List<PaymentJournal.Exit> unwritten(Connection conn, List<PaymentJournal.Exit> exiting) throws SQLException {
+        if (exiting.isEmpty()) {
+            return exiting;
+        }
+        StringBuilder sql = new StringBuilder("SELECT journal_id FROM payments WHERE journal_id IN (");
+        for (int i = 0; i < exiting.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        PreparedStatement pstmt = conn.prepareStatement(sql.append(')').toString());
+        for (int i = 0; i < exiting.size(); i++) {
+            pstmt.setString(i + 1, exiting.get(i).getId());
+        }
+        Set<String> written = new HashSet<>();
+        ResultSet rs = pstmt.executeQuery();
+        while (rs.next()) {
+            written.add(rs.getString("journal_id"));
+        }
+        List<PaymentJournal.Exit> unwritten = new ArrayList<>();
+        for (PaymentJournal.Exit exit : exiting) {
+            if (!written.contains(exit.getId())) {
+                unwritten.add(exit);
+            }
+        }
+        return unwritten;
+    }
+
+    // Fine still to be settled by the given exits, as of the connection's snapshot
+    private static double fineSettling(Connection conn, List<PaymentJournal.Exit> exiting) throws SQLException {
+        double settling = 0.0;
+        for (PaymentJournal.Exit exit : unwritten(conn, exiting)) {
+            settling += exit.getFineSettled();
+        }
+        return settling;
+    }
+
+    // Spots are stored as NULL when unresolved but have always been read back as ""
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    @Override
+    public boolean saveParkedVehicle(ParkedVehicleRecord vehicle) {
+        // Replace rather than upsert: with parking_spot unique, ON DUPLICATE KEY UPDATE would
+        // rewrite the other plate's row when the spot is taken; a plain INSERT fails instead
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement("DELETE FROM parked_vehicles WHERE license_plate = ?");
+                 PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO parked_vehicles (license_plate, vehicle_type, entry_time, parking_spot, entry_millis) " +
+                    "VALUES (?, ?, ?, ?, ?)")) {
+                delete.setString(1, vehicle.getPlate());
+                delete.executeUpdate();
+                insert.setString(1, vehicle.getPlate());
+                insert.setString(2, vehicle.getVehicleType());
+                insert.setString(3, vehicle.getEntryTime());
+                // No spot is stored as NULL, which the unique key allows any number of times
+                String spot = vehicle.getParkingSpot();
+                if (spot == null || spot.isEmpty()) {
+                    insert.setNull(4, Types.VARCHAR);
+                } else {
+                    insert.setString(4, spot);
+                }
+                insert.setLong(5, vehicle.getEntryMillis());
+                insert.executeUpdate();
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error adding parked vehicle: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void deleteParkedVehicle(String plate) {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM parked_vehicles WHERE license_plate = ?")) {
+            pstmt.setString(1, plate);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error removing parked vehicle: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean checkout(PaymentRecord payment, double fineSettled) {
+        if (paymentJournal != null) {
+            return checkoutToJournal(payment, fineSettled);
+        }
+        String plate = payment.getPlate();
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Lock the plate's parked and fine rows so a concurrent exit waits, then sees it gone
+                PreparedStatement lock = conn.prepareStatement(
+                    "SELECT p.license_plate, f.amount FROM parked_vehicles p " +
+                    "LEFT JOIN unpaid_fines f ON f.license_plate = p.license_plate " +
+                    "WHERE p.license_plate = ? FOR UPDATE");
+                lock.setString(1, plate);
+                ResultSet rs = lock.executeQuery();
+                if (!rs.next()) {
+                    conn.rollback();
+                    return false;
+                }
+
+                insertPayment(conn, payment);
+                settleUnpaidFine(conn, plate, fineSettled);
+
+                PreparedStatement unpark = conn.prepareStatement("DELETE FROM parked_vehicles WHERE license_plate = ?");
+                unpark.setString(1, plate);
+                unpark.executeUpdate();
+
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error completing checkout: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Write-behind exit: one fsync'd journal append after a plain read of the
+     * parked row, with no transaction or commit at the barrier. The journal
+     * writer applies the whole exit later. The parked check takes no locks,
+     * so an exit of the same car from another instance within one drain
+     * interval also succeeds; the writer keeps both payments and reports the
+     * second.
+     */
+    private boolean checkoutToJournal(PaymentRecord payment, double fineSettled) {
+        ParkedVehicleRecord parked = findParkedVehicle(payment.getPlate());
+        if (parked == null) {
+            return false;
+        }
+        try {
+            // null when this instance already has the same exit pending
+            return paymentJournal.append(payment, fineSettled, parked.getEntryMillis()) != null;
+        } catch (IOException e) {
+            System.err.println("Error completing checkout: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Settles up to fineSettled of the plate's unpaid fine, with its rollup cell; runs on the caller's transaction
+    static void settleUnpaidFine(Connection conn, String plate, double fineSettled) throws SQLException {
+        PreparedStatement select = conn.prepareStatement("SELECT amount FROM unpaid_fines WHERE license_plate = ? FOR UPDATE");
+        select.setString(1, plate);
+        ResultSet rs = select.executeQuery();
+        if (!rs.next()) {
+            return;
+        }
+        double currentFine = rs.getDouble("amount");
+        double remaining = Math.max(0.0, currentFine - fineSettled);
+        PreparedStatement fine;
+        if (remaining <= 0.0) {
+            fine = conn.prepareStatement("DELETE FROM unpaid_fines WHERE license_plate = ?");
+            fine.setString(1, plate);
+        } else {
+            fine = conn.prepareStatement("UPDATE unpaid_fines SET amount = ? WHERE license_plate = ?");
+            fine.setDouble(1, remaining);
+            fine.setString(2, plate);
+        }
+        fine.executeUpdate();
+        addUnpaidFinesToRollup(conn, remaining - currentFine);
+    }
+
+    // --- Payments ---
+
+    // Payment row plus its rollup cells, on the caller's transaction
+    private static void insertPayment(Connection conn, PaymentRecord payment) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(
+            "INSERT INTO payments (license_plate, amount, method, parking_fee, fine_amount, payment_time, spot_type) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        pstmt.setString(1, payment.getPlate());
+        pstmt.setDouble(2, payment.getAmount());
+        pstmt.setString(3, payment.getMethod());
+        pstmt.setDouble(4, payment.getParkingFee());
+        pstmt.setDouble(5, payment.getFineAmount());
+        pstmt.setTimestamp(6, new Timestamp(payment.getPaidAtMillis()));
+        pstmt.setString(7, payment.getSpotType());
+        pstmt.executeUpdate();
+        addPaymentToRollup(conn, payment, 1);
+    }
+
+    // Totals include every exit already taken: journaled ones not yet written are added from memory, not drained
+    @Override
+    public double getTotalRevenue() {
+        List<PaymentJournal.Exit> exiting = pendingExits(null);
+        try {
+            return readWithExits(exiting, conn -> {
+                double total = readRollupAmount(conn, RevenueRollup.TOTAL);
+                for (PaymentJournal.Exit exit : unwritten(conn, exiting)) {
+                    total += exit.getPayment().getAmount();
+                }
+                return total;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error getting total revenue: " + e.getMessage());
+            return 0.0;
+        }
+    }
+
+    @Override
+    public RevenueRollup getRevenueRollup() {
+        List<PaymentJournal.Exit> exiting = pendingExits(null);
+        RevenueRollup rollup = new RevenueRollup();
+        try {
+            readWithExits(exiting, conn -> {
+                ResultSet rs = conn.createStatement().executeQuery("SELECT dimension, bucket, amount, payments FROM rollups");
+                while (rs.next()) {
+                    rollup.add(rs.getString("dimension"), rs.getString("bucket"), rs.getDouble("amount"), rs.getLong("payments"));
+                }
+                for (PaymentJournal.Exit exit : unwritten(conn, exiting)) {
+                    rollup.addPayment(exit.getPayment(), 1);
+                    rollup.addUnpaidFines(-exit.getFineSettled());
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error reading revenue rollups: " + e.getMessage());
+        }
+        return rollup;
+    }
+
+    @Override
+    public List<String> reconcileRollups() {
+        // Journaled exits not yet written are in neither the rollups nor the rows, so they need no flush
+        RevenueRollup snapshot = new RevenueRollup();
+        RevenueRollup rebuilt = new RevenueRollup();
+        try (Connection conn = Database.getConnection()) {
+            // One REPEATABLE READ transaction of plain (non-locking) reads: the rollups and the rows
+            // they summarize come from the same snapshot, and writers never wait for the scan
+            int isolation = conn.getTransactionIsolation();
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                ResultSet rs = stmt.executeQuery("SELECT dimension, bucket, amount, payments FROM rollups");
+                while (rs.next()) {
+                    snapshot.add(rs.getString("dimension"), rs.getString("bucket"), rs.getDouble("amount"), rs.getLong("payments"));
+                }
+                rs = stmt.executeQuery("SELECT amount, method, payment_time, spot_type FROM payments");
+                while (rs.next()) {
+                    Timestamp paidAt = rs.getTimestamp("payment_time");
+                    rebuilt.addPayment(new PaymentRecord(null, rs.getDouble("amount"), rs.getString("method"), 0.0, 0.0,
+                            paidAt == null ? 0L : paidAt.getTime(), rs.getString("spot_type")), 1);
+                }
+                rs = stmt.executeQuery("SELECT COALESCE(SUM(amount), 0) AS total FROM unpaid_fines");
+                if (rs.next()) {
+                    rebuilt.addUnpaidFines(rs.getDouble("total"));
+                }
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(true);
+                conn.setTransactionIsolation(isolation);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reconciling revenue rollups: " + e.getMessage());
+            return new ArrayList<>();
+        }
+
+        List<String> drift = snapshot.driftFrom(rebuilt);
+        if (drift.isEmpty()) {
+            return drift;
+        }
+
+        // Writes since the snapshot already moved the live cells by their own amounts, so the
+        // snapshot's error is added on top; only the drifting cells are touched, in one short commit
+        RevenueRollup correction = snapshot.correctionTo(rebuilt);
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement upsert = conn.prepareStatement(ROLLUP_UPSERT)) {
+                correction.forEach((dimension, bucket, amount, count) -> {
+                    try {
+                        upsert.setString(1, dimension);
+                        upsert.setString(2, bucket);
+                        upsert.setDouble(3, amount);
+                        upsert.setLong(4, count);
+                        upsert.addBatch();
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                upsert.executeBatch();
+                conn.commit();
+            } catch (SQLException | IllegalStateException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException | IllegalStateException e) {
+            System.err.println("Error repairing revenue rollups: " + e.getMessage());
+            return new ArrayList<>();
+        }
+        // A table that was never filled (first start after the migration) is not drift
+        return snapshot.isEmpty() ? new ArrayList<>() : drift;
+    }
+
+    // sign is 1 for a recorded payment and -1 for one removed again; runs on the caller's transaction
+    static void addPaymentToRollup(Connection conn, PaymentRecord payment, int sign) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(ROLLUP_UPSERT);
+        for (String[] key : RevenueRollup.bucketsFor(payment)) {
+            pstmt.setString(1, key[0]);
+            pstmt.setString(2, key[1]);
+            pstmt.setDouble(3, sign * payment.getAmount());
+            pstmt.setLong(4, sign);
+            pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+    }
+
+    private static void addUnpaidFinesToRollup(Connection conn, double delta) throws SQLException {
+        if (delta == 0.0) {
+            return;
+        }
+        PreparedStatement pstmt = conn.prepareStatement(ROLLUP_UPSERT);
+        pstmt.setString(1, RevenueRollup.UNPAID_FINES);
+        pstmt.setString(2, "");
+        pstmt.setDouble(3, delta);
+        pstmt.setLong(4, 0);
+        pstmt.executeUpdate();
+    }
+
+    private static final String ROLLUP_UPSERT =
+        "INSERT INTO rollups (dimension, bucket, amount, payments) VALUES (?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE amount = amount + VALUES(amount), payments = payments + VALUES(payments)";
+
+    // --- Unpaid fines ---
+
+    @Override
+    public double getUnpaidFine(String plate) {
+        List<PaymentJournal.Exit> exiting = pendingExits(plate);
+        try {
+            return readWithExits(exiting, conn -> {
+                PreparedStatement pstmt = conn.prepareStatement("SELECT amount FROM unpaid_fines WHERE license_plate = ?");
+                pstmt.setString(1, plate);
+                ResultSet rs = pstmt.executeQuery();
+                if (!rs.next()) {
+                    return 0.0;
+                }
+                return Math.max(0.0, rs.getDouble("amount") - fineSettling(conn, exiting));
+            });
+        } catch (SQLException e) {
+            System.err.println("Error getting unpaid fine: " + e.getMessage());
+        }
+        return 0.0;
+    }
+
+    @Override
+    public void addUnpaidFine(String plate, double amount) {
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO unpaid_fines (license_plate, amount) VALUES (?, ?) " +
+                    "ON DUPLICATE KEY UPDATE amount = amount + ?");
+                pstmt.setString(1, plate);
+                pstmt.setDouble(2, amount);
+                pstmt.setDouble(3, amount);
+                pstmt.executeUpdate();
+                addUnpaidFinesToRollup(conn, amount);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error issuing fine: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void setUnpaidFine(String plate, double amount) {
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement select = conn.prepareStatement(
+                    "SELECT amount FROM unpaid_fines WHERE license_plate = ? FOR UPDATE");
+                select.setString(1, plate);
+                ResultSet rs = select.executeQuery();
+                if (!rs.next()) {
+                    // Nothing outstanding: an update would not create the row either
+                    conn.rollback();
+                    return;
+                }
+                double previous = rs.getDouble("amount");
+                if (amount <= 0.0) {
+                    PreparedStatement pstmt = conn.prepareStatement("DELETE FROM unpaid_fines WHERE license_plate = ?");
+                    pstmt.setString(1, plate);
+                    pstmt.executeUpdate();
+                    addUnpaidFinesToRollup(conn, -previous);
+                } else {
+                    PreparedStatement pstmt = conn.prepareStatement("UPDATE unpaid_fines SET amount = ? WHERE license_plate = ?");
+                    pstmt.setDouble(1, amount);
+                    pstmt.setString(2, plate);
+                    pstmt.executeUpdate();
+                    addUnpaidFinesToRollup(conn, amount - previous);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating unpaid fine: " + e.getMessage());
+        }
+    }
+
+    // Journaled exits not yet written settle their fines from memory; each settles at most the fine it was priced with
+    @Override
+    public double getTotalUnpaidFines() {
+        List<PaymentJournal.Exit> exiting = pendingExits(null);
+        try {
+            return readWithExits(exiting, conn -> {
+                double total = readRollupAmount(conn, RevenueRollup.UNPAID_FINES);
+                return Math.max(0.0, total - fineSettling(conn, exiting));
+            });
+        } catch (SQLException e) {
+            System.err.println("Error getting total unpaid fines: " + e.getMessage());
+            return 0.0;
+        }
+    }
+
+    // Single-row read of an overall rollup cell
+    private static double readRollupAmount(Connection conn, String dimension) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement("SELECT amount FROM rollups WHERE dimension = ? AND bucket = ''");
+        pstmt.setString(1, dimension);
+        ResultSet rs = pstmt.executeQuery();
+        return rs.next() ? rs.getDouble("amount") : 0.0;
+    }
+
+    @Override
+    public Map<String, Double> getAllUnpaidFines() {
+        List<PaymentJournal.Exit> exiting = pendingExits(null);
+        Map<String, Double> unpaidFines = new TreeMap<>();
+        try {
+            readWithExits(exiting, conn -> {
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT license_plate, amount FROM unpaid_fines ORDER BY license_plate");
+                while (rs.next()) {
+                    unpaidFines.put(rs.getString("license_plate"), rs.getDouble("amount"));
+                }
+                for (PaymentJournal.Exit exit : unwritten(conn, exiting)) {
+                    Double fine = unpaidFines.get(exit.getPlate());
+                    if (fine != null) {
+                        double remaining = fine - exit.getFineSettled();
+                        if (remaining <= 0.0) {
+                            unpaidFines.remove(exit.getPlate());
+                        } else {
+                            unpaidFines.put(exit.getPlate(), remaining);
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error retrieving unpaid fines from database: " + e.getMessage());
+        }
+        return unpaidFines;
+    }
+
+    // --- VIP and OKU registries ---
+
+    @Override
+    public boolean isVipPlate(String plate) {
+        return plateExists("vip_plates", plate, "Error checking VIP plate: ");
+    }
+
+    @Override
+    public Set<String> getVipPlates() {
+        return loadPlates("vip_plates", "Error loading VIP plates: ");
+    }
+
+    @Override
+    public void addVipPlate(String plate) {
+        updatePlate("INSERT IGNORE INTO vip_plates (license_plate) VALUES (?)", plate, "Error adding VIP plate: ");
+    }
+
+    @Override
+    public void removeVipPlate(String plate) {
+        updatePlate("DELETE FROM vip_plates WHERE license_plate = ?", plate, "Error removing VIP plate: ");
+    }
+
+    @Override
+    public boolean isOkuCardHolder(String plate) {
+        return plateExists("oku_card_holders", plate, "OKU Card Check Error: ");
+    }
+
+    @Override
+    public Set<String> getOkuCardHolders() {
+        return loadPlates("oku_card_holders", "Error loading OKU card holders: ");
+    }
+
+    @Override
+    public void addOkuCardHolder(String plate) {
+        updatePlate("INSERT IGNORE INTO oku_card_holders (license_plate) VALUES (?)", plate, "Error adding OKU card holder: ");
+    }
+
+    @Override
+    public void removeOkuCardHolder(String plate) {
+        updatePlate("DELETE FROM oku_card_holders WHERE license_plate = ?", plate, "Error removing OKU card holder: ");
+    }
+
+    @Override
+    public Map<String, Long> getVipPlatesSince(long sinceMillis) {
+        return loadPlatesSince("vip_plates", sinceMillis, "Error loading VIP plates: ");
+    }
+
+    @Override
+    public Map<String, Long> getOkuCardHoldersSince(long sinceMillis) {
+        return loadPlatesSince("oku_card_holders", sinceMillis, "Error loading OKU card holders: ");
+    }
+
+    private boolean plateExists(String table, String plate, String errorPrefix) {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM " + table + " WHERE license_plate = ? LIMIT 1")) {
+            pstmt.setString(1, plate);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            System.err.println(errorPrefix + e.getMessage());
+            return false;
+        }
+    }
+
+    private Set<String> loadPlates(String table, String errorPrefix) {
+        Set<String> plates = new HashSet<>();
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT license_plate FROM " + table);
+            while (rs.next()) {
+                plates.add(rs.getString("license_plate"));
+            }
+        } catch (SQLException e) {
+            System.err.println(errorPrefix + e.getMessage());
+        }
+        return plates;
+    }
+
+    private Map<String, Long> loadPlatesSince(String table, long sinceMillis, String errorPrefix) {
+        Map<String, Long> plates = new HashMap<>();
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT license_plate, registered_at FROM " + table + " WHERE registered_at >= ?")) {
+            pstmt.setTimestamp(1, new Timestamp(sinceMillis));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp registeredAt = rs.getTimestamp("registered_at");
+                    plates.put(rs.getString("license_plate"), registeredAt == null ? 0L : registeredAt.getTime());
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(errorPrefix + e.getMessage());
+        }
+        return plates;
+    }
+
+    private void updatePlate(String sql, String plate, String errorPrefix) {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, plate);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println(errorPrefix + e.getMessage());
+        }
+    }
+
+    // --- Users ---
+
+    @Override
+    public Map<String, String> findUserById(String userId, String password) {
+        return findUser("SELECT user_id, name, password, role, license_plate FROM users WHERE user_id = ? AND password = ?",
+                userId, password, "Login Error: ");
+    }
+
+    @Override
+    public Map<String, String> findUserByName(String name, String password) {
+        return findUser("SELECT user_id, name, password, role, license_plate FROM users WHERE name = ? AND password = ?",
+                name, password, "Error authenticating user: ");
+    }
+
+    private Map<String, String> findUser(String sql, String key, String password, String errorPrefix) {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, key);
+            pstmt.setString(2, password);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                Map<String, String> user = new HashMap<>();
+                user.put("user_id", rs.getString("user_id"));
+                user.put("name", rs.getString("name"));
+                user.put("role", rs.getString("role"));
+                user.put("license_plate", rs.getString("license_plate"));
+                return user;
+            }
+        } catch (SQLException e) {
+            System.err.println(errorPrefix + e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public void saveUser(String userId, String name, String password, String role) {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO users (user_id, name, password, role) VALUES (?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE name = VALUES(name), password = VALUES(password), role = VALUES(role)")) {
+            pstmt.setString(1, userId);
+            pstmt.setString(2, name);
+            pstmt.setString(3, password);
+            pstmt.setString(4, role);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error adding/updating user: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void deleteUser(String userId) {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM users WHERE user_id = ?")) {
+            pstmt.setString(1, userId);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error deleting user: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<Map<String, String>> getNonAdminUsers() {
+        List<Map<String, String>> users = new ArrayList<>();
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT user_id, name, role FROM users WHERE role != 'ADMIN'");
+            while (rs.next()) {
+                Map<String, String> user = new HashMap<>();
+                user.put("user_id", rs.getString("user_id"));
+                user.put("name", rs.getString("name"));
+                user.put("role", rs.getString("role"));
+                users.add(user);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting all users: " + e.getMessage());
+        }
+        return users;
+    }
+
+    @Override
+    public boolean userExists(String userId) {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM users WHERE user_id = ?")) {
+            pstmt.setString(1, userId);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next();
+        } catch (SQLException e) {
+            System.err.println("Error checking user existence: " + e.getMessage());
+        }
+        return false;
+    }
+
+    // --- Fine schemes ---
+
+    @Override
+    public String loadActiveFineScheme() {
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT scheme_name FROM fine_schemes WHERE is_active = 1 LIMIT 1");
+            if (rs.next()) {
+                return rs.getString("scheme_name");
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading fine scheme: " + e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public void saveActiveFineScheme(String scheme, long activatedAtMillis) {
+        Timestamp activatedAt = new Timestamp(activatedAtMillis);
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            // Deactivate all schemes
+            stmt.executeUpdate("UPDATE fine_schemes SET is_active = 0");
+            // Activate selected scheme with the activation timestamp
+            PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO fine_schemes (scheme_name, is_active, changed_at) VALUES (?, 1, ?) " +
+                "ON DUPLICATE KEY UPDATE is_active = 1, changed_at = VALUES(changed_at)");
+            pstmt.setString(1, scheme);
+            pstmt.setTimestamp(2, activatedAt);
+            pstmt.executeUpdate();
+
+            // Log this scheme change to history for future reference
+            PreparedStatement historyPstmt = conn.prepareStatement(
+                "INSERT INTO fine_scheme_history (scheme_name, activated_at) VALUES (?, ?)");
+            historyPstmt.setString(1, scheme);
+            historyPstmt.setTimestamp(2, activatedAt);
+            historyPstmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error saving fine scheme: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String getFineSchemeAtTime(long millis) {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT scheme_name FROM fine_scheme_history " +
+                "WHERE activated_at <= ? " +
+                "ORDER BY activated_at DESC " +
+                "LIMIT 1")) {
+            pstmt.setTimestamp(1, new Timestamp(millis));
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return rs.getString("scheme_name");
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting fine scheme at time: " + e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public NavigableMap<Long, String> loadFineSchemeHistory() {
+        NavigableMap<Long, String> history = new TreeMap<>();
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                "SELECT scheme_name, activated_at FROM fine_scheme_history ORDER BY activated_at, id")) {
+            while (rs.next()) {
+                history.put(rs.getTimestamp("activated_at").getTime(), rs.getString("scheme_name"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading fine scheme history: " + e.getMessage());
+        }
+        return history;
+    }
+}
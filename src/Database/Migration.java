@@ -0,0 +1,44 @@
+package Database;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.zip.CRC32;
+
+/**
+ * One ordered schema migration step. Statements should be safe to re-run
+ * (IF NOT EXISTS / INSERT IGNORE), since MySQL commits DDL implicitly and a
+ * step interrupted half way will be applied again on the next start.
+ */
+public class Migration {
+    private final int version;
+    private final String description;
+    private final String[] statements;
+
+    public Migration(int version, String description, String... statements) {
+        this.version = version;
+        this.description = description;
+        this.statements = statements;
+    }
+
+    public void apply(Statement stmt) throws SQLException {
+        for (String sql : statements) {
+            stmt.executeUpdate(sql);
+        }
+    }
+
+    // Checksum of the step's SQL, stored in schema_version to detect edited migrations
+    public long checksum() {
+        CRC32 crc = new CRC32();
+        crc.update(Integer.toString(version).getBytes(StandardCharsets.UTF_8));
+        for (String sql : statements) {
+            crc.update(sql.getBytes(StandardCharsets.UTF_8));
+            crc.update('\n');
+        }
+        return crc.getValue();
+    }
+
+    public int getVersion() { return version; }
+    public String getDescription() { return description; }
+    protected String[] getStatements() { return statements; }
+}
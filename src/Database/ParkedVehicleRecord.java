@@ -0,0 +1,26 @@
+package Database;
+
+/**
+ * Immutable row of the parked_vehicles table.
+ */
+public final class ParkedVehicleRecord {
+    private final String plate;
+    private final String vehicleType;
+    private final String entryTime;
+    private final String parkingSpot;
+    private final long entryMillis;
+
+    public ParkedVehicleRecord(String plate, String vehicleType, String entryTime, String parkingSpot, long entryMillis) {
+        this.plate = plate;
+        this.vehicleType = vehicleType;
+        this.entryTime = entryTime;
+        this.parkingSpot = parkingSpot;
+        this.entryMillis = entryMillis;
+    }
+
+    public String getPlate() { return plate; }
+    public String getVehicleType() { return vehicleType; }
+    public String getEntryTime() { return entryTime; }
+    public String getParkingSpot() { return parkingSpot; }
+    public long getEntryMillis() { return entryMillis; }
+}
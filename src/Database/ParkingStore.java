@@ -0,0 +1,97 @@
+package Database;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+
+/**
+ * Storage SPI for everything the parking system persists.
+ * Plates passed in are expected to be normalized already.
+ * Apart from initialize(), implementations log failures and return an
+ * empty/default result, matching how the UI has always handled DB errors.
+ */
+public interface ParkingStore {
+
+    /**
+     * Prepare the backend (schema migration, journal replay, ...) before first use.
+     */
+    void initialize() throws SQLException;
+
+    String getName();
+
+    // --- Parked vehicles ---
+    List<ParkedVehicleRecord> loadParkedVehicles();
+    ParkedVehicleRecord findParkedVehicle(String plate);
+
+    /**
+     * The parked vehicle and its unpaid fine in one read, or null when the
+     * plate is not parked.
+     */
+    CheckoutRecord loadCheckout(String plate);
+
+    /**
+     * Completes an exit atomically: records the payment, settles fineSettled
+     * against the plate's current unpaid fine and removes the parked vehicle.
+     * Returns false, changing nothing, when the plate is no longer parked
+     * (e.g. another kiosk checked it out first) or the write failed.
+     */
+    boolean checkout(PaymentRecord payment, double fineSettled);
+
+    // Inserts or moves the plate's row; false when the write failed, so the caller can undo its claim
+    boolean saveParkedVehicle(ParkedVehicleRecord vehicle);
+    void deleteParkedVehicle(String plate);
+
+    // --- Payments (recorded only through checkout) ---
+    double getTotalRevenue();
+
+    // Revenue and unpaid fine aggregates, maintained as payments and fines are written
+    RevenueRollup getRevenueRollup();
+
+    /**
+     * Rebuilds the aggregates from the raw payments and unpaid_fines rows and
+     * returns a line for every cell that had drifted (empty when none had).
+     */
+    List<String> reconcileRollups();
+
+    // --- Unpaid fines ---
+    double getUnpaidFine(String plate);
+    void addUnpaidFine(String plate, double amount);
+    // Sets the outstanding amount; zero or less clears the plate's fine
+    void setUnpaidFine(String plate, double amount);
+    double getTotalUnpaidFines();
+    Map<String, Double> getAllUnpaidFines();
+
+    // --- VIP and OKU registries ---
+    boolean isVipPlate(String plate);
+    Set<String> getVipPlates();
+    void addVipPlate(String plate);
+    void removeVipPlate(String plate);
+
+    boolean isOkuCardHolder(String plate);
+    Set<String> getOkuCardHolders();
+    void addOkuCardHolder(String plate);
+    void removeOkuCardHolder(String plate);
+
+    // Plates registered at or after the given time, mapped to their registered_at millis
+    Map<String, Long> getVipPlatesSince(long sinceMillis);
+    Map<String, Long> getOkuCardHoldersSince(long sinceMillis);
+
+    // --- Users (maps use the column names user_id, name, role, license_plate) ---
+    Map<String, String> findUserById(String userId, String password);
+    Map<String, String> findUserByName(String name, String password);
+    void saveUser(String userId, String name, String password, String role);
+    void deleteUser(String userId);
+    List<Map<String, String>> getNonAdminUsers();
+    boolean userExists(String userId);
+
+    // --- Fine schemes ---
+    // Returns null when no scheme has been activated yet
+    String loadActiveFineScheme();
+    void saveActiveFineScheme(String scheme, long activatedAtMillis);
+    // Scheme active at the given time, or null when the history has no earlier entry
+    String getFineSchemeAtTime(long millis);
+    // Whole history keyed by activation millis, oldest first
+    NavigableMap<Long, String> loadFineSchemeHistory();
+}
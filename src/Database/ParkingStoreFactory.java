@@ -0,0 +1,39 @@
+package Database;
+
+import java.io.File;
+
+/**
+ * Chooses the storage backend once per process.
+ * -Dparking.store=mysql (default) uses the JDBC store
+ * (-Dparking.payments.writeBehind=true journals each exit locally and writes it to the database in the background),
+ * -Dparking.store=embedded runs in-process with a journal file
+ * (-Dparking.store.journal=path, -Dparking.store.fsync=false to skip fsync).
+ */
+public final class ParkingStoreFactory {
+    private static ParkingStore store;
+
+    private ParkingStoreFactory() {
+    }
+
+    public static synchronized ParkingStore getStore() {
+        if (store == null) {
+            store = create(System.getProperty("parking.store", "mysql"));
+        }
+        return store;
+    }
+
+    private static ParkingStore create(String backend) {
+        switch (backend.toLowerCase()) {
+            case "embedded":
+            case "memory":
+                String journal = System.getProperty("parking.store.journal", "data/parking-store.journal");
+                boolean fsync = Boolean.parseBoolean(System.getProperty("parking.store.fsync", "true"));
+                return new EmbeddedParkingStore(new File(journal), fsync);
+            case "mysql":
+            case "jdbc":
+                return new JdbcParkingStore();
+            default:
+                throw new IllegalArgumentException("Unknown parking.store backend: " + backend);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package Database;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind log of exits. append() makes a whole exit durable in a local
+ * append-only file and returns at once: the payment, the unpaid fine it
+ * settles and the parked row it ends. A background writer later applies
+ * pending exits to the database in batches, one commit per batch.
+ * Every entry carries a journal_id (UNIQUE in payments) that is written in
+ * the same transaction as the rest of its exit. The payment insert uses
+ * INSERT IGNORE, so an exit that already committed is skipped. A replay
+ * after a crash, or a retry after a commit whose outcome was lost, applies
+ * only the exits that never committed.
+ * The file is truncated whenever everything in it has been committed.
+ */
+public class PaymentJournal {
+    // entryMillis of an entry that ends no parked row (standalone payments from older builds)
+    static final long NO_PARKED_ROW = Long.MIN_VALUE;
+
+    /**
+     * One journaled exit. The parked row is identified by plate and
+     * entryMillis, so a later park of the same plate is left alone.
+     */
+    public static final class Exit {
+        private final String id;
+        private final PaymentRecord payment;
+        private final double fineSettled;
+        private final long entryMillis;
+
+        Exit(String id, PaymentRecord payment, double fineSettled, long entryMillis) {
+            this.id = id;
+            this.payment = payment;
+            this.fineSettled = fineSettled;
+            this.entryMillis = entryMillis;
+        }
+
+        public String getId() { return id; }
+        public PaymentRecord getPayment() { return payment; }
+        public String getPlate() { return payment.getPlate(); }
+        public double getFineSettled() { return fineSettled; }
+        public long getEntryMillis() { return entryMillis; }
+    }
+
+    private final File file;
+    private final boolean fsync;
+    private final long flushMillis;
+    private final int batchSize;
+
+    private final Object lock = new Object();
+    private FileOutputStream stream;
+    private Writer writer;
+    // Appended but not yet committed, in append order
+    private final Map<String, Exit> pending = new LinkedHashMap<>();
+
+    private final Object drainLock = new Object();
+    private ScheduledExecutorService drainer;
+
+    public PaymentJournal(File file, boolean fsync, long flushMillis, int batchSize) {
+        this.file = file;
+        this.fsync = fsync;
+        this.flushMillis = flushMillis;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Replays entries left by a previous run and starts the background writer.
+     */
+    public void start() throws IOException {
+        synchronized (lock) {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Cannot create directory " + parent);
+            }
+            if (file.isFile()) {
+                replay();
+            }
+            stream = new FileOutputStream(file, true);
+            writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+            // Start each run on a fresh line in case the last record was torn
+            writer.write('\n');
+            writer.flush();
+            if (!pending.isEmpty()) {
+                System.out.println("Payment journal: " + pending.size() + " exit(s) to replay from " + file.getPath() + ".");
+            }
+        }
+
+        drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "payment-journal-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        drainer.scheduleWithFixedDelay(this::drainQuietly, 0, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Durably records the exit of the parked row (plate, entryMillis) and
+     * returns its journal id. The database writes happen later. Returns null,
+     * recording nothing, when that row already has an exit pending.
+     */
+    public String append(PaymentRecord p, double fineSettled, long entryMillis) throws IOException {
+        String id = UUID.randomUUID().toString();
+        boolean full;
+        synchronized (lock) {
+            for (Exit exit : pending.values()) {
+                if (exit.entryMillis == entryMillis && exit.getPlate().equals(p.getPlate())) {
+                    return null;
+                }
+            }
+            writeRecord("EXIT", id, p.getPlate(), Double.toString(p.getAmount()), p.getMethod(),
+                    Double.toString(p.getParkingFee()), Double.toString(p.getFineAmount()),
+                    Long.toString(p.getPaidAtMillis()), p.getSpotType(),
+                    Double.toString(fineSettled), Long.toString(entryMillis));
+            pending.put(id, new Exit(id, p, fineSettled, entryMillis));
+            full = pending.size() >= batchSize;
+        }
+        if (full && drainer != null) {
+            drainer.execute(this::drainQuietly);
+        }
+        return id;
+    }
+
+    // Exits appended but not yet committed to the database, in append order
+    public List<Exit> getPendingExits() {
+        synchronized (lock) {
+            return new ArrayList<>(pending.values());
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Drains everything appended so far.
+     */
+    public void flush() {
+        drainQuietly();
+    }
+
+    // Drains what is left and stops the writer
+    public void close() {
+        if (drainer != null) {
+            drainer.shutdown();
+            try {
+                drainer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drainQuietly();
+        synchronized (lock) {
+            try {
+                if (writer != null) {
+                    writer.close();
+                }
+            } catch (IOException e) {
+                System.err.println("Error closing payment journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (SQLException e) {
+            // Entries stay pending and are retried on the next run of the writer
+            System.err.println("Error writing journaled exits: " + e.getMessage());
+        }
+    }
+
+    private void drain() throws SQLException {
+        synchronized (drainLock) {
+            while (true) {
+                List<Exit> batch = new ArrayList<>();
+                synchronized (lock) {
+                    for (Exit exit : pending.values()) {
+                        if (batch.size() == batchSize) {
+                            break;
+                        }
+                        batch.add(exit);
+                    }
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+
+                writeBatch(batch);
+
+                synchronized (lock) {
+                    for (Exit exit : batch) {
+                        pending.remove(exit.id);
+                    }
+                    if (pending.isEmpty()) {
+                        truncate();
+                    }
+                }
+            }
+        }
+    }
+
+    // One transaction per batch: every exit in it shares a single commit
+    private void writeBatch(List<Exit> batch) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement insert = conn.prepareStatement(
+                    "INSERT IGNORE INTO payments (journal_id, license_plate, amount, method, parking_fee, fine_amount, payment_time, spot_type) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+                for (Exit exit : batch) {
+                    PaymentRecord p = exit.payment;
+                    insert.setString(1, exit.id);
+                    insert.setString(2, p.getPlate());
+                    insert.setDouble(3, p.getAmount());
+                    insert.setString(4, p.getMethod());
+                    insert.setDouble(5, p.getParkingFee());
+                    insert.setDouble(6, p.getFineAmount());
+                    insert.setTimestamp(7, new Timestamp(p.getPaidAtMillis()));
+                    insert.setString(8, p.getSpotType());
+                    insert.addBatch();
+                }
+                int[] counts = insert.executeBatch();
+
+                PreparedStatement unpark = conn.prepareStatement(
+                    "DELETE FROM parked_vehicles WHERE license_plate = ? AND COALESCE(entry_millis, 0) = ?");
+                for (int i = 0; i < counts.length; i++) {
+                    // 0 means the exit already committed (a replay, or a retry after a lost commit reply)
+                    if (counts[i] == 0) {
+                        continue;
+                    }
+                    Exit exit = batch.get(i);
+                    JdbcParkingStore.addPaymentToRollup(conn, exit.payment, 1);
+                    if (exit.fineSettled > 0.0) {
+                        JdbcParkingStore.settleUnpaidFine(conn, exit.getPlate(), exit.fineSettled);
+                    }
+                    if (exit.entryMillis != NO_PARKED_ROW) {
+                        unpark.setString(1, exit.getPlate());
+                        unpark.setLong(2, exit.entryMillis);
+                        if (unpark.executeUpdate() == 0) {
+                            // Parked again since (which replaced the row), or, since the barrier's parked check is
+                            // a plain read, checked out by another instance first
+                            System.err.println("Payment journal: the parked row of " + exit.getPlate() + " was gone when exit "
+                                    + exit.id + " was written; its payment is kept.");
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void writeRecord(String... fields) throws IOException {
+        writer.write(EmbeddedParkingStore.encode(fields));
+        writer.write('\n');
+        writer.flush();
+        if (fsync) {
+            stream.getFD().sync();
+        }
+    }
+
+    // Everything in the file is committed, so it can start over empty
+    private void truncate() {
+        try {
+            writer.flush();
+            stream.getChannel().truncate(0);
+        } catch (IOException e) {
+            // Harmless: the entries are replayed idempotently on the next start
+            System.err.println("Error compacting payment journal: " + e.getMessage());
+        }
+    }
+
+    private void replay() throws IOException {
+        int lineNumber = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    String[] f = EmbeddedParkingStore.decode(line);
+                    switch (f[0]) {
+                        case "EXIT":
+                            pending.put(f[1], new Exit(f[1], new PaymentRecord(f[2], Double.parseDouble(f[3]), f[4],
+                                    Double.parseDouble(f[5]), Double.parseDouble(f[6]), Long.parseLong(f[7]), f[8]),
+                                    Double.parseDouble(f[9]), Long.parseLong(f[10])));
+                            break;
+                        case "PAY":
+                            // Standalone payment from an older build, whose exit committed on its own
+                            pending.put(f[1], new Exit(f[1], new PaymentRecord(f[2], Double.parseDouble(f[3]), f[4],
+                                    Double.parseDouble(f[5]), Double.parseDouble(f[6]), Long.parseLong(f[7]), f.length > 8 ? f[8] : null),
+                                    0.0, NO_PARKED_ROW));
+                            break;
+                        case "VOID":
+                            // Older builds cancelled a payment whose exit rolled back
+                            if (pending.remove(f[1]) == null) {
+                                System.err.println("Payment journal: payment " + f[1] + " was voided after it was written; check it by hand.");
+                            }
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Unknown journal record " + f[0]);
+                    }
+                } catch (RuntimeException e) {
+                    // Typically a record torn by a crash mid-write, which was never acknowledged
+                    System.err.println("Payment journal: skipping unreadable line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package Database;
+
+/**
+ * Immutable row of the payments table.
+ */
+public final class PaymentRecord {
+    private final String plate;
+    private final double amount;
+    private final String method;
+    private final double parkingFee;
+    private final double fineAmount;
+    private final long paidAtMillis;
+    private final String spotType;
+
+    public PaymentRecord(String plate, double amount, String method, double parkingFee, double fineAmount, long paidAtMillis) {
+        this(plate, amount, method, parkingFee, fineAmount, paidAtMillis, null);
+    }
+
+    // spotType is the type of spot the payment was for, or null when not tied to a spot
+    public PaymentRecord(String plate, double amount, String method, double parkingFee, double fineAmount, long paidAtMillis, String spotType) {
+        this.plate = plate;
+        this.amount = amount;
+        this.method = method;
+        this.parkingFee = parkingFee;
+        this.fineAmount = fineAmount;
+        this.paidAtMillis = paidAtMillis;
+        this.spotType = spotType;
+    }
+
+    public String getPlate() { return plate; }
+    public double getAmount() { return amount; }
+    public String getMethod() { return method; }
+    public double getParkingFee() { return parkingFee; }
+    public double getFineAmount() { return fineAmount; }
+    public long getPaidAtMillis() { return paidAtMillis; }
+    public String getSpotType() { return spotType; }
+}
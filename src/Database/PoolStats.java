@@ -0,0 +1,91 @@
+package Database;
+
+/**
+ * Immutable snapshot of ConnectionPool counters.
+ */
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int waiters;
+    private final int total;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrows;
+    private final long created;
+    private final long destroyed;
+    private final long timeouts;
+    private final long leaks;
+    private final long executions;
+    private final double averageWaitMillis;
+    private final long[] waitBucketBoundsMillis;
+    private final long[] waitHistogram;
+
+    public PoolStats(int active, int idle, int waiters, int total, int minSize, int maxSize,
+                     long borrows, long created, long destroyed, long timeouts, long leaks,
+                     long executions, double averageWaitMillis, long[] waitBucketBoundsMillis, long[] waitHistogram) {
+        this.active = active;
+        this.idle = idle;
+        this.waiters = waiters;
+        this.total = total;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrows = borrows;
+        this.created = created;
+        this.destroyed = destroyed;
+        this.timeouts = timeouts;
+        this.leaks = leaks;
+        this.executions = executions;
+        this.averageWaitMillis = averageWaitMillis;
+        this.waitBucketBoundsMillis = waitBucketBoundsMillis;
+        this.waitHistogram = waitHistogram;
+    }
+
+    // Getters
+    public int getActive() { return active; }
+    public int getIdle() { return idle; }
+    public int getWaiters() { return waiters; }
+    public int getTotal() { return total; }
+    public int getMinSize() { return minSize; }
+    public int getMaxSize() { return maxSize; }
+    public long getBorrows() { return borrows; }
+    public long getCreated() { return created; }
+    public long getDestroyed() { return destroyed; }
+    public long getTimeouts() { return timeouts; }
+    public long getLeaks() { return leaks; }
+    // Statements executed through pooled connections, i.e. database round trips
+    public long getExecutions() { return executions; }
+    public double getAverageWaitMillis() { return averageWaitMillis; }
+
+    /**
+     * Wait-time histogram counts. Bucket i counts waits below getWaitBucketBoundsMillis()[i];
+     * the final bucket counts everything above the last bound.
+     */
+    public long[] getWaitHistogram() { return waitHistogram.clone(); }
+    public long[] getWaitBucketBoundsMillis() { return waitBucketBoundsMillis.clone(); }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("active=").append(active)
+          .append(", idle=").append(idle)
+          .append(", waiters=").append(waiters)
+          .append(", total=").append(total).append('/').append(maxSize)
+          .append(", borrows=").append(borrows)
+          .append(", timeouts=").append(timeouts)
+          .append(", leaks=").append(leaks)
+          .append(", executions=").append(executions)
+          .append(String.format(", avgWait=%.3fms", averageWaitMillis))
+          .append(", waitHistogram=[");
+        for (int i = 0; i < waitHistogram.length; i++) {
+            if (i > 0) sb.append(", ");
+            if (i < waitBucketBoundsMillis.length) {
+                sb.append("<").append(waitBucketBoundsMillis[i]).append("ms:");
+            } else {
+                sb.append(">=").append(waitBucketBoundsMillis[waitBucketBoundsMillis.length - 1]).append("ms:");
+            }
+            sb.append(waitHistogram[i]);
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,171 @@
+package Database;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running revenue and fine aggregates, kept up to date as payments and
+ * fines are written so dashboards and reports never scan history.
+ * Each cell is (dimension, bucket) -> (amount, count): the overall total,
+ * one bucket per day, per payment method and per spot type, plus the
+ * outstanding unpaid fine total. The JDBC store keeps the same cells in
+ * the rollups table; this class is also used to rebuild and compare them.
+ */
+public final class RevenueRollup {
+    public static final String TOTAL = "total";
+    public static final String DAY = "day";
+    public static final String METHOD = "method";
+    public static final String SPOT_TYPE = "spot_type";
+    public static final String UNPAID_FINES = "unpaid_fines";
+
+    // Differences below half a sen are rounding, not drift
+    private static final double TOLERANCE = 0.005;
+
+    private static final class Cell {
+        private double amount;
+        private long count;
+    }
+
+    private final Map<String, Map<String, Cell>> cells = new TreeMap<>();
+
+    // Cells a payment contributes to, as {dimension, bucket} pairs
+    public static String[][] bucketsFor(PaymentRecord payment) {
+        return new String[][]{
+            {TOTAL, ""},
+            {DAY, dayBucket(payment.getPaidAtMillis())},
+            {METHOD, payment.getMethod() == null ? "" : payment.getMethod()},
+            {SPOT_TYPE, payment.getSpotType() == null ? "" : payment.getSpotType()}
+        };
+    }
+
+    // yyyy-MM-dd in the local time zone
+    public static String dayBucket(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate().toString();
+    }
+
+    public void add(String dimension, String bucket, double amount, long count) {
+        Cell cell = cells.computeIfAbsent(dimension, d -> new TreeMap<>()).computeIfAbsent(bucket, b -> new Cell());
+        cell.amount += amount;
+        cell.count += count;
+    }
+
+    // sign is 1 when the payment is recorded and -1 when it is removed again
+    public void addPayment(PaymentRecord payment, int sign) {
+        for (String[] key : bucketsFor(payment)) {
+            add(key[0], key[1], sign * payment.getAmount(), sign);
+        }
+    }
+
+    public void addUnpaidFines(double delta) {
+        add(UNPAID_FINES, "", delta, 0);
+    }
+
+    public boolean isEmpty() {
+        return cells.isEmpty();
+    }
+
+    public double getTotalRevenue() {
+        return amount(TOTAL, "");
+    }
+
+    public long getPaymentCount() {
+        Cell cell = cell(TOTAL, "");
+        return cell == null ? 0 : cell.count;
+    }
+
+    public double getTotalUnpaidFines() {
+        return amount(UNPAID_FINES, "");
+    }
+
+    public Map<String, Double> getRevenueByDay() { return amounts(DAY); }
+    public Map<String, Double> getRevenueByMethod() { return amounts(METHOD); }
+    public Map<String, Double> getRevenueBySpotType() { return amounts(SPOT_TYPE); }
+
+    public RevenueRollup copy() {
+        RevenueRollup copy = new RevenueRollup();
+        forEach((dimension, bucket, amount, count) -> copy.add(dimension, bucket, amount, count));
+        return copy;
+    }
+
+    public interface CellVisitor {
+        void visit(String dimension, String bucket, double amount, long count);
+    }
+
+    public void forEach(CellVisitor visitor) {
+        for (Map.Entry<String, Map<String, Cell>> dimension : cells.entrySet()) {
+            for (Map.Entry<String, Cell> bucket : dimension.getValue().entrySet()) {
+                visitor.visit(dimension.getKey(), bucket.getKey(), bucket.getValue().amount, bucket.getValue().count);
+            }
+        }
+    }
+
+    /**
+     * One line per cell where this rollup differs from expected (e.g. a rebuild
+     * from the raw rows); empty when they agree.
+     */
+    public List<String> driftFrom(RevenueRollup expected) {
+        List<String> drift = new ArrayList<>();
+        RevenueRollup union = copy();
+        expected.forEach((dimension, bucket, amount, count) -> union.add(dimension, bucket, 0.0, 0));
+        union.forEach((dimension, bucket, ignoredAmount, ignoredCount) -> {
+            Cell actual = cell(dimension, bucket);
+            Cell wanted = expected.cell(dimension, bucket);
+            double actualAmount = actual == null ? 0.0 : actual.amount;
+            double wantedAmount = wanted == null ? 0.0 : wanted.amount;
+            long actualCount = actual == null ? 0 : actual.count;
+            long wantedCount = wanted == null ? 0 : wanted.count;
+            if (Math.abs(actualAmount - wantedAmount) >= TOLERANCE || actualCount != wantedCount) {
+                drift.add(String.format("%s[%s]: rollup RM %.2f (%d) vs actual RM %.2f (%d)",
+                        dimension, bucket, actualAmount, actualCount, wantedAmount, wantedCount));
+            }
+        });
+        return drift;
+    }
+
+    /**
+     * The per-cell amounts that turn this rollup into expected, for drifting
+     * cells only. Adding them to a rollup that has since moved on by later
+     * writes repairs it without redoing those writes.
+     */
+    public RevenueRollup correctionTo(RevenueRollup expected) {
+        RevenueRollup correction = new RevenueRollup();
+        RevenueRollup union = copy();
+        expected.forEach((dimension, bucket, amount, count) -> union.add(dimension, bucket, 0.0, 0));
+        union.forEach((dimension, bucket, ignoredAmount, ignoredCount) -> {
+            Cell actual = cell(dimension, bucket);
+            Cell wanted = expected.cell(dimension, bucket);
+            double amountDelta = (wanted == null ? 0.0 : wanted.amount) - (actual == null ? 0.0 : actual.amount);
+            long countDelta = (wanted == null ? 0 : wanted.count) - (actual == null ? 0 : actual.count);
+            if (Math.abs(amountDelta) >= TOLERANCE || countDelta != 0) {
+                correction.add(dimension, bucket, amountDelta, countDelta);
+            }
+        });
+        return correction;
+    }
+
+    private Cell cell(String dimension, String bucket) {
+        Map<String, Cell> buckets = cells.get(dimension);
+        return buckets == null ? null : buckets.get(bucket);
+    }
+
+    private double amount(String dimension, String bucket) {
+        Cell cell = cell(dimension, bucket);
+        return cell == null ? 0.0 : cell.amount;
+    }
+
+    private Map<String, Double> amounts(String dimension) {
+        Map<String, Double> result = new TreeMap<>();
+        Map<String, Cell> buckets = cells.get(dimension);
+        if (buckets != null) {
+            for (Map.Entry<String, Cell> entry : buckets.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().amount);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,121 @@
+package Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies ordered, checksummed migrations tracked in the schema_version table.
+ * The current state is read with a single query; only missing steps are executed.
+ */
+public class SchemaMigrator {
+
+    // MySQL error code for "Table doesn't exist"
+    private static final int ER_NO_SUCH_TABLE = 1146;
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version ("
+            + "version INT PRIMARY KEY, "
+            + "description VARCHAR(200), "
+            + "checksum BIGINT, "
+            + "execution_ms BIGINT, "
+            + "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP"
+            + ")";
+
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(List<Migration> migrations) {
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort((a, b) -> Integer.compare(a.getVersion(), b.getVersion()));
+        for (int i = 1; i < this.migrations.size(); i++) {
+            if (this.migrations.get(i).getVersion() == this.migrations.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Duplicate migration version " + this.migrations.get(i).getVersion());
+            }
+        }
+    }
+
+    /**
+     * Bring the schema up to date. Returns the number of migrations applied.
+     */
+    public int migrate(Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        Map<Integer, Long> applied = readAppliedVersions(conn);
+
+        int current = 0;
+        for (Map.Entry<Integer, Long> entry : applied.entrySet()) {
+            current = Math.max(current, entry.getKey());
+        }
+
+        List<Migration> pending = new ArrayList<>();
+        for (Migration migration : migrations) {
+            Long storedChecksum = applied.get(migration.getVersion());
+            if (storedChecksum == null) {
+                pending.add(migration);
+            } else if (storedChecksum != migration.checksum()) {
+                System.err.println("Migration warning: V" + migration.getVersion() + " (" + migration.getDescription()
+                        + ") was changed after it was applied (checksum mismatch).");
+            }
+        }
+
+        if (pending.isEmpty()) {
+            System.out.println("Schema is up to date at version " + current + ".");
+            return 0;
+        }
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement record = conn.prepareStatement(
+                     "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+            for (Migration migration : pending) {
+                long stepStart = System.nanoTime();
+                migration.apply(stmt);
+                long stepMillis = (System.nanoTime() - stepStart) / 1_000_000L;
+
+                // Recorded right after the step so an implicit DDL commit never leaves a step unrecorded
+                record.setInt(1, migration.getVersion());
+                record.setString(2, migration.getDescription());
+                record.setLong(3, migration.checksum());
+                record.setLong(4, stepMillis);
+                record.executeUpdate();
+
+                System.out.println("Migration: V" + migration.getVersion() + " " + migration.getDescription()
+                        + " applied in " + stepMillis + " ms.");
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+
+        long totalMillis = (System.nanoTime() - start) / 1_000_000L;
+        System.out.println("Schema migrated from version " + current + " to "
+                + pending.get(pending.size() - 1).getVersion() + " in " + totalMillis + " ms.");
+        return pending.size();
+    }
+
+    private Map<Integer, Long> readAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+                while (rs.next()) {
+                    applied.put(rs.getInt("version"), rs.getLong("checksum"));
+                }
+            } catch (SQLException e) {
+                if (e.getErrorCode() != ER_NO_SUCH_TABLE) {
+                    throw e;
+                }
+                // First run against this database
+                stmt.executeUpdate(CREATE_VERSION_TABLE);
+            }
+        }
+        return applied;
+    }
+}
@@ -1,41 +1,56 @@
-import Database.Database;
-import Database.DatabaseSetup;
-import java.sql.Connection;
+import Database.ParkingStore;
+import Database.ParkingStoreFactory;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Main.java - Entry point for the Parking System Application
- * Initializes database and launches the UI with shared data manager
+ * Initializes database and launches the UI with shared data manager.
+ * Storage setup runs on a background thread while the main page is built
+ * and shown; the page becomes usable once the data manager is ready.
  */
 public class Main {
     public static void main(String[] args) {
-        // Step 1: Initialize database
-        System.out.println("Initializing database...");
-        DatabaseSetup.initialize();
+        StartupTimeline.mark("main");
 
-        try {
-            // Step 2: Verify database connection
-            try (Connection conn = Database.getConnection()) {
-                System.out.println("Database connection successful.");
-            }
+        // Step 1: Start decoding the page images so they are ready when first shown
+        ImageCache.prefetch(CustomerUI.PARKING_MAP_IMAGE, 650, 500);
+        ImageCache.prefetch(CustomerUI.QR_PAYMENT_IMAGE, 300, 350);
 
-            // Step 3: Create necessary tables and initialize dummy data
-            try (Connection conn = Database.getConnection()) {
-                DataInitializer.createDatabaseTables(conn);
+        // Step 2: Initialize storage (schema migrations and connection check, or journal replay)
+        // and create the shared data manager, alongside UI construction
+        CompletableFuture<UIDataManager> data = new CompletableFuture<>();
+        Thread loader = new Thread(() -> {
+            try {
+                ParkingStore store = ParkingStoreFactory.getStore();
+                System.out.println("Initializing storage: " + store.getName() + "...");
+                store.initialize();
+                StartupTimeline.mark("storage initialized");
+                data.complete(new UIDataManager(store));
+                StartupTimeline.mark("data manager ready");
+            } catch (Throwable e) {
+                data.completeExceptionally(e);
             }
+        }, "startup-data");
+        loader.start();
 
-            // Step 5: Create shared data manager
-            UIDataManager dataManager = new UIDataManager();
+        // Step 3: Report any UI freeze (data access runs off the EDT, so none is expected)
+        EdtWatchdog.start();
 
-            // Step 6: Launch Main Page (entry point)
-            javax.swing.SwingUtilities.invokeLater(() -> {
-                MainPage mainPage = new MainPage(dataManager);
-                mainPage.setVisible(true);
-            });
+        // Step 4: Launch Main Page (entry point), enabled once the data manager is ready
+        javax.swing.SwingUtilities.invokeLater(() -> {
+            MainPage mainPage = new MainPage();
+            mainPage.setVisible(true);
+            StartupTimeline.mark("main page shown");
 
-        } catch (Exception e) {
-            System.err.println("Application startup error: " + e.getMessage());
-            e.printStackTrace();
-            System.exit(1);
-        }
+            data.whenComplete((dataManager, error) -> javax.swing.SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    System.err.println("Application startup error: " + error.getMessage());
+                    error.printStackTrace();
+                    System.exit(1);
+                }
+                mainPage.setDataManager(dataManager);
+                StartupTimeline.finish();
+            }));
+        });
     }
 }
@@ -0,0 +1,74 @@
+package Management;
+
+import Database.CheckoutRecord;
+import Database.ParkedVehicleRecord;
+
+/**
+ * Pricing for one exit. Every input that needs a lookup (parked vehicle,
+ * unpaid fine, OKU status via the hourly rate, fine scheme at entry) is
+ * resolved once when the session is opened; durations, fees and fines
+ * are then plain arithmetic, and at() re-prices for a later exit time
+ * without touching storage again.
+ */
+public final class CheckoutSession {
+    private static final long HOUR_MILLIS = 60L * 60 * 1000;
+
+    private final ParkedVehicleRecord vehicle;
+    private final double unpaidFine;
+    private final double hourlyRate;
+    private final FineEngine fineEngine;
+    private final int schemeId;
+    private final long exitMillis;
+    private final long hoursCharged;
+
+    public CheckoutSession(CheckoutRecord record, double hourlyRate, FineEngine fineEngine, int schemeId, long exitMillis) {
+        this(record.getVehicle(), record.getUnpaidFine(), hourlyRate, fineEngine, schemeId, exitMillis);
+    }
+
+    private CheckoutSession(ParkedVehicleRecord vehicle, double unpaidFine, double hourlyRate,
+                            FineEngine fineEngine, int schemeId, long exitMillis) {
+        this.vehicle = vehicle;
+        this.unpaidFine = unpaidFine;
+        this.hourlyRate = hourlyRate;
+        this.fineEngine = fineEngine;
+        this.schemeId = schemeId;
+        this.exitMillis = exitMillis;
+        // Ceiling hours with a one hour minimum, as charged at the exit
+        long parkedMillis = Math.max(0L, exitMillis - vehicle.getEntryMillis());
+        this.hoursCharged = Math.max(1L, (parkedMillis + HOUR_MILLIS - 1) / HOUR_MILLIS);
+    }
+
+    // Same inputs priced at another exit time
+    public CheckoutSession at(long exitMillis) {
+        return new CheckoutSession(vehicle, unpaidFine, hourlyRate, fineEngine, schemeId, exitMillis);
+    }
+
+    public ParkedVehicleRecord getVehicle() { return vehicle; }
+    public String getPlate() { return vehicle.getPlate(); }
+    public long getExitMillis() { return exitMillis; }
+    public long getParkedMillis() { return Math.max(0L, exitMillis - vehicle.getEntryMillis()); }
+    public long getHoursCharged() { return hoursCharged; }
+    public double getHourlyRate() { return hourlyRate; }
+    public double getParkingFee() { return hourlyRate * hoursCharged; }
+
+    // Outstanding manual fines (e.g. reserved spot violations) owed before this exit
+    public double getUnpaidFine() { return unpaidFine; }
+
+    public String getFineSchemeName() {
+        return schemeId < 0 ? null : fineEngine.getSchemeName(schemeId);
+    }
+
+    // Overstay fine under the scheme that was active at entry
+    public double getOverstayFine() {
+        return fineEngine.evaluate(hoursCharged, schemeId);
+    }
+
+    public double getTotalFine() {
+        return getOverstayFine() + unpaidFine;
+    }
+
+    // Unpaid fine left after paying fineAmount of it
+    public double getRemainingFine(double fineAmount) {
+        return Math.max(0.0, unpaidFine - fineAmount);
+    }
+}
@@ -0,0 +1,112 @@
+package Management;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fine schedules compiled into one flat tier table. Scheme i owns tiers
+ * [tierStart[i], tierStart[i + 1]) of the threshold/flat/perHour arrays,
+ * so evaluating a fine is a short primitive loop with no allocation and
+ * a whole overstay sweep can be done in a single evaluate() call.
+ * Immutable once built; rebuild to change the schemes.
+ */
+public final class FineEngine {
+    private final FineSchedule[] schedules;
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final int[] tierStart;
+    private final long[] thresholds;
+    private final double[] flat;
+    private final double[] perHour;
+
+    // Later definitions replace earlier ones with the same name, keeping the first position
+    public FineEngine(List<FineSchedule> definitions) {
+        Map<String, FineSchedule> byName = new LinkedHashMap<>();
+        for (FineSchedule schedule : definitions) {
+            byName.put(schedule.getName(), schedule);
+        }
+        schedules = byName.values().toArray(new FineSchedule[0]);
+
+        int tiers = 0;
+        for (FineSchedule schedule : schedules) {
+            tiers += schedule.getTierCount();
+        }
+        tierStart = new int[schedules.length + 1];
+        thresholds = new long[tiers];
+        flat = new double[tiers];
+        perHour = new double[tiers];
+
+        int t = 0;
+        for (int id = 0; id < schedules.length; id++) {
+            FineSchedule schedule = schedules[id];
+            idsByName.put(schedule.getName(), id);
+            tierStart[id] = t;
+            for (int i = 0; i < schedule.getTierCount(); i++, t++) {
+                thresholds[t] = schedule.getThreshold(i);
+                flat[t] = schedule.getFlatAmount(i);
+                perHour[t] = schedule.getPerHourAmount(i);
+            }
+        }
+        tierStart[schedules.length] = t;
+    }
+
+    // Scheme id for the name, or -1 when no such scheme is defined
+    public int schemeId(String name) {
+        Integer id = name == null ? null : idsByName.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public int getSchemeCount() {
+        return schedules.length;
+    }
+
+    public String getSchemeName(int schemeId) {
+        return schedules[schemeId].getName();
+    }
+
+    public FineSchedule getSchedule(int schemeId) {
+        return schedules[schemeId];
+    }
+
+    public List<String> getSchemeNames() {
+        List<String> names = new ArrayList<>(schedules.length);
+        for (FineSchedule schedule : schedules) {
+            names.add(schedule.getName());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    // Unknown ids (e.g. -1) evaluate to no fine
+    public double evaluate(long hoursParked, int schemeId) {
+        if (schemeId < 0 || schemeId >= schedules.length) {
+            return 0.0;
+        }
+        double fine = 0.0;
+        for (int t = tierStart[schemeId], end = tierStart[schemeId + 1]; t < end; t++) {
+            long over = hoursParked - thresholds[t];
+            if (over > 0) {
+                fine += flat[t] + perHour[t] * over;
+            }
+        }
+        return fine;
+    }
+
+    // fines[i] = fine for hoursParked[i] under schemeIds[i]
+    public void evaluate(long[] hoursParked, int[] schemeIds, double[] fines) {
+        if (hoursParked.length != schemeIds.length || fines.length < hoursParked.length) {
+            throw new IllegalArgumentException("hoursParked, schemeIds and fines must have matching lengths");
+        }
+        for (int i = 0; i < hoursParked.length; i++) {
+            fines[i] = evaluate(hoursParked[i], schemeIds[i]);
+        }
+    }
+
+    public double[] evaluate(long[] hoursParked, int[] schemeIds) {
+        double[] fines = new double[hoursParked.length];
+        evaluate(hoursParked, schemeIds, fines);
+        return fines;
+    }
+}
@@ -0,0 +1,68 @@
+package Management;
+
+import java.util.Arrays;
+
+/**
+ * A fine scheme defined as data: a list of tiers, each applying once the
+ * vehicle has been parked more than its threshold. A tier adds a flat
+ * amount plus a per-hour amount for every hour past the threshold, and
+ * the fine is the sum over all tiers reached.
+ */
+public class FineSchedule implements Fine {
+    private final String name;
+    private long[] thresholds = new long[0];
+    private double[] flat = new double[0];
+    private double[] perHour = new double[0];
+
+    public FineSchedule(String name) {
+        this.name = name;
+    }
+
+    public FineSchedule addTier(long afterHours, double flatAmount, double perHourAmount) {
+        int n = thresholds.length;
+        thresholds = Arrays.copyOf(thresholds, n + 1);
+        flat = Arrays.copyOf(flat, n + 1);
+        perHour = Arrays.copyOf(perHour, n + 1);
+        thresholds[n] = afterHours;
+        flat[n] = flatAmount;
+        perHour[n] = perHourAmount;
+        return this;
+    }
+
+    @Override
+    public double calculateFine(long hoursParked) {
+        double fine = 0.0;
+        for (int i = 0; i < thresholds.length; i++) {
+            if (hoursParked > thresholds[i]) {
+                fine += flat[i] + perHour[i] * (hoursParked - thresholds[i]);
+            }
+        }
+        return fine;
+    }
+
+    public String getName() { return name; }
+    public int getTierCount() { return thresholds.length; }
+    public long getThreshold(int tier) { return thresholds[tier]; }
+    public double getFlatAmount(int tier) { return flat[tier]; }
+    public double getPerHourAmount(int tier) { return perHour[tier]; }
+
+    // Plain-text summary of the tiers for the admin scheme page
+    public String describe() {
+        StringBuilder sb = new StringBuilder(name.toUpperCase()).append("\n\nFine Schedule:\n");
+        if (thresholds.length == 0) {
+            sb.append("\u2022 No fine\n");
+        }
+        for (int i = 0; i < thresholds.length; i++) {
+            sb.append("\u2022 Above ").append(thresholds[i]).append(" hours:");
+            if (flat[i] != 0.0) {
+                sb.append(String.format(" RM %.2f", flat[i]));
+            }
+            if (perHour[i] != 0.0) {
+                sb.append(flat[i] != 0.0 ? " +" : "").append(String.format(" RM %.2f per hour", perHour[i]));
+            }
+            sb.append('\n');
+        }
+        sb.append("\nEach tier reached adds to the fine.");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package Management;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads fine scheme definitions line by line.
+ *
+ * <pre>
+ * # comment
+ * scheme Option D (Strict)           starts a scheme; the name is the rest of the line
+ * tier 12 30                         above 12 hours add RM 30
+ * tier 24 0 10                       above 24 hours add RM 10 per hour past 24
+ * </pre>
+ *
+ * The built-in options A-C are always defined; the file chosen with
+ * -Dparking.fineSchemes (default ui/fineschemes.txt) adds schemes or
+ * redefines a built-in one by name.
+ */
+public final class FineScheduleLoader {
+    public static final String DEFAULT_PATH = "ui/fineschemes.txt";
+
+    static final String BUILT_IN_SCHEMES =
+            "scheme Option A (Fixed)\n" +
+            "tier 24 50\n" +
+            "scheme Option B (Progressive)\n" +
+            "tier 24 50\n" +
+            "tier 48 100\n" +
+            "tier 48 150\n" +
+            "tier 72 200\n" +
+            "scheme Option C (Hourly)\n" +
+            "tier 24 0 20\n";
+
+    private FineScheduleLoader() {
+    }
+
+    public static FineEngine loadConfigured() throws IOException {
+        List<FineSchedule> schedules = loadBuiltIn();
+        File file = new File(System.getProperty("parking.fineSchemes", DEFAULT_PATH));
+        if (file.isFile()) {
+            try (Reader reader = new FileReader(file)) {
+                schedules.addAll(load(reader));
+            }
+        }
+        return new FineEngine(schedules);
+    }
+
+    public static FineEngine loadDefault() {
+        return new FineEngine(loadBuiltIn());
+    }
+
+    private static List<FineSchedule> loadBuiltIn() {
+        try {
+            return load(new StringReader(BUILT_IN_SCHEMES));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static List<FineSchedule> load(Reader source) throws IOException {
+        List<FineSchedule> schedules = new ArrayList<>();
+        FineSchedule current = null;
+        int lineNumber = 0;
+
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String text = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+            String[] tokens = text.split("\\s+");
+
+            try {
+                switch (tokens[0]) {
+                    case "scheme":
+                        String name = text.substring(tokens[0].length()).trim();
+                        if (name.isEmpty()) {
+                            throw new IllegalArgumentException("scheme needs a name");
+                        }
+                        current = new FineSchedule(name);
+                        schedules.add(current);
+                        break;
+                    case "tier":
+                        if (current == null) {
+                            throw new IllegalArgumentException("tier declared before any scheme line");
+                        }
+                        if (tokens.length < 3 || tokens.length > 4) {
+                            throw new IllegalArgumentException("'tier' expects <afterHours> <flat> [<perHour>]");
+                        }
+                        long afterHours = Long.parseLong(tokens[1]);
+                        if (afterHours < 0) {
+                            throw new IllegalArgumentException("tier threshold must not be negative");
+                        }
+                        current.addTier(afterHours, Double.parseDouble(tokens[2]),
+                                tokens.length == 4 ? Double.parseDouble(tokens[3]) : 0.0);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown directive '" + tokens[0] + "'");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Fine schemes line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return schedules;
+    }
+}
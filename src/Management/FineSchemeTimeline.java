@@ -0,0 +1,114 @@
+package Management;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Fine scheme history as parallel sorted arrays of activation millis and
+ * scheme names. Lookups are a binary search over an immutable snapshot,
+ * so readers never lock, log or touch the database; appends (scheme
+ * changes) copy the arrays.
+ */
+public class FineSchemeTimeline {
+    private static final class Snapshot {
+        private final long[] activatedAt;
+        private final String[] schemes;
+
+        private Snapshot(long[] activatedAt, String[] schemes) {
+            this.activatedAt = activatedAt;
+            this.schemes = schemes;
+        }
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(new long[0], new String[0]);
+
+    // Entries must be keyed by activation millis in ascending order (e.g. a NavigableMap)
+    public synchronized void load(Map<Long, String> history) {
+        long[] times = new long[history.size()];
+        String[] names = new String[history.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> entry : history.entrySet()) {
+            times[i] = entry.getKey();
+            names[i] = entry.getValue();
+            i++;
+        }
+        snapshot = new Snapshot(times, names);
+    }
+
+    public synchronized void append(long activatedAtMillis, String scheme) {
+        Snapshot current = snapshot;
+        int n = current.activatedAt.length;
+        // Usually the newest entry; otherwise insert in order (a later entry wins at equal times)
+        int pos = n;
+        while (pos > 0 && current.activatedAt[pos - 1] > activatedAtMillis) {
+            pos--;
+        }
+        long[] times = new long[n + 1];
+        String[] names = new String[n + 1];
+        System.arraycopy(current.activatedAt, 0, times, 0, pos);
+        System.arraycopy(current.schemes, 0, names, 0, pos);
+        times[pos] = activatedAtMillis;
+        names[pos] = scheme;
+        System.arraycopy(current.activatedAt, pos, times, pos + 1, n - pos);
+        System.arraycopy(current.schemes, pos, names, pos + 1, n - pos);
+        snapshot = new Snapshot(times, names);
+    }
+
+    // Scheme active at the given time, or null when it predates the history
+    public String schemeAt(long millis) {
+        Snapshot s = snapshot;
+        int index = floorIndex(s.activatedAt, millis);
+        return index < 0 ? null : s.schemes[index];
+    }
+
+    /**
+     * Resolves many entry times against one snapshot. Sorted input is
+     * merged in a single pass; unsorted input falls back to a binary
+     * search per time. Missing entries get defaultScheme.
+     */
+    public String[] schemesAt(long[] millis, String defaultScheme) {
+        Snapshot s = snapshot;
+        String[] result = new String[millis.length];
+        if (isSorted(millis)) {
+            int index = -1;
+            for (int i = 0; i < millis.length; i++) {
+                while (index + 1 < s.activatedAt.length && s.activatedAt[index + 1] <= millis[i]) {
+                    index++;
+                }
+                result[i] = index < 0 ? defaultScheme : s.schemes[index];
+            }
+        } else {
+            for (int i = 0; i < millis.length; i++) {
+                int index = floorIndex(s.activatedAt, millis[i]);
+                result[i] = index < 0 ? defaultScheme : s.schemes[index];
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return snapshot.activatedAt.length;
+    }
+
+    // Index of the last activation at or before millis, or -1
+    private static int floorIndex(long[] times, long millis) {
+        int index = Arrays.binarySearch(times, millis);
+        if (index >= 0) {
+            // Equal activation times: the later entry wins
+            while (index + 1 < times.length && times[index + 1] == millis) {
+                index++;
+            }
+            return index;
+        }
+        return -index - 2;
+    }
+
+    private static boolean isSorted(long[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
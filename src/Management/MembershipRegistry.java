@@ -0,0 +1,208 @@
+package Management;
+
+import Database.ParkingStore;
+import Database.ParkingStoreFactory;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory VIP and OKU registries. Both tables are loaded once; lookups
+ * go through a Bloom filter (most plates are not members) and then a hash
+ * set, so fee quoting never touches the database. Changes made through
+ * this class update memory synchronously. A background refresh picks up
+ * plates other instances registered (registered_at watermark), and a
+ * periodic full reload picks up their removals.
+ * -Dparking.membership.refreshMs (default 30000) and
+ * -Dparking.membership.fullReloadMs (default 600000) control the timing.
+ */
+public class MembershipRegistry {
+    private static final long REFRESH_MS = Long.getLong("parking.membership.refreshMs", 30000L);
+    private static final long FULL_RELOAD_MS = Long.getLong("parking.membership.fullReloadMs", 600000L);
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private static MembershipRegistry instance;
+
+    private final ParkingStore store;
+    private final Registry vip;
+    private final Registry oku;
+    private final ScheduledExecutorService refresher;
+
+    private interface Source {
+        Map<String, Long> loadSince(long sinceMillis);
+    }
+
+    // One registry: member set, Bloom filter in front of it, and the registered_at watermark
+    private static final class Registry {
+        private final Source source;
+        // Replaced whole by a full reload, after the filter that covers it
+        private volatile Set<String> members = ConcurrentHashMap.newKeySet();
+        private volatile BloomFilter filter = new BloomFilter(16, FALSE_POSITIVE_RATE);
+        private int filterCapacity = 16;
+        private long watermark;
+        private long lastFullReload;
+
+        private Registry(Source source) {
+            this.source = source;
+        }
+
+        private boolean contains(String plate) {
+            return filter.mightContain(plate) && members.contains(plate);
+        }
+
+        // Filter first, so a concurrent lookup never sees the set entry without its bits
+        private synchronized void add(String plate) {
+            if (members.contains(plate)) {
+                return;
+            }
+            if (members.size() + 1 > filterCapacity) {
+                filter = buildFilter(members, plate);
+            } else {
+                filter.add(plate);
+            }
+            members.add(plate);
+        }
+
+        // The filter keeps the plate's bits; the set lookup behind it turns that into a miss
+        private synchronized void remove(String plate) {
+            members.remove(plate);
+        }
+
+        // Builds the new set and its filter aside, then swaps filter before set, so lookups never miss a member
+        private synchronized void fullReload() {
+            Map<String, Long> loaded = source.loadSince(0L);
+            Set<String> reloaded = ConcurrentHashMap.newKeySet();
+            reloaded.addAll(loaded.keySet());
+            filter = buildFilter(reloaded, null);
+            members = reloaded;
+            watermark = Math.max(0L, maxValue(loaded));
+            lastFullReload = System.currentTimeMillis();
+        }
+
+        // Rows at the watermark are fetched again, so nothing registered in the same instant is missed
+        private synchronized void refreshSince() {
+            Map<String, Long> loaded = source.loadSince(watermark);
+            for (String plate : loaded.keySet()) {
+                add(plate);
+            }
+            watermark = Math.max(watermark, maxValue(loaded));
+        }
+
+        // Sized at twice the membership so it is not rebuilt on every add
+        private BloomFilter buildFilter(Set<String> plates, String extra) {
+            filterCapacity = Math.max(16, (plates.size() + 1) * 2);
+            BloomFilter rebuilt = new BloomFilter(filterCapacity, FALSE_POSITIVE_RATE);
+            for (String plate : plates) {
+                rebuilt.add(plate);
+            }
+            if (extra != null) {
+                rebuilt.add(extra);
+            }
+            return rebuilt;
+        }
+
+        private static long maxValue(Map<String, Long> plates) {
+            long max = Long.MIN_VALUE;
+            for (long value : plates.values()) {
+                max = Math.max(max, value);
+            }
+            return max;
+        }
+    }
+
+    public MembershipRegistry(ParkingStore store) {
+        this.store = store;
+        this.vip = new Registry(store::getVipPlatesSince);
+        this.oku = new Registry(store::getOkuCardHoldersSince);
+        vip.fullReload();
+        oku.fullReload();
+
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "membership-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        if (REFRESH_MS > 0) {
+            refresher.scheduleWithFixedDelay(this::refresh, REFRESH_MS, REFRESH_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Shared registry; built over the configured ParkingStore unless one was set up with getInstance(store)
+    public static synchronized MembershipRegistry getInstance() {
+        if (instance == null) {
+            instance = new MembershipRegistry(ParkingStoreFactory.getStore());
+        }
+        return instance;
+    }
+
+    /**
+     * Shared registry over the given store, replacing one built over another
+     * store, so OKUCardChecker and the UI read the same memberships.
+     */
+    public static synchronized MembershipRegistry getInstance(ParkingStore store) {
+        if (instance == null || instance.store != store) {
+            if (instance != null) {
+                instance.refresher.shutdownNow();
+            }
+            instance = new MembershipRegistry(store);
+        }
+        return instance;
+    }
+
+    // Plates are expected to be normalized
+    public boolean isVip(String plate) {
+        return plate != null && vip.contains(plate);
+    }
+
+    public boolean isOkuCardHolder(String plate) {
+        return plate != null && oku.contains(plate);
+    }
+
+    public Set<String> getVipPlates() {
+        return Collections.unmodifiableSet(new HashSet<>(vip.members));
+    }
+
+    public Set<String> getOkuCardHolders() {
+        return Collections.unmodifiableSet(new HashSet<>(oku.members));
+    }
+
+    public void addVip(String plate) {
+        store.addVipPlate(plate);
+        vip.add(plate);
+    }
+
+    public void removeVip(String plate) {
+        store.removeVipPlate(plate);
+        vip.remove(plate);
+    }
+
+    public void addOkuCardHolder(String plate) {
+        store.addOkuCardHolder(plate);
+        oku.add(plate);
+    }
+
+    public void removeOkuCardHolder(String plate) {
+        store.removeOkuCardHolder(plate);
+        oku.remove(plate);
+    }
+
+    private void refresh() {
+        try {
+            long now = System.currentTimeMillis();
+            for (Registry registry : new Registry[]{vip, oku}) {
+                if (FULL_RELOAD_MS > 0 && now - registry.lastFullReload >= FULL_RELOAD_MS) {
+                    registry.fullReload();
+                } else {
+                    registry.refreshSince();
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error refreshing membership registry: " + e.getMessage());
+        }
+    }
+}
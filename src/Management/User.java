@@ -1,10 +1,7 @@
 package Management;
 
-import Database.Database;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import Database.ParkingStoreFactory;
+import java.util.Map;
 
 public abstract class User {
     protected String id;
@@ -19,28 +16,18 @@ public abstract class User {
 
     // --- LOGIN LOGIC (Connects to Database) ---
     public static User login(String inputId, String inputPass) {
-        String sql = "SELECT * FROM users WHERE user_id = ? AND password = ?";
-        
-        try (Connection conn = Database.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, inputId);
-            stmt.setString(2, inputPass);
-            ResultSet rs = stmt.executeQuery();
+        Map<String, String> user = ParkingStoreFactory.getStore().findUserById(inputId, inputPass);
 
-            if (rs.next()) {
-                String role = rs.getString("role");
-                String name = rs.getString("name");
-                
-                if ("ADMIN".equalsIgnoreCase(role)) {
-                    return new Admin(inputId, name, inputPass);
-                } else {
-                    // For customers, the password might be null in DB
-                    return new Customer(inputId, name, rs.getString("license_plate"));
-                }
+        if (user != null) {
+            String role = user.get("role");
+            String name = user.get("name");
+
+            if ("ADMIN".equalsIgnoreCase(role)) {
+                return new Admin(inputId, name, inputPass);
+            } else {
+                // For customers, the password might be null in DB
+                return new Customer(inputId, name, user.get("license_plate"));
             }
-        } catch (SQLException e) {
-            System.err.println("Login Error: " + e.getMessage());
         }
         return null; // Login failed
     }
@@ -0,0 +1,32 @@
+package ParkingLot;
+
+/**
+ * How SpotAllocator picks among free compatible spots.
+ */
+public enum AllocationPolicy {
+    NEAREST_FLOOR, LOWEST_FLOOR_FIRST, BALANCE_FLOORS, CHEAPEST_RATE;
+
+    public String displayName() {
+        switch (this) {
+            case NEAREST_FLOOR:
+                return "Nearest Floor";
+            case LOWEST_FLOOR_FIRST:
+                return "Lowest Floor First";
+            case BALANCE_FLOORS:
+                return "Balance Floors";
+            case CHEAPEST_RATE:
+                return "Cheapest Rate";
+            default:
+                return name();
+        }
+    }
+
+    public static AllocationPolicy fromDisplayName(String name) {
+        for (AllocationPolicy policy : values()) {
+            if (policy.displayName().equals(name)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,117 @@
+package ParkingLot;
+
+import Vehicles.Car;
+import Vehicles.Vehicle;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contention stress test for spot claims. Gate threads race to park on the
+ * same floor of the configured layout, half taking the first free spot from
+ * the occupancy bitmaps and half picking spots at random, then leave again.
+ * Checks that no spot is ever held by two vehicles, that a parked vehicle
+ * stays bound to its spot until it leaves, and that the free counters
+ * return to the floor totals afterwards.
+ *
+ * Run after compiling: java -cp "lib/*;bin" ParkingLot.ClaimContentionStress [threads] [cyclesPerThread] [floor]
+ * Exits with status 1 when a check fails.
+ */
+public class ClaimContentionStress {
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int cycles = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int floorNumber = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        ParkingLot lot = ParkingLot.getInstance();
+        lot.initializeDefaultStructure();
+        Floor floor = lot.getFloor(floorNumber);
+        if (floor == null) {
+            System.err.println("No floor " + floorNumber + " in the configured layout");
+            System.exit(2);
+        }
+        List<ParkingSpot> spots = floor.getSpots();
+        OccupancyIndex occupancy = lot.getOccupancy();
+        int total = floor.getAvailableSpotCount();
+
+        // Holders per spot as seen by the threads; more than one at a time is a double assignment
+        AtomicInteger[] holders = new AtomicInteger[spots.size()];
+        for (int i = 0; i < holders.length; i++) {
+            holders[i] = new AtomicInteger();
+        }
+        AtomicLong parks = new AtomicLong();
+        AtomicLong lostRaces = new AtomicLong();
+        AtomicLong violations = new AtomicLong();
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] gates = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            boolean firstFree = t % 2 == 0;
+            String plate = "STRESS-" + t;
+            gates[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int c = 0; c < cycles; c++) {
+                    ParkingSpot spot = firstFree
+                        ? occupancy.findFirstFree(floorNumber, SpotType.values()[random.nextInt(SpotType.values().length)])
+                        : spots.get(random.nextInt(spots.size()));
+                    if (spot == null) {
+                        continue;
+                    }
+                    Vehicle vehicle = new Car(plate);
+                    if (!lot.parkVehicle(spot, vehicle)) {
+                        lostRaces.incrementAndGet();
+                        continue;
+                    }
+                    parks.incrementAndGet();
+                    int index = spots.indexOf(spot);
+                    if (holders[index].incrementAndGet() != 1) {
+                        report(violations, "Spot " + spot.getSpotId() + " held by two vehicles");
+                    }
+                    if (spot.getCurrentVehicle() != vehicle) {
+                        report(violations, "Spot " + spot.getSpotId() + " lost the vehicle of " + plate);
+                    }
+                    holders[index].decrementAndGet();
+                    if (lot.unparkVehicle(plate) != spot) {
+                        report(violations, plate + " was not recorded at " + spot.getSpotId());
+                    }
+                }
+            }, "stress-gate-" + t);
+            gates[t].start();
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Thread gate : gates) {
+            gate.join();
+        }
+        long millis = (System.nanoTime() - began) / 1_000_000L;
+
+        int free = floor.getAvailableSpotCount();
+        int occupied = 0;
+        for (ParkingSpot spot : spots) {
+            if (spot.isOccupied() || occupancy.isOccupied(spot)) {
+                occupied++;
+            }
+        }
+        if (free != total || occupied != 0) {
+            report(violations, "Floor " + floorNumber + " ended with " + free + "/" + total + " free and " + occupied + " spot(s) still held");
+        }
+
+        System.out.println(threads + " threads, " + parks.get() + " parks, " + lostRaces.get() + " lost claim races in "
+            + millis + " ms; " + free + "/" + total + " free at the end; " + violations.get() + " violation(s)");
+        System.exit(violations.get() == 0 ? 0 : 1);
+    }
+
+    private static void report(AtomicLong violations, String message) {
+        if (violations.incrementAndGet() <= 10) {
+            System.err.println(message);
+        }
+    }
+}
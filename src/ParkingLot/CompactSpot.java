@@ -8,4 +8,8 @@ public class CompactSpot extends ParkingSpot {
     public CompactSpot(int floor, int row, int spot) {
         super(ParkingSpot.formatSpotId(floor, row, spot), "Compact", 2.00);
     }
+
+    public CompactSpot(int floor, int row, int spot, double hourlyRate) {
+        super(ParkingSpot.formatSpotId(floor, row, spot), "Compact", hourlyRate);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package ParkingLot;
+
+import Vehicles.VehicleType;
+
+/**
+ * Which spot types each vehicle type may use, as bitmasks over SpotType
+ * ordinals indexed by [vip][VehicleType ordinal]. Built once; every
+ * check is an array read and a bit test.
+ */
+public final class CompatibilityMatrix {
+    private static final int COMPACT = bit(SpotType.COMPACT);
+    private static final int REGULAR = bit(SpotType.REGULAR);
+    private static final int HANDICAPPED = bit(SpotType.HANDICAPPED);
+    private static final int RESERVED = bit(SpotType.RESERVED);
+    public static final int ALL_TYPES = COMPACT | REGULAR | HANDICAPPED | RESERVED;
+
+    // What the vehicle physically fits in (Vehicle.canParkIn)
+    private static final int[] BASE = new int[VehicleType.values().length];
+    // What the lot lets it use, after the Reserved/VIP rules (ParkingLot.isSpotAllowed)
+    private static final int[][] ALLOWED = new int[2][VehicleType.values().length];
+
+    static {
+        BASE[VehicleType.MOTORCYCLE.ordinal()] = COMPACT | RESERVED;
+        BASE[VehicleType.CAR.ordinal()] = COMPACT | REGULAR | RESERVED;
+        BASE[VehicleType.SUV.ordinal()] = REGULAR | RESERVED;
+        BASE[VehicleType.HANDICAPPED.ordinal()] = ALL_TYPES;
+
+        for (VehicleType type : VehicleType.values()) {
+            int base = BASE[type.ordinal()];
+            // Reserved spots are for VIPs only, and never for motorcycles
+            ALLOWED[0][type.ordinal()] = base & ~RESERVED;
+            ALLOWED[1][type.ordinal()] = type == VehicleType.MOTORCYCLE ? base & ~RESERVED : base;
+        }
+    }
+
+    private CompatibilityMatrix() {
+    }
+
+    public static int bit(SpotType type) {
+        return 1 << type.ordinal();
+    }
+
+    public static int baseMask(VehicleType vehicleType) {
+        return BASE[vehicleType.ordinal()];
+    }
+
+    public static int allowedMask(VehicleType vehicleType, boolean isVip) {
+        return ALLOWED[isVip ? 1 : 0][vehicleType.ordinal()];
+    }
+
+    public static boolean fits(VehicleType vehicleType, SpotType spotType) {
+        return spotType != null && (BASE[vehicleType.ordinal()] & bit(spotType)) != 0;
+    }
+
+    public static boolean isAllowed(VehicleType vehicleType, SpotType spotType, boolean isVip) {
+        return spotType != null && (ALLOWED[isVip ? 1 : 0][vehicleType.ordinal()] & bit(spotType)) != 0;
+    }
+}
@@ -5,15 +5,41 @@ import java.util.List;
 
 public class Floor {
     private final String floorId; // e.g., "Floor 1"
+    private final int floorNumber;
     private final List<ParkingSpot> spots;
+    private ParkingLot owner; // set when the floor is added to a lot, keeps its spot index current
 
     public Floor(String floorId) {
         this.floorId = floorId;
+        this.floorNumber = parseFloorNumber(floorId);
         this.spots = new ArrayList<>();
     }
 
+    public Floor(int floorNumber) {
+        this("Floor " + floorNumber);
+    }
+
+    // "Floor 12" -> 12; 0 when the ID has no digits
+    private static int parseFloorNumber(String floorId) {
+        int number = 0;
+        for (int i = 0; i < floorId.length(); i++) {
+            char c = floorId.charAt(i);
+            if (c >= '0' && c <= '9') {
+                number = number * 10 + (c - '0');
+            }
+        }
+        return number;
+    }
+
     public void addSpot(ParkingSpot spot) {
         spots.add(spot);
+        if (owner != null) {
+            owner.indexSpot(spot);
+        }
+    }
+
+    void setOwner(ParkingLot owner) {
+        this.owner = owner;
     }
 
     public List<ParkingSpot> getSpots() {
@@ -24,9 +50,20 @@ public class Floor {
         return floorId;
     }
 
-    // Helper to find available spots on this floor
+    public int getFloorNumber() {
+        return floorNumber;
+    }
+
+    // Helper to find available spots on this floor, from the lot's occupancy bitmaps when they cover it
     public List<ParkingSpot> getAvailableSpots() {
+        OccupancyIndex index = indexCoveringAllSpots();
         List<ParkingSpot> available = new ArrayList<>();
+        if (index != null) {
+            for (SpotType type : SpotType.values()) {
+                available.addAll(index.getFreeSpots(floorNumber, type));
+            }
+            return available;
+        }
         for (ParkingSpot spot : spots) {
             if (!spot.isOccupied()) {
                 available.add(spot);
@@ -34,4 +71,32 @@ public class Floor {
         }
         return available;
     }
-}
\ No newline at end of file
+
+    // Same count as getAvailableSpots().size() without building the list; O(1) per spot type when indexed
+    public int getAvailableSpotCount() {
+        OccupancyIndex index = indexCoveringAllSpots();
+        if (index != null) {
+            return index.getFreeCount(floorNumber);
+        }
+        int count = 0;
+        for (ParkingSpot spot : spots) {
+            if (!spot.isOccupied()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // The owner's index when it tracks exactly this floor's spots; null means scan the spots instead
+    private OccupancyIndex indexCoveringAllSpots() {
+        if (owner == null) {
+            return null;
+        }
+        OccupancyIndex index = owner.getOccupancy();
+        int tracked = 0;
+        for (SpotType type : SpotType.values()) {
+            tracked += index.getTotalCount(floorNumber, type);
+        }
+        return tracked == spots.size() ? index : null;
+    }
+}
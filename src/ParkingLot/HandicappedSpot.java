@@ -8,4 +8,8 @@ public class HandicappedSpot extends ParkingSpot {
     public HandicappedSpot(int floor, int row, int spot) {
         super(ParkingSpot.formatSpotId(floor, row, spot), "Handicapped", 2.00);
     }
+
+    public HandicappedSpot(int floor, int row, int spot, double hourlyRate) {
+        super(ParkingSpot.formatSpotId(floor, row, spot), "Handicapped", hourlyRate);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package ParkingLot;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * Reads a lot layout file line by line into a LotLayout.
+ *
+ * <pre>
+ * # comment
+ * rate Regular 5.00                  hourly rate for a type (else SpotType.defaultHourlyRate)
+ * floors 1-3                         following rows apply to these floors
+ * row 1 Reserved:1-5 Handicapped:6-10
+ * row 3 Regular:21-30@6.50           per-range rate override
+ * </pre>
+ *
+ * The file is chosen with -Dparking.layout (default ui/parkinglayout.txt);
+ * the built-in five-floor layout is used when it does not exist.
+ */
+public final class LayoutLoader {
+    public static final String DEFAULT_PATH = "ui/parkinglayout.txt";
+
+    static final String DEFAULT_LAYOUT =
+            "floors 1-3\n" +
+            "row 1 Reserved:1-5 Handicapped:6-10\n" +
+            "row 2 Compact:11-20\n" +
+            "row 3 Regular:21-30\n" +
+            "floors 4-5\n" +
+            "row 1 Reserved:1-10\n" +
+            "row 2 Compact:11-20\n" +
+            "row 3 Regular:21-30\n";
+
+    private LayoutLoader() {
+    }
+
+    public static LotLayout loadConfigured() throws IOException {
+        File file = new File(System.getProperty("parking.layout", DEFAULT_PATH));
+        if (!file.isFile()) {
+            return loadDefault();
+        }
+        try (Reader reader = new FileReader(file)) {
+            return load(reader);
+        }
+    }
+
+    public static LotLayout loadDefault() {
+        try {
+            return load(new StringReader(DEFAULT_LAYOUT));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static LotLayout load(Reader source) throws IOException {
+        LotLayout layout = new LotLayout();
+        double[] rates = new double[SpotType.values().length];
+        for (SpotType type : SpotType.values()) {
+            rates[type.ordinal()] = type.defaultHourlyRate();
+        }
+        int firstFloor = 0;
+        int lastFloor = 0;
+        int lineNumber = 0;
+
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String[] tokens = (comment >= 0 ? line.substring(0, comment) : line).trim().split("\\s+");
+            if (tokens[0].isEmpty()) {
+                continue;
+            }
+
+            try {
+                switch (tokens[0]) {
+                    case "rate":
+                        expectTokens(tokens, 3);
+                        rates[parseType(tokens[1]).ordinal()] = Double.parseDouble(tokens[2]);
+                        break;
+                    case "floors":
+                    case "floor":
+                        expectTokens(tokens, 2);
+                        int dash = tokens[1].indexOf('-');
+                        firstFloor = Integer.parseInt(dash < 0 ? tokens[1] : tokens[1].substring(0, dash));
+                        lastFloor = dash < 0 ? firstFloor : Integer.parseInt(tokens[1].substring(dash + 1));
+                        break;
+                    case "row":
+                        if (firstFloor == 0) {
+                            throw new IllegalArgumentException("row declared before any floors line");
+                        }
+                        if (tokens.length < 3) {
+                            throw new IllegalArgumentException("row needs at least one Type:first-last range");
+                        }
+                        int row = Integer.parseInt(tokens[1]);
+                        for (int i = 2; i < tokens.length; i++) {
+                            addRanges(layout, tokens[i], firstFloor, lastFloor, row, rates);
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown directive '" + tokens[0] + "'");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Layout line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return layout;
+    }
+
+    // Type:first-last[@rate] applied to every floor of the current block
+    private static void addRanges(LotLayout layout, String token, int firstFloor, int lastFloor, int row, double[] rates) {
+        int colon = token.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("expected Type:first-last, got '" + token + "'");
+        }
+        SpotType type = parseType(token.substring(0, colon));
+        int at = token.indexOf('@', colon);
+        String range = at < 0 ? token.substring(colon + 1) : token.substring(colon + 1, at);
+        double rate = at < 0 ? rates[type.ordinal()] : Double.parseDouble(token.substring(at + 1));
+        int dash = range.indexOf('-');
+        int first = Integer.parseInt(dash < 0 ? range : range.substring(0, dash));
+        int last = dash < 0 ? first : Integer.parseInt(range.substring(dash + 1));
+
+        for (int floor = firstFloor; floor <= lastFloor; floor++) {
+            layout.addRange(floor, row, first, last, type, rate);
+        }
+    }
+
+    private static SpotType parseType(String name) {
+        SpotType type = SpotType.fromDisplayName(name);
+        if (type == null) {
+            throw new IllegalArgumentException("unknown spot type '" + name + "'");
+        }
+        return type;
+    }
+
+    private static void expectTokens(String[] tokens, int count) {
+        if (tokens.length != count) {
+            throw new IllegalArgumentException("'" + tokens[0] + "' expects " + (count - 1) + " value(s)");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ParkingLot;
+
+import java.util.Arrays;
+
+/**
+ * Compact lot topology: one record per run of same-type spots in a row,
+ * stored in parallel primitive arrays. A 50,000-spot campus is a few
+ * hundred records; spots are only materialised by ParkingLot.build().
+ */
+public final class LotLayout {
+    private int count;
+    private int[] floors = new int[16];
+    private int[] rows = new int[16];
+    private int[] firstSlots = new int[16];
+    private int[] lastSlots = new int[16];
+    private byte[] types = new byte[16];
+    private double[] rates = new double[16];
+
+    public void addRange(int floor, int row, int firstSlot, int lastSlot, SpotType type, double hourlyRate) {
+        if (floor < 1 || floor > ParkingSpot.MAX_FLOOR || row < 1 || row > ParkingSpot.MAX_ROW
+                || firstSlot < 1 || lastSlot < firstSlot || lastSlot > ParkingSpot.MAX_SLOT) {
+            throw new IllegalArgumentException("Spot range out of bounds: floor " + floor + ", row " + row
+                    + ", slots " + firstSlot + "-" + lastSlot);
+        }
+        if (count == floors.length) {
+            int size = count * 2;
+            floors = Arrays.copyOf(floors, size);
+            rows = Arrays.copyOf(rows, size);
+            firstSlots = Arrays.copyOf(firstSlots, size);
+            lastSlots = Arrays.copyOf(lastSlots, size);
+            types = Arrays.copyOf(types, size);
+            rates = Arrays.copyOf(rates, size);
+        }
+        floors[count] = floor;
+        rows[count] = row;
+        firstSlots[count] = firstSlot;
+        lastSlots[count] = lastSlot;
+        types[count] = (byte) type.ordinal();
+        rates[count] = hourlyRate;
+        count++;
+    }
+
+    public int getRangeCount() { return count; }
+    public int getFloor(int range) { return floors[range]; }
+    public int getRow(int range) { return rows[range]; }
+    public int getFirstSlot(int range) { return firstSlots[range]; }
+    public int getLastSlot(int range) { return lastSlots[range]; }
+    public SpotType getType(int range) { return SpotType.values()[types[range]]; }
+    public double getRate(int range) { return rates[range]; }
+
+    public int getSpotCount() {
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += lastSlots[i] - firstSlots[i] + 1;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,278 @@
+package ParkingLot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Free-spot bitmaps per (floor number, SpotType) with running counters.
+ * A set bit means the spot is free. Counting is O(1) and finding a free
+ * spot is O(words), so availability queries never touch the database.
+ * Spots whose type is not a SpotType are not tracked.
+ * Bits follow each spot's own atomic state: ParkingSpot calls sync()
+ * after every successful claim or release.
+ * Per type, the bitmaps are also cut into runs of consecutive bits that
+ * share an hourly rate, kept cheapest first, so the cheapest free spot is
+ * found without walking every floor.
+ */
+public class OccupancyIndex {
+    private static final int TYPE_COUNT = SpotType.values().length;
+
+    // groups[floorNumber][type ordinal], grown as floors are registered
+    private Group[][] groups = new Group[0][];
+    // runsByType[type ordinal], sorted by rate, then floor, when runsSorted
+    private List<List<RateRun>> runsByType = newRuns();
+    private boolean runsSorted = true;
+
+    private static final class Group {
+        private ParkingSpot[] spots = new ParkingSpot[16];
+        private long[] freeBits = new long[1];
+        private int total;
+        private int free;
+        private RateRun lastRun;
+
+        private int add(ParkingSpot spot) {
+            int bit = total++;
+            if (bit == spots.length) {
+                spots = Arrays.copyOf(spots, spots.length * 2);
+            }
+            if ((bit >>> 6) == freeBits.length) {
+                freeBits = Arrays.copyOf(freeBits, freeBits.length * 2);
+            }
+            spots[bit] = spot;
+            if (!spot.isOccupied()) {
+                freeBits[bit >>> 6] |= 1L << bit;
+                free++;
+            }
+            return bit;
+        }
+
+        private boolean set(int bit, boolean occupied) {
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            boolean isFree = (freeBits[word] & mask) != 0;
+            if (isFree != occupied) {
+                return false;
+            }
+            if (occupied) {
+                freeBits[word] &= ~mask;
+                free--;
+            } else {
+                freeBits[word] |= mask;
+                free++;
+            }
+            return true;
+        }
+
+        private ParkingSpot firstFree() {
+            for (int w = 0; w < freeBits.length; w++) {
+                if (freeBits[w] != 0) {
+                    return spots[(w << 6) + Long.numberOfTrailingZeros(freeBits[w])];
+                }
+            }
+            return null;
+        }
+
+        // First free spot among bits [from, to]
+        private ParkingSpot firstFree(int from, int to) {
+            int lastWord = to >>> 6;
+            for (int w = from >>> 6; w <= lastWord; w++) {
+                long bits = freeBits[w];
+                if (w == from >>> 6) {
+                    bits &= -1L << from;
+                }
+                if (w == lastWord) {
+                    bits &= -1L >>> (63 - (to & 63));
+                }
+                if (bits != 0) {
+                    return spots[(w << 6) + Long.numberOfTrailingZeros(bits)];
+                }
+            }
+            return null;
+        }
+    }
+
+    // Consecutive bits of one group with the same hourly rate (one layout range, typically)
+    private static final class RateRun {
+        private final Group group;
+        private final int floor;
+        private final double rate;
+        private final int firstBit;
+        private int lastBit;
+
+        private RateRun(Group group, int floor, double rate, int bit) {
+            this.group = group;
+            this.floor = floor;
+            this.rate = rate;
+            this.firstBit = bit;
+            this.lastBit = bit;
+        }
+    }
+
+    private static final Comparator<RateRun> CHEAPEST_FIRST = Comparator
+            .comparingDouble((RateRun run) -> run.rate)
+            .thenComparingInt(run -> run.floor)
+            .thenComparingInt(run -> run.firstBit);
+
+    synchronized void register(ParkingSpot spot) {
+        SpotType type = spot.getSpotType();
+        int floor = spot.getFloorNumber();
+        if (type == null || spot.getHandle() < 0 || spot.occupancyBit >= 0) {
+            return;
+        }
+        if (floor >= groups.length) {
+            groups = Arrays.copyOf(groups, floor + 1);
+        }
+        if (groups[floor] == null) {
+            groups[floor] = new Group[TYPE_COUNT];
+        }
+        Group group = groups[floor][type.ordinal()];
+        if (group == null) {
+            group = new Group();
+            groups[floor][type.ordinal()] = group;
+        }
+        int bit = group.add(spot);
+        spot.occupancyBit = bit;
+        spot.occupancy = this;
+
+        RateRun run = group.lastRun;
+        if (run != null && run.lastBit == bit - 1 && run.rate == spot.getHourlyRate()) {
+            run.lastBit = bit;
+        } else {
+            run = new RateRun(group, floor, spot.getHourlyRate(), bit);
+            group.lastRun = run;
+            runsByType.get(type.ordinal()).add(run);
+            runsSorted = false;
+        }
+    }
+
+    synchronized void clear() {
+        for (Group[] floor : groups) {
+            if (floor == null) {
+                continue;
+            }
+            for (Group group : floor) {
+                if (group == null) {
+                    continue;
+                }
+                for (int i = 0; i < group.total; i++) {
+                    group.spots[i].occupancyBit = -1;
+                    group.spots[i].occupancy = null;
+                }
+            }
+        }
+        groups = new Group[0][];
+        runsByType = newRuns();
+        runsSorted = true;
+    }
+
+    // Re-reads the spot's state under the lock, so racing claim/release calls settle on the final state
+    synchronized void sync(ParkingSpot spot) {
+        Group group = groupOf(spot);
+        if (group != null) {
+            group.set(spot.occupancyBit, spot.isOccupied());
+        }
+    }
+
+    public synchronized boolean isOccupied(ParkingSpot spot) {
+        Group group = groupOf(spot);
+        if (group == null) {
+            return false;
+        }
+        int bit = spot.occupancyBit;
+        return (group.freeBits[bit >>> 6] & (1L << bit)) == 0;
+    }
+
+    public synchronized int getFreeCount(int floor, SpotType type) {
+        Group group = group(floor, type);
+        return group == null ? 0 : group.free;
+    }
+
+    public synchronized int getTotalCount(int floor, SpotType type) {
+        Group group = group(floor, type);
+        return group == null ? 0 : group.total;
+    }
+
+    // Free spots on the floor across all types
+    public synchronized int getFreeCount(int floor) {
+        int free = 0;
+        for (SpotType type : SpotType.values()) {
+            free += getFreeCount(floor, type);
+        }
+        return free;
+    }
+
+    public synchronized ParkingSpot findFirstFree(int floor, SpotType type) {
+        Group group = group(floor, type);
+        return group == null ? null : group.firstFree();
+    }
+
+    /**
+     * Free spot of the type with the lowest hourly rate, on the lowest floor
+     * among equally cheap ones; null when none is free.
+     */
+    public synchronized ParkingSpot findCheapestFree(SpotType type) {
+        if (type == null) {
+            return null;
+        }
+        if (!runsSorted) {
+            for (List<RateRun> runs : runsByType) {
+                runs.sort(CHEAPEST_FIRST);
+            }
+            runsSorted = true;
+        }
+        for (RateRun run : runsByType.get(type.ordinal())) {
+            if (run.group.free > 0) {
+                ParkingSpot spot = run.group.firstFree(run.firstBit, run.lastBit);
+                if (spot != null) {
+                    return spot;
+                }
+            }
+        }
+        return null;
+    }
+
+    public synchronized List<ParkingSpot> getFreeSpots(int floor, SpotType type) {
+        List<ParkingSpot> free = new ArrayList<>();
+        Group group = group(floor, type);
+        if (group == null) {
+            return free;
+        }
+        for (int w = 0; w < group.freeBits.length; w++) {
+            long bits = group.freeBits[w];
+            while (bits != 0) {
+                free.add(group.spots[(w << 6) + Long.numberOfTrailingZeros(bits)]);
+                bits &= bits - 1;
+            }
+        }
+        return free;
+    }
+
+    // Highest floor number that has tracked spots
+    public synchronized int getMaxFloor() {
+        return groups.length - 1;
+    }
+
+    private static List<List<RateRun>> newRuns() {
+        List<List<RateRun>> runs = new ArrayList<>(TYPE_COUNT);
+        for (int i = 0; i < TYPE_COUNT; i++) {
+            runs.add(new ArrayList<>());
+        }
+        return runs;
+    }
+
+    private Group group(int floor, SpotType type) {
+        if (type == null || floor < 0 || floor >= groups.length || groups[floor] == null) {
+            return null;
+        }
+        return groups[floor][type.ordinal()];
+    }
+
+    private Group groupOf(ParkingSpot spot) {
+        if (spot == null || spot.occupancyBit < 0) {
+            return null;
+        }
+        return group(spot.getFloorNumber(), spot.getSpotType());
+    }
+}
@@ -1,7 +1,13 @@
 package ParkingLot;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ParkingLot {
     // Singleton Instance
@@ -9,6 +15,33 @@ public class ParkingLot {
     
     private final List<Floor> floors;
 
+    // Constant-time lookup indexes, maintained as floors and spots are added
+    private final Map<String, ParkingSpot> spotsById = new HashMap<>();
+    private final Map<String, ParkingSpot> spotsByUiId = new HashMap<>();
+    private final Map<Integer, ParkingSpot> spotsByHandle = new HashMap<>();
+    private final Map<String, Floor> floorsById = new HashMap<>();
+    private final OccupancyIndex occupancy = new OccupancyIndex();
+    // Where each parked plate is, kept in step with the spots' own claims
+    private final Map<String, ParkingSpot> spotsByPlate = new ConcurrentHashMap<>();
+
+    // Bit per SpotType ordinal that has at least one spot in the lot
+    private int presentTypesMask;
+
+    // Allowed spot type names in display order, one shared list per compatibility mask
+    private static final List<List<String>> TYPE_LISTS_BY_MASK = new ArrayList<>();
+
+    static {
+        for (int mask = 0; mask <= CompatibilityMatrix.ALL_TYPES; mask++) {
+            List<String> names = new ArrayList<>();
+            for (SpotType type : SpotType.values()) {
+                if ((mask & CompatibilityMatrix.bit(type)) != 0) {
+                    names.add(type.displayName());
+                }
+            }
+            TYPE_LISTS_BY_MASK.add(Collections.unmodifiableList(names));
+        }
+    }
+
     // Private Constructor for Singleton
     private ParkingLot() {
         this.floors = new ArrayList<>();
@@ -24,6 +57,42 @@ public class ParkingLot {
 
     public void addFloor(Floor floor) {
         floors.add(floor);
+        floor.setOwner(this);
+        floorsById.put(floor.getFloorId().toLowerCase(), floor);
+        for (ParkingSpot spot : floor.getSpots()) {
+            indexSpot(spot);
+        }
+    }
+
+    void indexSpot(ParkingSpot spot) {
+        spotsById.put(spot.getSpotId(), spot);
+        spotsByUiId.put(spot.toUiSpotId(), spot);
+        if (spot.getHandle() >= 0) {
+            spotsByHandle.put(spot.getHandle(), spot);
+        }
+        occupancy.register(spot);
+        if (spot.getSpotType() != null) {
+            presentTypesMask |= CompatibilityMatrix.bit(spot.getSpotType());
+        }
+    }
+
+    private void rebuildIndex() {
+        spotsById.clear();
+        spotsByUiId.clear();
+        spotsByHandle.clear();
+        floorsById.clear();
+        occupancy.clear();
+        presentTypesMask = 0;
+        for (Floor floor : floors) {
+            floorsById.put(floor.getFloorId().toLowerCase(), floor);
+            for (ParkingSpot spot : floor.getSpots()) {
+                indexSpot(spot);
+            }
+        }
+    }
+
+    public OccupancyIndex getOccupancy() {
+        return occupancy;
     }
 
     public List<Floor> getFloors() {
@@ -38,128 +107,171 @@ public class ParkingLot {
         return total;
     }
 
+    public Floor getFloor(int floorNumber) {
+        return floorsById.get("floor " + floorNumber);
+    }
+
     public List<ParkingSpot> getSpotsForFloor(int floorNumber) {
         List<ParkingSpot> spots = new ArrayList<>();
-        String targetId = "Floor " + floorNumber;
-        for (Floor floor : floors) {
-            if (targetId.equalsIgnoreCase(floor.getFloorId())) {
-                spots.addAll(floor.getSpots());
-                break;
-            }
+        Floor floor = floorsById.get("floor " + floorNumber);
+        if (floor != null) {
+            spots.addAll(floor.getSpots());
         }
         return spots;
     }
     
     // Helper to get a specific spot by ID
     public ParkingSpot getSpotById(String spotId) {
-        for (Floor floor : floors) {
-            for (ParkingSpot spot : floor.getSpots()) {
-                if (spot.getSpotId().equals(spotId)) {
-                    return spot;
-                }
-            }
-        }
-        return null;
+        return spotId == null ? null : spotsById.get(spotId);
     }
 
     public ParkingSpot getSpotByUiId(String uiSpotId) {
-        String internalId = ParkingSpot.toInternalSpotId(uiSpotId);
-        return getSpotById(internalId);
+        if (uiSpotId == null) {
+            return null;
+        }
+        ParkingSpot spot = spotsByUiId.get(uiSpotId);
+        if (spot != null) {
+            return spot;
+        }
+        // Not a canonical UI ID: accept internal IDs (F1-R1-S01) and UI IDs with a different type label
+        return spotsById.get(ParkingSpot.toInternalSpotId(uiSpotId));
     }
 
-    public boolean isSpotAllowed(Vehicles.Vehicle vehicle, ParkingSpot spot, boolean isVip) {
-        if (vehicle == null || spot == null) {
+    public ParkingSpot getSpotByHandle(int handle) {
+        return spotsByHandle.get(handle);
+    }
+
+    /**
+     * Binds the vehicle to the spot (no compatibility check; see isSpotAllowed).
+     * Returns false when the spot is already taken. If the plate was parked
+     * elsewhere, that spot is released.
+     */
+    public boolean parkVehicle(ParkingSpot spot, Vehicles.Vehicle vehicle) {
+        if (!spot.occupy(vehicle)) {
             return false;
         }
+        ParkingSpot previous = spotsByPlate.put(vehicle.getLicensePlate(), spot);
+        if (previous != null && previous != spot) {
+            previous.releasePlate(vehicle.getLicensePlate());
+        }
+        return true;
+    }
 
-        String type = spot.getType();
-        if ("Reserved".equalsIgnoreCase(type)) {
-            if (!isVip) {
-                return false;
-            }
-            if (vehicle instanceof Vehicles.Motorcycle) {
-                return false;
-            }
+    // Releases the plate's spot; returns it, or null when the plate is not parked
+    public ParkingSpot unparkVehicle(String plate) {
+        ParkingSpot spot = plate == null ? null : spotsByPlate.remove(plate);
+        if (spot != null) {
+            spot.releasePlate(plate);
         }
+        return spot;
+    }
 
-        return vehicle.canParkIn(spot);
+    public ParkingSpot getSpotForPlate(String plate) {
+        return plate == null ? null : spotsByPlate.get(plate);
     }
 
-    public List<String> getAllowedSpotTypes(Vehicles.Vehicle vehicle, boolean isVip) {
-        List<String> allowed = new ArrayList<>();
-        String[] orderedTypes = {"Compact", "Regular", "Handicapped", "Reserved"};
+    public int getParkedVehicleCount() {
+        return spotsByPlate.size();
+    }
 
-        for (String type : orderedTypes) {
-            ParkingSpot sample = getSampleSpotByType(type);
-            if (sample != null && isSpotAllowed(vehicle, sample, isVip)) {
-                allowed.add(type);
-            }
+    public boolean isSpotAllowed(Vehicles.Vehicle vehicle, ParkingSpot spot, boolean isVip) {
+        if (vehicle == null || spot == null) {
+            return false;
         }
 
-        return allowed;
+        SpotType type = spot.getSpotType();
+        if (type == null) {
+            // Not one of the standard types, so only the vehicle's own rule applies
+            return vehicle.canParkIn(spot);
+        }
+        return CompatibilityMatrix.isAllowed(vehicle.getType(), type, isVip);
     }
 
-    private ParkingSpot getSampleSpotByType(String type) {
-        for (Floor floor : floors) {
-            for (ParkingSpot spot : floor.getSpots()) {
-                if (spot.getType().equalsIgnoreCase(type)) {
-                    return spot;
-                }
-            }
+    // Shared, unmodifiable list of type names; only types that exist in the lot are included
+    public List<String> getAllowedSpotTypes(Vehicles.Vehicle vehicle, boolean isVip) {
+        return TYPE_LISTS_BY_MASK.get(getAllowedTypeMask(vehicle, isVip));
+    }
+
+    // Bit per SpotType ordinal the vehicle may use in this lot
+    public int getAllowedTypeMask(Vehicles.Vehicle vehicle, boolean isVip) {
+        if (vehicle == null) {
+            return 0;
         }
-        return null;
+        return CompatibilityMatrix.allowedMask(vehicle.getType(), isVip) & presentTypesMask;
+    }
+
+    public int getPresentTypesMask() {
+        return presentTypesMask;
     }
     
     // Helper: Reset the lot (useful for Admin config)
     public void clearLot() {
+        removeAllFloors();
+    }
+
+    private void removeAllFloors() {
+        for (Floor floor : floors) {
+            floor.setOwner(null);
+        }
         floors.clear();
+        spotsByPlate.clear();
+        rebuildIndex();
     }
 
-    // Initialize default 5-floor structure as specified
+    // Initialize the configured layout (-Dparking.layout), or the built-in 5-floor structure
     public void initializeDefaultStructure() {
-        // Clear existing floors
-        this.floors.clear();
-
-        // Create 5 floors
-        for (int f = 1; f <= 5; f++) {
-            Floor floor = new Floor("Floor " + f);
-
-            // Create 30 spots per floor
-            for (int s = 1; s <= 30; s++) {
-                int row = ((s - 1) / 10) + 1; // 1..3
-                int posInRow = ((s - 1) % 10) + 1; // 1..10
-                
-                ParkingSpot spot = createSpotForLocation(f, row, posInRow, s);
-                floor.addSpot(spot);
-            }
-
-            this.addFloor(floor);
+        LotLayout layout;
+        try {
+            layout = LayoutLoader.loadConfigured();
+        } catch (IOException e) {
+            System.err.println("Error loading parking layout: " + e.getMessage());
+            layout = LayoutLoader.loadDefault();
         }
+        build(layout);
     }
 
-    private ParkingSpot createSpotForLocation(int floor, int row, int posInRow, int spotNumber) {
-        if (floor <= 3) {
-            // Floors 1-3
-            if (row == 1) {
-                if (posInRow <= 5) {
-                    return new ReservedSpot(floor, row, spotNumber);
-                } else {
-                    return new HandicappedSpot(floor, row, spotNumber);
-                }
-            } else if (row == 2) {
-                return new CompactSpot(floor, row, spotNumber);
-            } else {
-                return new RegularSpot(floor, row, spotNumber);
+    // Replace the current floors with the spots described by the layout
+    public void build(LotLayout layout) {
+        removeAllFloors();
+
+        Map<Integer, Floor> byNumber = new TreeMap<>();
+        for (int r = 0; r < layout.getRangeCount(); r++) {
+            int floorNumber = layout.getFloor(r);
+            Floor floor = byNumber.get(floorNumber);
+            if (floor == null) {
+                floor = new Floor(floorNumber);
+                byNumber.put(floorNumber, floor);
             }
-        } else {
-            // Floors 4-5
-            if (row == 1) {
-                return new ReservedSpot(floor, row, spotNumber);
-            } else if (row == 2) {
-                return new CompactSpot(floor, row, spotNumber);
-            } else {
-                return new RegularSpot(floor, row, spotNumber);
+            for (int slot = layout.getFirstSlot(r); slot <= layout.getLastSlot(r); slot++) {
+                floor.addSpot(createSpot(layout.getType(r), floorNumber, layout.getRow(r), slot, layout.getRate(r)));
             }
         }
+
+        for (Floor floor : byNumber.values()) {
+            addFloor(floor);
+        }
+    }
+
+    private static ParkingSpot createSpot(SpotType type, int floor, int row, int slot, double hourlyRate) {
+        switch (type) {
+            case COMPACT:
+                return new CompactSpot(floor, row, slot, hourlyRate);
+            case HANDICAPPED:
+                return new HandicappedSpot(floor, row, slot, hourlyRate);
+            case RESERVED:
+                return new ReservedSpot(floor, row, slot, hourlyRate);
+            case REGULAR:
+            default:
+                return new RegularSpot(floor, row, slot, hourlyRate);
+        }
+    }
+
+    // Floor numbers in the order the floors were added
+    public List<Integer> getFloorNumbers() {
+        List<Integer> numbers = new ArrayList<>();
+        for (Floor floor : floors) {
+            numbers.add(floor.getFloorNumber());
+        }
+        return numbers;
     }
-}
\ No newline at end of file
+}
@@ -1,128 +1,204 @@
 package ParkingLot;
 
 import Vehicles.Vehicle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public abstract class ParkingSpot {
+    // Dense spot handle layout: floor (9 bits) | row (10 bits) | slot (12 bits)
+    private static final int ROW_BITS = 10;
+    private static final int SLOT_BITS = 12;
+    public static final int MAX_FLOOR = (1 << 9) - 1;
+    public static final int MAX_ROW = (1 << ROW_BITS) - 1;
+    public static final int MAX_SLOT = (1 << SLOT_BITS) - 1;
+
     private final String spotId;
     private final String type;
-    private boolean isOccupied;
-    private Vehicle currentVehicle; 
+    private final SpotType spotType;
+    // Handle of no claim; occupant handles start at 1
+    public static final long FREE = 0L;
+    private static final AtomicLong OCCUPANT_HANDLES = new AtomicLong();
+
+    // The current claim and the vehicle bound to it, swapped as one value
+    private static final class Occupant {
+        final long handle;
+        final Vehicle vehicle;
+
+        Occupant(long handle, Vehicle vehicle) {
+            this.handle = handle;
+            this.vehicle = vehicle;
+        }
+    }
+
+    // null while the spot is free
+    private final AtomicReference<Occupant> state = new AtomicReference<>();
     private final double hourlyRate;  
+    private final int handle;
+    // Canonical UI form of spotId, built once per spot
+    private final String uiSpotId;
+    // Position in the lot's OccupancyIndex group, -1 until registered
+    int occupancyBit = -1;
+    volatile OccupancyIndex occupancy;
 
     public ParkingSpot(String spotId, String type, double hourlyRate) {
         this.spotId = spotId;
         this.type = type;
+        this.spotType = SpotType.fromDisplayName(type);
         this.hourlyRate = hourlyRate;
-        this.isOccupied = false;
-        this.currentVehicle = null;
+
+        long packed = SpotIdCodec.decode(spotId);
+        this.handle = packed == SpotIdCodec.INVALID ? -1 : SpotIdCodec.handle(packed);
+        this.uiSpotId = toUiSpotId(spotId, type);
     }
 
     public boolean park(Vehicle vehicle) {
-        // 1. Check if spot is already taken
-        if (isOccupied) {
+        // 1. Check if this specific vehicle is ALLOWED here
+        if (!vehicle.canParkIn(this)) {
+            System.out.println("Validation Failed: " + vehicle.getType() + " cannot park in " + this.getType());
             return false;
         }
 
-        // 2. Check if this specific vehicle is ALLOWED here
-        if (!vehicle.canParkIn(this)) {
-            System.out.println("Validation Failed: " + vehicle.getType() + " cannot park in " + this.getType());
+        // 2. Claim the spot and park; fails if another vehicle got there first
+        return occupy(vehicle);
+    }
+
+    public void removeVehicle() {
+        release();
+    }
+
+    /**
+     * Claims the spot for a vehicle without the canParkIn check, for callers
+     * that have already validated it or are restoring saved state. The claim
+     * and the vehicle are installed by one CAS.
+     */
+    public boolean occupy(Vehicle vehicle) {
+        return take(vehicle) != FREE;
+    }
+
+    /**
+     * Atomically takes the spot with no vehicle bound. Returns the new
+     * occupant handle, or FREE when the spot was already taken.
+     */
+    public long claim() {
+        return take(null);
+    }
+
+    private long take(Vehicle vehicle) {
+        Occupant occupant = new Occupant(OCCUPANT_HANDLES.incrementAndGet(), vehicle);
+        if (!state.compareAndSet(null, occupant)) {
+            return FREE;
+        }
+        syncOccupancy();
+        return occupant.handle;
+    }
+
+    // Releases the spot only if it is still held by the given occupant
+    public boolean release(long occupant) {
+        Occupant current = state.get();
+        if (occupant == FREE || current == null || current.handle != occupant
+                || !state.compareAndSet(current, null)) {
             return false;
         }
+        syncOccupancy();
+        return true;
+    }
 
-        // 3. Park the vehicle
-        this.currentVehicle = vehicle;
-        this.isOccupied = true;
+    // Releases whatever claim is held; returns false when the spot was already free
+    public boolean release() {
+        Occupant current = state.getAndSet(null);
+        if (current == null) {
+            return false;
+        }
+        syncOccupancy();
         return true;
     }
 
-    public void removeVehicle() {
-        this.currentVehicle = null;
-        this.isOccupied = false;
+    // Releases the spot only if the plate's vehicle is the one bound to it
+    public boolean releasePlate(String plate) {
+        Occupant current = state.get();
+        if (current == null || current.vehicle == null || !current.vehicle.getLicensePlate().equals(plate)
+                || !state.compareAndSet(current, null)) {
+            return false;
+        }
+        syncOccupancy();
+        return true;
+    }
+
+    private void syncOccupancy() {
+        OccupancyIndex index = occupancy;
+        if (index != null) {
+            index.sync(this);
+        }
     }
 
     // Getters
     public String getSpotId() { return spotId; }
     public String getType() { return type; }
-    public boolean isOccupied() { return isOccupied; }
-    public Vehicle getCurrentVehicle() { return currentVehicle; }
+    public SpotType getSpotType() { return spotType; }
+    public boolean isOccupied() { return state.get() != null; }
+    public long getOccupantHandle() { Occupant current = state.get(); return current == null ? FREE : current.handle; }
+    public Vehicle getCurrentVehicle() { Occupant current = state.get(); return current == null ? null : current.vehicle; }
     public double getHourlyRate() { return hourlyRate; }
 
+    // Packed floor/row/slot, or -1 when the spot ID is not in a recognised format
+    public int getHandle() { return handle; }
+    public int getFloorNumber() { return handle < 0 ? 0 : handleFloor(handle); }
+    public int getRow() { return handle < 0 ? 0 : handleRow(handle); }
+    public int getSlot() { return handle < 0 ? 0 : handleSlot(handle); }
+
+    // Handle packing
+    public static int packHandle(int floor, int row, int slot) {
+        if (floor < 0 || floor > MAX_FLOOR || row < 0 || row > MAX_ROW || slot < 0 || slot > MAX_SLOT) {
+            return -1;
+        }
+        return (floor << (ROW_BITS + SLOT_BITS)) | (row << SLOT_BITS) | slot;
+    }
+
+    public static int handleFloor(int handle) {
+        return handle >>> (ROW_BITS + SLOT_BITS);
+    }
+
+    public static int handleRow(int handle) {
+        return (handle >>> SLOT_BITS) & MAX_ROW;
+    }
+
+    public static int handleSlot(int handle) {
+        return handle & MAX_SLOT;
+    }
+
     // Utility
     public static String formatSpotId(int floor, int row, int spot) {
-        return String.format("F%d-R%d-S%02d", floor, row, spot);
+        return SpotIdCodec.formatInternal(floor, row, spot);
     }
 
     public String toUiSpotId() {
-        return toUiSpotId(this.spotId, this.type);
+        return uiSpotId;
     }
 
     public static String toUiSpotId(String spotId, String type) {
-        SpotIdParts parts = parseSpotId(spotId, type);
-        if (parts == null) {
+        long packed = SpotIdCodec.decode(spotId);
+        if (packed == SpotIdCodec.INVALID) {
             return spotId;
         }
-        return String.format("F%d-%s-R%dS%02d", parts.floor, parts.type, parts.row, parts.spot);
+        String label = SpotIdCodec.isUiFormat(packed) ? SpotIdCodec.typeLabel(spotId, packed) : (type != null ? type : "");
+        return SpotIdCodec.formatUi(SpotIdCodec.floor(packed), label, SpotIdCodec.row(packed), SpotIdCodec.slot(packed));
     }
 
     public static String toInternalSpotId(String spotId) {
-        SpotIdParts parts = parseSpotId(spotId, null);
-        if (parts == null) {
+        long packed = SpotIdCodec.decode(spotId);
+        if (packed == SpotIdCodec.INVALID || SpotIdCodec.isCanonicalInternal(spotId, packed)) {
             return spotId;
         }
-        return String.format("F%d-R%d-S%02d", parts.floor, parts.row, parts.spot);
+        return SpotIdCodec.formatInternal(SpotIdCodec.floor(packed), SpotIdCodec.row(packed), SpotIdCodec.slot(packed));
     }
 
     public static String extractType(String spotId) {
-        SpotIdParts parts = parseSpotId(spotId, null);
-        return parts == null ? "" : parts.type;
+        long packed = SpotIdCodec.decode(spotId);
+        return packed == SpotIdCodec.INVALID ? "" : SpotIdCodec.typeLabel(spotId, packed);
     }
 
     public static int extractFloor(String spotId) {
-        SpotIdParts parts = parseSpotId(spotId, null);
-        return parts == null ? 1 : parts.floor;
-    }
-
-    private static SpotIdParts parseSpotId(String spotId, String fallbackType) {
-        if (spotId == null || spotId.isEmpty()) {
-            return null;
-        }
-
-        // UI format: F1-Reserved-R1S01
-        java.util.regex.Pattern uiPattern = java.util.regex.Pattern.compile("F(\\d+)-([A-Za-z]+)-R(\\d+)S(\\d+)");
-        java.util.regex.Matcher uiMatcher = uiPattern.matcher(spotId);
-        if (uiMatcher.matches()) {
-            int floor = Integer.parseInt(uiMatcher.group(1));
-            String type = uiMatcher.group(2);
-            int row = Integer.parseInt(uiMatcher.group(3));
-            int spot = Integer.parseInt(uiMatcher.group(4));
-            return new SpotIdParts(floor, row, spot, type);
-        }
-
-        // Internal format: F1-R1-S01
-        java.util.regex.Pattern internalPattern = java.util.regex.Pattern.compile("F(\\d+)-R(\\d+)-S(\\d+)");
-        java.util.regex.Matcher internalMatcher = internalPattern.matcher(spotId);
-        if (internalMatcher.matches()) {
-            int floor = Integer.parseInt(internalMatcher.group(1));
-            int row = Integer.parseInt(internalMatcher.group(2));
-            int spot = Integer.parseInt(internalMatcher.group(3));
-            String type = fallbackType != null ? fallbackType : "";
-            return new SpotIdParts(floor, row, spot, type);
-        }
-
-        return null;
-    }
-
-    private static final class SpotIdParts {
-        private final int floor;
-        private final int row;
-        private final int spot;
-        private final String type;
-
-        private SpotIdParts(int floor, int row, int spot, String type) {
-            this.floor = floor;
-            this.row = row;
-            this.spot = spot;
-            this.type = type == null ? "" : type;
-        }
+        long packed = SpotIdCodec.decode(spotId);
+        return packed == SpotIdCodec.INVALID ? 1 : SpotIdCodec.floor(packed);
     }
-}
\ No newline at end of file
+}
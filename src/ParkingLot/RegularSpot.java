@@ -8,4 +8,8 @@ public class RegularSpot extends ParkingSpot {
     public RegularSpot(int floor, int row, int spot) {
         super(ParkingSpot.formatSpotId(floor, row, spot), "Regular", 5.00);
     }
+
+    public RegularSpot(int floor, int row, int spot, double hourlyRate) {
+        super(ParkingSpot.formatSpotId(floor, row, spot), "Regular", hourlyRate);
+    }
 }
\ No newline at end of file
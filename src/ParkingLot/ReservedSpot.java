@@ -8,4 +8,8 @@ public class ReservedSpot extends ParkingSpot {
     public ReservedSpot(int floor, int row, int spot) {
         super(ParkingSpot.formatSpotId(floor, row, spot), "Reserved", 10.00);
     }
+
+    public ReservedSpot(int floor, int row, int spot, double hourlyRate) {
+        super(ParkingSpot.formatSpotId(floor, row, spot), "Reserved", hourlyRate);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package ParkingLot;
+
+import Vehicles.Vehicle;
+
+/**
+ * Picks the best free spot for a vehicle straight from the lot's
+ * OccupancyIndex bitmaps. Compatibility comes from the lot's
+ * CompatibilityMatrix mask; each probe is a find-first-set over one
+ * (floor, type) bitmap.
+ */
+public class SpotAllocator {
+    // A claim can lose a race with another gate; retry a few times before giving up
+    private static final int MAX_CLAIM_ATTEMPTS = 8;
+    private static final SpotType[] TYPES = SpotType.values();
+
+    private final ParkingLot lot;
+
+    public SpotAllocator(ParkingLot lot) {
+        this.lot = lot;
+    }
+
+    /**
+     * Finds the best spot and parks the vehicle there. Returns null when no compatible spot is free.
+     * referenceFloor is the entry floor used by NEAREST_FLOOR; onlyType
+     * restricts the search to one spot type (null for any).
+     */
+    public ParkingSpot allocate(Vehicle vehicle, boolean isVip, AllocationPolicy policy, int referenceFloor, SpotType onlyType) {
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            ParkingSpot spot = findBestSpot(vehicle, isVip, policy, referenceFloor, onlyType);
+            if (spot == null) {
+                return null;
+            }
+            if (lot.parkVehicle(spot, vehicle)) {
+                return spot;
+            }
+        }
+        return null;
+    }
+
+    // Best free spot under the policy without claiming it
+    public ParkingSpot findBestSpot(Vehicle vehicle, boolean isVip, AllocationPolicy policy, int referenceFloor, SpotType onlyType) {
+        int allowedMask = allowedTypeMask(vehicle, isVip, onlyType);
+        if (allowedMask == 0) {
+            return null;
+        }
+
+        OccupancyIndex occupancy = lot.getOccupancy();
+        int maxFloor = occupancy.getMaxFloor();
+        switch (policy) {
+            case NEAREST_FLOOR:
+                return findNearest(occupancy, allowedMask, Math.max(1, referenceFloor), maxFloor);
+            case BALANCE_FLOORS:
+                return findOnEmptiestFloor(occupancy, allowedMask, maxFloor);
+            case CHEAPEST_RATE:
+                return findCheapest(occupancy, allowedMask);
+            case LOWEST_FLOOR_FIRST:
+            default:
+                for (int floor = 1; floor <= maxFloor; floor++) {
+                    ParkingSpot spot = findOnFloor(occupancy, floor, allowedMask);
+                    if (spot != null) {
+                        return spot;
+                    }
+                }
+                return null;
+        }
+    }
+
+    private int allowedTypeMask(Vehicle vehicle, boolean isVip, SpotType onlyType) {
+        int mask = lot.getAllowedTypeMask(vehicle, isVip);
+        return onlyType == null ? mask : mask & CompatibilityMatrix.bit(onlyType);
+    }
+
+    // Smallest compatible type first, so larger spots stay free for vehicles that need them
+    private ParkingSpot findOnFloor(OccupancyIndex occupancy, int floor, int allowedMask) {
+        for (SpotType type : TYPES) {
+            if ((allowedMask & (1 << type.ordinal())) != 0) {
+                ParkingSpot spot = occupancy.findFirstFree(floor, type);
+                if (spot != null) {
+                    return spot;
+                }
+            }
+        }
+        return null;
+    }
+
+    private ParkingSpot findNearest(OccupancyIndex occupancy, int allowedMask, int referenceFloor, int maxFloor) {
+        for (int distance = 0; distance <= maxFloor; distance++) {
+            int below = referenceFloor - distance;
+            if (below >= 1 && below <= maxFloor) {
+                ParkingSpot spot = findOnFloor(occupancy, below, allowedMask);
+                if (spot != null) {
+                    return spot;
+                }
+            }
+            int above = referenceFloor + distance;
+            if (distance > 0 && above <= maxFloor) {
+                ParkingSpot spot = findOnFloor(occupancy, above, allowedMask);
+                if (spot != null) {
+                    return spot;
+                }
+            }
+        }
+        return null;
+    }
+
+    private ParkingSpot findOnEmptiestFloor(OccupancyIndex occupancy, int allowedMask, int maxFloor) {
+        int bestFloor = -1;
+        int bestFree = 0;
+        for (int floor = 1; floor <= maxFloor; floor++) {
+            int free = 0;
+            for (SpotType type : TYPES) {
+                if ((allowedMask & (1 << type.ordinal())) != 0) {
+                    free += occupancy.getFreeCount(floor, type);
+                }
+            }
+            if (free > bestFree) {
+                bestFree = free;
+                bestFloor = floor;
+            }
+        }
+        return bestFloor < 0 ? null : findOnFloor(occupancy, bestFloor, allowedMask);
+    }
+
+    // Per-spot rates (layout @rate overrides) can differ within a type, so each type's cheapest free spot is compared
+    private ParkingSpot findCheapest(OccupancyIndex occupancy, int allowedMask) {
+        ParkingSpot best = null;
+        for (SpotType type : TYPES) {
+            if ((allowedMask & (1 << type.ordinal())) == 0) {
+                continue;
+            }
+            ParkingSpot spot = occupancy.findCheapestFree(type);
+            if (spot != null && (best == null || spot.getHourlyRate() < best.getHourlyRate())) {
+                best = spot;
+            }
+        }
+        return best;
+    }
+}
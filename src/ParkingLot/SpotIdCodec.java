@@ -0,0 +1,271 @@
+package ParkingLot;
+
+/**
+ * Hand-written parser/formatter for spot IDs in both formats:
+ * internal "F1-R1-S01" and UI "F1-Reserved-R1S01".
+ * Parsing never allocates; a parsed ID is returned as a packed long
+ * (see the layout below), or INVALID when the text is not a spot ID.
+ */
+public final class SpotIdCodec {
+    // Packed layout: slot (16 bits) | row (16) | floor (16) | type code (8) | UI-format flag (1)
+    private static final int FIELD_BITS = 16;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    private static final int ROW_SHIFT = FIELD_BITS;
+    private static final int FLOOR_SHIFT = 2 * FIELD_BITS;
+    private static final int TYPE_SHIFT = 3 * FIELD_BITS;
+    private static final long UI_FORMAT_FLAG = 1L << (TYPE_SHIFT + 8);
+
+    public static final int MAX_FIELD = FIELD_MASK;
+    public static final long INVALID = -1L;
+
+    // Type codes: 0 = no type in the ID, 1..n = SpotType ordinal + 1, UNKNOWN_TYPE = some other label
+    public static final int NO_TYPE = 0;
+    public static final int UNKNOWN_TYPE = 0xFF;
+
+    private static final SpotType[] TYPES = SpotType.values();
+
+    private SpotIdCodec() {
+    }
+
+    // --- Parsing ---
+
+    public static long decode(CharSequence id) {
+        if (id == null) {
+            return INVALID;
+        }
+        int len = id.length();
+        if (len < 2 || id.charAt(0) != 'F') {
+            return INVALID;
+        }
+
+        int pos = 1;
+        int end = scanDigits(id, pos, len);
+        int floor = parseField(id, pos, end);
+        if (floor < 0 || end >= len || id.charAt(end) != '-') {
+            return INVALID;
+        }
+        pos = end + 1;
+
+        // Internal format continues with R<digits>-S<digits>
+        if (pos + 1 < len && id.charAt(pos) == 'R' && isDigit(id.charAt(pos + 1))) {
+            pos++;
+            end = scanDigits(id, pos, len);
+            int row = parseField(id, pos, end);
+            if (row < 0 || end + 1 >= len || id.charAt(end) != '-' || id.charAt(end + 1) != 'S') {
+                return INVALID;
+            }
+            pos = end + 2;
+            end = scanDigits(id, pos, len);
+            int slot = parseField(id, pos, end);
+            if (slot < 0 || end != len) {
+                return INVALID;
+            }
+            return pack(floor, row, slot, NO_TYPE, false);
+        }
+
+        // UI format continues with <letters>-R<digits>S<digits>
+        int labelStart = pos;
+        while (pos < len && isLetter(id.charAt(pos))) {
+            pos++;
+        }
+        int labelEnd = pos;
+        if (labelEnd == labelStart || pos + 1 >= len || id.charAt(pos) != '-' || id.charAt(pos + 1) != 'R') {
+            return INVALID;
+        }
+        pos += 2;
+        end = scanDigits(id, pos, len);
+        int row = parseField(id, pos, end);
+        if (row < 0 || end >= len || id.charAt(end) != 'S') {
+            return INVALID;
+        }
+        pos = end + 1;
+        end = scanDigits(id, pos, len);
+        int slot = parseField(id, pos, end);
+        if (slot < 0 || end != len) {
+            return INVALID;
+        }
+        return pack(floor, row, slot, typeCode(id, labelStart, labelEnd), true);
+    }
+
+    public static long pack(int floor, int row, int slot, int typeCode, boolean uiFormat) {
+        long packed = ((long) (floor & FIELD_MASK) << FLOOR_SHIFT)
+                | ((long) (row & FIELD_MASK) << ROW_SHIFT)
+                | (slot & FIELD_MASK)
+                | ((long) (typeCode & 0xFF) << TYPE_SHIFT);
+        return uiFormat ? packed | UI_FORMAT_FLAG : packed;
+    }
+
+    public static int floor(long packed) { return (int) (packed >>> FLOOR_SHIFT) & FIELD_MASK; }
+    public static int row(long packed) { return (int) (packed >>> ROW_SHIFT) & FIELD_MASK; }
+    public static int slot(long packed) { return (int) packed & FIELD_MASK; }
+    public static int typeCode(long packed) { return (int) (packed >>> TYPE_SHIFT) & 0xFF; }
+    public static boolean isUiFormat(long packed) { return (packed & UI_FORMAT_FLAG) != 0; }
+
+    // ParkingSpot handle for the parsed ID, or -1 when it does not fit the handle layout
+    public static int handle(long packed) {
+        return ParkingSpot.packHandle(floor(packed), row(packed), slot(packed));
+    }
+
+    // Known spot type carried by the ID, or null (internal format / unrecognised label)
+    public static SpotType spotType(long packed) {
+        int code = typeCode(packed);
+        return code == NO_TYPE || code == UNKNOWN_TYPE ? null : TYPES[code - 1];
+    }
+
+    public static int typeCode(SpotType type) {
+        return type == null ? NO_TYPE : type.ordinal() + 1;
+    }
+
+    // Matches the label against the display names without building a substring
+    public static int typeCode(CharSequence text, int start, int end) {
+        int length = end - start;
+        for (SpotType type : TYPES) {
+            String name = type.displayName();
+            if (name.length() == length && regionEquals(text, start, name)) {
+                return type.ordinal() + 1;
+            }
+        }
+        return UNKNOWN_TYPE;
+    }
+
+    // Raw type label of a UI-format ID; only allocates for labels that are not a SpotType
+    public static String typeLabel(String id, long packed) {
+        if (!isUiFormat(packed)) {
+            return "";
+        }
+        SpotType type = spotType(packed);
+        if (type != null) {
+            return type.displayName();
+        }
+        int start = id.indexOf('-') + 1;
+        return id.substring(start, id.indexOf('-', start));
+    }
+
+    // --- Formatting ---
+
+    public static String formatInternal(int floor, int row, int slot) {
+        if ((floor | row | slot) < 0) {
+            return String.format("F%d-R%d-S%02d", floor, row, slot);
+        }
+        char[] buf = new char[internalLength(floor, row, slot)];
+        int pos = 0;
+        buf[pos++] = 'F';
+        pos = writeInt(buf, pos, floor, 1);
+        buf[pos++] = '-';
+        buf[pos++] = 'R';
+        pos = writeInt(buf, pos, row, 1);
+        buf[pos++] = '-';
+        buf[pos++] = 'S';
+        writeInt(buf, pos, slot, 2);
+        return new String(buf);
+    }
+
+    public static String formatUi(int floor, String typeLabel, int row, int slot) {
+        if ((floor | row | slot) < 0) {
+            return String.format("F%d-%s-R%dS%02d", floor, typeLabel, row, slot);
+        }
+        int labelLength = typeLabel.length();
+        char[] buf = new char[5 + labelLength + digitCount(floor) + digitCount(row) + Math.max(2, digitCount(slot))];
+        int pos = 0;
+        buf[pos++] = 'F';
+        pos = writeInt(buf, pos, floor, 1);
+        buf[pos++] = '-';
+        typeLabel.getChars(0, labelLength, buf, pos);
+        pos += labelLength;
+        buf[pos++] = '-';
+        buf[pos++] = 'R';
+        pos = writeInt(buf, pos, row, 1);
+        buf[pos++] = 'S';
+        writeInt(buf, pos, slot, 2);
+        return new String(buf);
+    }
+
+    // True when the text is exactly what formatInternal would produce for it, compared char by char
+    // (a length match alone would accept "F01-R1-S1" for "F1-R1-S01")
+    public static boolean isCanonicalInternal(CharSequence id, long packed) {
+        if (packed == INVALID || isUiFormat(packed)
+                || id.length() != internalLength(floor(packed), row(packed), slot(packed))) {
+            return false;
+        }
+        int pos = 1;
+        pos = matchInt(id, pos, floor(packed), 1);
+        pos = pos < 0 ? -1 : matchInt(id, pos + 2, row(packed), 1);
+        pos = pos < 0 ? -1 : matchInt(id, pos + 2, slot(packed), 2);
+        return pos == id.length();
+    }
+
+    // --- Helpers ---
+
+    private static int internalLength(int floor, int row, int slot) {
+        return 5 + digitCount(floor) + digitCount(row) + Math.max(2, digitCount(slot));
+    }
+
+    private static int scanDigits(CharSequence s, int pos, int len) {
+        while (pos < len && isDigit(s.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    // Value of s[start, end), or -1 when empty or larger than MAX_FIELD
+    private static int parseField(CharSequence s, int start, int end) {
+        if (start == end) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+            if (value > MAX_FIELD) {
+                return -1;
+            }
+        }
+        return value;
+    }
+
+    private static boolean regionEquals(CharSequence s, int start, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (s.charAt(start + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static int digitCount(int value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    // Position after value as writeInt would lay it out at s[pos...], or -1 when the digits differ
+    private static int matchInt(CharSequence s, int pos, int value, int minDigits) {
+        int digits = Math.max(minDigits, digitCount(value));
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            if (s.charAt(i) != (char) ('0' + value % 10)) {
+                return -1;
+            }
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    private static int writeInt(char[] buf, int pos, int value, int minDigits) {
+        int digits = Math.max(minDigits, digitCount(value));
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+}
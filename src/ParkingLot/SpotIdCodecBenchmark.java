@@ -0,0 +1,177 @@
+package ParkingLot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Before/after micro-benchmark of spot ID parsing: the regex parser that
+ * ParkingSpot used to have against SpotIdCodec. Both sides run the four
+ * conversions the tables call per row (toUiSpotId, toInternalSpotId,
+ * extractType, extractFloor) over every spot of the configured layout, in
+ * both ID formats plus a few non-canonical spellings. Results are compared
+ * first, so a codec that disagrees with the old parser fails the run.
+ *
+ * Run after compiling: java -cp "lib/*;bin" ParkingLot.SpotIdCodecBenchmark [rounds] [warmupRounds]
+ * Exits with status 1 when the two implementations disagree.
+ */
+public class SpotIdCodecBenchmark {
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int warmup = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        ParkingLot lot = ParkingLot.getInstance();
+        lot.initializeDefaultStructure();
+        List<String> ids = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+        for (Floor floor : lot.getFloors()) {
+            for (ParkingSpot spot : floor.getSpots()) {
+                String type = spot.getSpotType().displayName();
+                ids.add(spot.getSpotId());
+                types.add(type);
+                ids.add(spot.toUiSpotId());
+                types.add(type);
+            }
+        }
+        // Extra leading zeros and a short slot, which both must normalize the same way
+        String[] odd = {"F01-R1-S1", "F1-R01-S001", "F001-Regular-R01S1", "F1-Unknown-R2S3", "G1-R1-S01", ""};
+        for (String id : odd) {
+            ids.add(id);
+            types.add("Regular");
+        }
+        String[] idArray = ids.toArray(new String[0]);
+        String[] typeArray = types.toArray(new String[0]);
+
+        int mismatches = 0;
+        for (int i = 0; i < idArray.length; i++) {
+            String id = idArray[i];
+            String[] before = {Regex.toUiSpotId(id, typeArray[i]), Regex.toInternalSpotId(id),
+                Regex.extractType(id), Integer.toString(Regex.extractFloor(id))};
+            String[] after = {ParkingSpot.toUiSpotId(id, typeArray[i]), ParkingSpot.toInternalSpotId(id),
+                ParkingSpot.extractType(id), Integer.toString(ParkingSpot.extractFloor(id))};
+            for (int k = 0; k < before.length; k++) {
+                if (!before[k].equals(after[k]) && ++mismatches <= 10) {
+                    System.err.println("\"" + id + "\": regex gives " + before[k] + ", codec gives " + after[k]);
+                }
+            }
+        }
+
+        for (int r = 0; r < warmup; r++) {
+            runRegex(idArray, typeArray);
+            runCodec(idArray, typeArray);
+        }
+        long regexNanos = Long.MAX_VALUE;
+        long codecNanos = Long.MAX_VALUE;
+        long sink = 0;
+        for (int r = 0; r < rounds; r++) {
+            long began = System.nanoTime();
+            sink += runRegex(idArray, typeArray);
+            regexNanos = Math.min(regexNanos, System.nanoTime() - began);
+            began = System.nanoTime();
+            sink += runCodec(idArray, typeArray);
+            codecNanos = Math.min(codecNanos, System.nanoTime() - began);
+        }
+
+        // Four conversions per ID; best round of each side
+        double ops = 4.0 * idArray.length;
+        System.out.printf("%d IDs, best of %d rounds: regex %.1f ns/op, codec %.1f ns/op (%.1fx); %d mismatch(es) [%d]%n",
+            idArray.length, rounds, regexNanos / ops, codecNanos / ops, (double) regexNanos / codecNanos, mismatches, sink & 1);
+        System.exit(mismatches == 0 ? 0 : 1);
+    }
+
+    private static long runRegex(String[] ids, String[] types) {
+        long sink = 0;
+        for (int i = 0; i < ids.length; i++) {
+            sink += Regex.toUiSpotId(ids[i], types[i]).length();
+            sink += Regex.toInternalSpotId(ids[i]).length();
+            sink += Regex.extractType(ids[i]).length();
+            sink += Regex.extractFloor(ids[i]);
+        }
+        return sink;
+    }
+
+    private static long runCodec(String[] ids, String[] types) {
+        long sink = 0;
+        for (int i = 0; i < ids.length; i++) {
+            sink += ParkingSpot.toUiSpotId(ids[i], types[i]).length();
+            sink += ParkingSpot.toInternalSpotId(ids[i]).length();
+            sink += ParkingSpot.extractType(ids[i]).length();
+            sink += ParkingSpot.extractFloor(ids[i]);
+        }
+        return sink;
+    }
+
+    // The parser ParkingSpot had before SpotIdCodec, kept verbatim as the baseline
+    private static final class Regex {
+        static String toUiSpotId(String spotId, String type) {
+            SpotIdParts parts = parseSpotId(spotId, type);
+            if (parts == null) {
+                return spotId;
+            }
+            return String.format("F%d-%s-R%dS%02d", parts.floor, parts.type, parts.row, parts.spot);
+        }
+
+        static String toInternalSpotId(String spotId) {
+            SpotIdParts parts = parseSpotId(spotId, null);
+            if (parts == null) {
+                return spotId;
+            }
+            return String.format("F%d-R%d-S%02d", parts.floor, parts.row, parts.spot);
+        }
+
+        static String extractType(String spotId) {
+            SpotIdParts parts = parseSpotId(spotId, null);
+            return parts == null ? "" : parts.type;
+        }
+
+        static int extractFloor(String spotId) {
+            SpotIdParts parts = parseSpotId(spotId, null);
+            return parts == null ? 1 : parts.floor;
+        }
+
+        private static SpotIdParts parseSpotId(String spotId, String fallbackType) {
+            if (spotId == null || spotId.isEmpty()) {
+                return null;
+            }
+
+            // UI format: F1-Reserved-R1S01
+            Pattern uiPattern = Pattern.compile("F(\\d+)-([A-Za-z]+)-R(\\d+)S(\\d+)");
+            Matcher uiMatcher = uiPattern.matcher(spotId);
+            if (uiMatcher.matches()) {
+                int floor = Integer.parseInt(uiMatcher.group(1));
+                String type = uiMatcher.group(2);
+                int row = Integer.parseInt(uiMatcher.group(3));
+                int spot = Integer.parseInt(uiMatcher.group(4));
+                return new SpotIdParts(floor, row, spot, type);
+            }
+
+            // Internal format: F1-R1-S01
+            Pattern internalPattern = Pattern.compile("F(\\d+)-R(\\d+)-S(\\d+)");
+            Matcher internalMatcher = internalPattern.matcher(spotId);
+            if (internalMatcher.matches()) {
+                int floor = Integer.parseInt(internalMatcher.group(1));
+                int row = Integer.parseInt(internalMatcher.group(2));
+                int spot = Integer.parseInt(internalMatcher.group(3));
+                String type = fallbackType != null ? fallbackType : "";
+                return new SpotIdParts(floor, row, spot, type);
+            }
+
+            return null;
+        }
+    }
+
+    private static final class SpotIdParts {
+        private final int floor;
+        private final int row;
+        private final int spot;
+        private final String type;
+
+        private SpotIdParts(int floor, int row, int spot, String type) {
+            this.floor = floor;
+            this.row = row;
+            this.spot = spot;
+            this.type = type == null ? "" : type;
+        }
+    }
+}
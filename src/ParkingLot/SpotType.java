@@ -1,3 +1,5 @@
+package ParkingLot;
+
 public enum SpotType {
     COMPACT, REGULAR, HANDICAPPED, RESERVED;
 
@@ -16,6 +18,22 @@ public enum SpotType {
         }
     }
 
+    // Hourly rate used when a layout does not set one
+    public double defaultHourlyRate() {
+        switch (this) {
+            case COMPACT:
+                return 2.00;
+            case REGULAR:
+                return 5.00;
+            case HANDICAPPED:
+                return 2.00;
+            case RESERVED:
+                return 10.00;
+            default:
+                return 0.0;
+        }
+    }
+
     public static SpotType fromDisplayName(String name) {
         if (name == null) {
             return null;
@@ -1,5 +1,6 @@
 package Vehicles;
 
+import ParkingLot.CompatibilityMatrix;
 import ParkingLot.ParkingSpot;
 
 public class Car extends Vehicle {
@@ -7,10 +8,13 @@ public class Car extends Vehicle {
         super(licensePlate, VehicleType.CAR);
     }
 
+    public Car(String licensePlate, long entryMillis) {
+        super(licensePlate, VehicleType.CAR, entryMillis);
+    }
+
     @Override
     public boolean canParkIn(ParkingSpot spot) {
         // Can park in Compact, Regular, OR Reserved spots
-        String type = spot.getType();
-        return type.equals("Compact") || type.equals("Regular") || type.equals("Reserved");
+        return CompatibilityMatrix.fits(getType(), spot.getSpotType());
     }
 }
\ No newline at end of file
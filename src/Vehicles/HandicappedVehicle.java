@@ -7,6 +7,10 @@ public class HandicappedVehicle extends Vehicle {
         super(licensePlate, VehicleType.HANDICAPPED);
     }
 
+    public HandicappedVehicle(String licensePlate, long entryMillis) {
+        super(licensePlate, VehicleType.HANDICAPPED, entryMillis);
+    }
+
     @Override
     public boolean canParkIn(ParkingSpot spot) {
         // Handicapped vehicles can park in ANY spot (including Reserved/Handicapped)
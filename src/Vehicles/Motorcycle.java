@@ -1,5 +1,6 @@
 package Vehicles;
 
+import ParkingLot.CompatibilityMatrix;
 import ParkingLot.ParkingSpot;
 
 public class Motorcycle extends Vehicle {
@@ -7,11 +8,14 @@ public class Motorcycle extends Vehicle {
         super(licensePlate, VehicleType.MOTORCYCLE);
     }
 
+    public Motorcycle(String licensePlate, long entryMillis) {
+        super(licensePlate, VehicleType.MOTORCYCLE, entryMillis);
+    }
+
     // polymorphism
     @Override
     public boolean canParkIn(ParkingSpot spot) {
         // Can park in Compact spots OR Reserved spots
-        String type = spot.getType();
-        return type.equals("Compact") || type.equals("Reserved");
+        return CompatibilityMatrix.fits(getType(), spot.getSpotType());
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package Vehicles;
 
+import ParkingLot.CompatibilityMatrix;
 import ParkingLot.ParkingSpot;
 
 public class SUV extends Vehicle {
@@ -7,10 +8,13 @@ public class SUV extends Vehicle {
         super(licensePlate, VehicleType.SUV);
     }
 
+    public SUV(String licensePlate, long entryMillis) {
+        super(licensePlate, VehicleType.SUV, entryMillis);
+    }
+
     @Override
     public boolean canParkIn(ParkingSpot spot) {
         // SUV/Truck can park in Regular OR Reserved spots
-        String type = spot.getType();
-        return type.equals("Regular") || type.equals("Reserved");
+        return CompatibilityMatrix.fits(getType(), spot.getSpotType());
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package Vehicles;
 // Vehicle.java
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 import ParkingLot.ParkingSpot;
 
@@ -9,16 +11,27 @@ public abstract class Vehicle {
     private final String licensePlate;
     private final VehicleType type;
     private final LocalDateTime entryTime;
+    private final long entryMillis;
     private LocalDateTime exitTime;
 
     // Constructor
     public Vehicle(String licensePlate, VehicleType type) {
         this.licensePlate = licensePlate;
         this.type = type;
+        this.entryMillis = System.currentTimeMillis();
         this.entryTime = LocalDateTime.now(); // Record entry time immediately 
         this.exitTime = null; // Null indicates still parked 
     }
 
+    // Rebuild a vehicle that entered earlier (e.g. loaded from parked_vehicles)
+    public Vehicle(String licensePlate, VehicleType type, long entryMillis) {
+        this.licensePlate = licensePlate;
+        this.type = type;
+        this.entryMillis = entryMillis;
+        this.entryTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(entryMillis), ZoneId.systemDefault());
+        this.exitTime = null;
+    }
+
     // --- Core Logic Methods ---
 
     // Duration rounded up to the nearest hour 
@@ -44,5 +57,6 @@ public abstract class Vehicle {
     public String getLicensePlate() { return licensePlate; }
     public VehicleType getType() { return type; }
     public LocalDateTime getEntryTime() { return entryTime; }
+    public long getEntryMillis() { return entryMillis; }
     public LocalDateTime getExitTime() { return exitTime; }
 }
\ No newline at end of file
@@ -22,4 +22,24 @@ public final class VehicleFactory {
                 return null;
         }
     }
+
+    // Same mapping, for a vehicle that entered at entryMillis
+    public static Vehicle fromDisplayType(String vehicleType, String licensePlate, long entryMillis) {
+        if (vehicleType == null) {
+            return null;
+        }
+
+        switch (vehicleType) {
+            case "Motorcycle":
+                return new Motorcycle(licensePlate, entryMillis);
+            case "Car":
+                return new Car(licensePlate, entryMillis);
+            case "SUV/Truck":
+                return new SUV(licensePlate, entryMillis);
+            case "Handicapped Vehicle":
+                return new HandicappedVehicle(licensePlate, entryMillis);
+            default:
+                return null;
+        }
+    }
 }
@@ -3,5 +3,21 @@ public enum VehicleType {
     MOTORCYCLE,
     CAR,
     SUV,
-    HANDICAPPED
+    HANDICAPPED;
+
+    // Label used by the UI and stored in parked_vehicles.vehicle_type
+    public String displayName() {
+        switch (this) {
+            case MOTORCYCLE:
+                return "Motorcycle";
+            case CAR:
+                return "Car";
+            case SUV:
+                return "SUV/Truck";
+            case HANDICAPPED:
+                return "Handicapped Vehicle";
+            default:
+                return name();
+        }
+    }
 }
\ No newline at end of file
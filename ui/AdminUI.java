@@ -1,77 +1,166 @@
+import Database.RevenueRollup;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
-import Database.Database;
 
 public class AdminUI extends JFrame {
 
-    private JPanel mainPanel;
-    private CardLayout cardLayout;
+    // Pages are built on first visit rather than when the window opens
+    private final LazyCards cards = new LazyCards(this::applyGlobalButtonSizing);
     private UIDataManager dataManager;
     private MainPage mainPage;
+    // Every store call goes through here, so the EDT never waits on the database
+    private final AsyncDataAccess async = new AsyncDataAccess();
 
     private static final Dimension DEFAULT_BUTTON_SIZE = new Dimension(140, 34);
 
-    private String[] floors = {"Floor 1", "Floor 2", "Floor 3", "Floor 4", "Floor 5"};
-    private String[] fineSchemes = {"Option A (Fixed)", "Option B (Progressive)", "Option C (Hourly)"};
+    private String[] floors;
+    private String[] fineSchemes;
 
     private JLabel adminFineSchemeLabel;
     private JLabel page14FineSchemeLabel;
     
     // Parking management table references for dynamic updates
-    private DefaultTableModel parkingTableModel;
+    private ParkingTableModel parkingTableModel;
     private JComboBox<String> parkingFloorCombo;
     private JLabel dashboardOutstandingFinesLabel;
     private JLabel dashboardOccupancyLabel;
     private JLabel dashboardRevenueLabel;
+    private JLabel reportFinesLabel;
+    private JTextArea vipArea;
+    private JTextArea okuArea;
+
+    private final DataEventBus.Listener dataListener = this::onDataEvents;
+    // Occupancy, revenue and fines, pushed live to the dashboard and report pages
+    private final DashboardService dashboard;
+
+    // Test fine calculator vehicles, reloaded whenever Page15 is shown
+    private final Map<String, UIDataManager.ParkedVehicleData> calculatorVehicles = new HashMap<>();
+    private JComboBox<String> calculatorVehicleCombo;
+    private JLabel calculatorEntryTimeLabel;
 
     public AdminUI(UIDataManager dataManager, MainPage mainPage) {
         this.dataManager = dataManager;
+        this.floors = dataManager.getFloorNames();
+        this.fineSchemes = dataManager.getFineSchemeNames();
         this.mainPage = mainPage;
+        this.dashboard = new DashboardService(dataManager);
 
         setTitle("Poke Mall Parking System - Admin");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(1200, 700);
         setLocationRelativeTo(null);
 
-        cardLayout = new CardLayout();
-        mainPanel = new JPanel(cardLayout);
+        // Register All Admin Pages; each is built the first time it is shown
+        cards.register("Page9", this::createPage9);
+        cards.register("Page10", this::createPage10);
+        cards.register("Page11", this::createPage11);
+        cards.register("Page12", this::createPage12);
+        cards.register("Page13", this::createPage13);
+        cards.register("Page14", this::createPage14);
+        cards.register("Page15", this::createPage15);
+        cards.register("Page16", this::createPage16);
+
+        add(cards.getPanel());
+        cards.show("Page9");
+
+        dataManager.getEvents().subscribe(dataListener);
+        dashboard.addListener(this::showDashboard);
+        dashboard.start();
+    }
 
-        // Initialize All Admin Pages
-        mainPanel.add(createPage9(), "Page9");
-        mainPanel.add(createPage10(), "Page10");
-        mainPanel.add(createPage11(), "Page11");
-        mainPanel.add(createPage12(), "Page12");
-        mainPanel.add(createPage13(), "Page13");
-        mainPanel.add(createPage14(), "Page14");
-        mainPanel.add(createPage15(), "Page15");
-        mainPanel.add(createPage16(), "Page16");
+    @Override
+    public void dispose() {
+        dashboard.stop();
+        dataManager.getEvents().unsubscribe(dataListener);
+        super.dispose();
+    }
 
-        applyGlobalButtonSizing(mainPanel);
+    // Applies changes published by the data manager (from any window) to what this one shows
+    private void onDataEvents(List<DataEvent> events) {
+        for (DataEvent event : events) {
+            if (event instanceof DataEvent.VehicleParked) {
+                UIDataManager.ParkedVehicleData vehicle = ((DataEvent.VehicleParked) event).getVehicle();
+                if (parkingTableModel != null && isOnSelectedParkingFloor(vehicle.parkingSpot)) {
+                    parkingTableModel.upsert(vehicle, 0.0);
+                    // A returning vehicle may still owe fines from an earlier visit
+                    async.load("manualFine:" + vehicle.plate, () -> dataManager.getUnpaidFine(vehicle.plate),
+                        fine -> parkingTableModel.setManualFine(vehicle.plate, fine));
+                }
+                if (calculatorVehicleCombo != null && calculatorVehicles.put(vehicle.plate, vehicle) == null) {
+                    calculatorVehicleCombo.addItem(vehicle.plate);
+                }
+            } else if (event instanceof DataEvent.VehicleExited) {
+                DataEvent.VehicleExited exited = (DataEvent.VehicleExited) event;
+                if (parkingTableModel != null) {
+                    parkingTableModel.removeVehicle(exited.getPlate(), exited.getParkingSpot());
+                }
+                if (calculatorVehicleCombo != null && calculatorVehicles.remove(exited.getPlate()) != null) {
+                    calculatorVehicleCombo.removeItem(exited.getPlate());
+                }
+            } else if (event instanceof DataEvent.FineIssued) {
+                DataEvent.FineIssued fine = (DataEvent.FineIssued) event;
+                if (parkingTableModel != null) {
+                    parkingTableModel.addManualFine(fine.getPlate(), fine.getAmount());
+                }
+            } else if (event instanceof DataEvent.SchemeChanged) {
+                if (page14FineSchemeLabel != null) {
+                    page14FineSchemeLabel.setText("Current Fine Scheme: " + ((DataEvent.SchemeChanged) event).getScheme());
+                }
+            } else if (event instanceof DataEvent.VipChanged) {
+                if (((DataEvent.VipChanged) event).isOku()) {
+                    if (okuArea != null) updateOKUDisplay(okuArea);
+                } else {
+                    if (vipArea != null) updateVIPDisplay(vipArea);
+                }
+            }
+        }
+    }
 
-        add(mainPanel);
-        cardLayout.show(mainPanel, "Page9");
+    private boolean isOnSelectedParkingFloor(String spotId) {
+        String selectedFloor = parkingFloorCombo == null ? null : (String) parkingFloorCombo.getSelectedItem();
+        if (spotId == null || spotId.isEmpty()) {
+            return false;
+        }
+        return selectedFloor == null || selectedFloor.equals("All Floors")
+            || selectedFloor.equals("Floor " + dataManager.getFloorFromSpot(spotId));
     }
 
     private void showCard(String cardName) {
+        // Results still in flight for the page being left would only be stale
+        async.cancelAll();
+        cards.ensureBuilt(cardName);
+
+        if ((cardName.equals("Page10") || cardName.equals("Page16")) && dashboard.isSeeded()) {
+            // A page built after the last tick would otherwise show placeholders until the next one
+            showDashboard(dashboard);
+        }
+
         if (cardName.equals("Page14")) {
             if (page14FineSchemeLabel != null) {
                 page14FineSchemeLabel.setText("Current Fine Scheme: " + dataManager.getCurrentFineScheme());
             }
         }
         
-        if (cardName.equals("Page10")) {
-            refreshDashboard();
+        if (cardName.equals("Page11")) {
+            refreshParkingManagementTable();
         }
-        
+
         if (cardName.equals("Page12")) {
             refreshUserTable();
         }
 
-        cardLayout.show(mainPanel, cardName);
+        if (cardName.equals("Page15")) {
+            refreshFineCalculatorVehicles();
+        }
+
+        cards.show(cardName);
     }
 
     private void applyGlobalButtonSizing(Container root) {
@@ -104,14 +193,18 @@ public class AdminUI extends JFrame {
             String username = userField.getText().trim();
             String password = new String(passField.getPassword()).trim();
             
-            if (dataManager.authenticateUser(username, password)) {
-                showCard("Page10");
-            } else {
-                JOptionPane.showMessageDialog(this, 
-                    "Invalid username or password!",
-                    "Login Failed", 
-                    JOptionPane.ERROR_MESSAGE);
-            }
+            btnLogin.setEnabled(false);
+            async.submit("logging in", () -> dataManager.authenticateUser(username, password), authenticated -> {
+                btnLogin.setEnabled(true);
+                if (authenticated) {
+                    showCard("Page10");
+                } else {
+                    JOptionPane.showMessageDialog(this, 
+                        "Invalid username or password!",
+                        "Login Failed", 
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            }, error -> btnLogin.setEnabled(true));
         });
 
         JButton btnBack = new JButton("Back");
@@ -141,29 +234,15 @@ public class AdminUI extends JFrame {
         JPanel content = new JPanel(new GridLayout(2, 2, 20, 20));
         content.setBorder(new EmptyBorder(20, 20, 20, 20));
 
-        // Calculate occupancy dynamically
-        int totalSpots = dataManager.getTotalSpotCount();
-        int occupiedSpots = dataManager.getParkedVehicles().size();
-        double occupancyRate = occupiedSpots > 0 ? (occupiedSpots / (double) totalSpots) * 100 : 0;
-        
-        dashboardOccupancyLabel = new JLabel("<html><center>" + String.format("Occupancy Rate: %.1f%% (%d/%d)", occupancyRate, occupiedSpots, totalSpots) + "</center></html>", SwingConstants.CENTER);
-        dashboardOccupancyLabel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-        dashboardOccupancyLabel.setOpaque(true);
-        dashboardOccupancyLabel.setBackground(Color.LIGHT_GRAY);
-        content.add(dashboardOccupancyLabel);
-        
-        double totalRevenue = dataManager.getTotalRevenue();
-        dashboardRevenueLabel = new JLabel("<html><center>Total Revenue: RM " + String.format("%.2f", totalRevenue) + "</center></html>", SwingConstants.CENTER);
-        dashboardRevenueLabel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-        dashboardRevenueLabel.setOpaque(true);
-        dashboardRevenueLabel.setBackground(Color.LIGHT_GRAY);
-        content.add(dashboardRevenueLabel);
-        
-        dashboardOutstandingFinesLabel = new JLabel("<html><center>Outstanding Fines: RM " + String.format("%.2f", dataManager.getTotalUnpaidFines()) + "</center></html>", SwingConstants.CENTER);
-        dashboardOutstandingFinesLabel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-        dashboardOutstandingFinesLabel.setOpaque(true);
-        dashboardOutstandingFinesLabel.setBackground(Color.LIGHT_GRAY);
-        content.add(dashboardOutstandingFinesLabel);
+        // Filled in by the dashboard service on every tick, each with a sparkline of recent values
+        dashboardOccupancyLabel = new JLabel("<html><center>Occupancy Rate: -</center></html>", SwingConstants.CENTER);
+        content.add(createDashboardTile(dashboardOccupancyLabel, new Sparkline(dashboard.getOccupancyHistory(), Color.BLUE)));
+
+        dashboardRevenueLabel = new JLabel("<html><center>Total Revenue: RM -</center></html>", SwingConstants.CENTER);
+        content.add(createDashboardTile(dashboardRevenueLabel, new Sparkline(dashboard.getRevenueHistory(), new Color(0, 128, 0))));
+
+        dashboardOutstandingFinesLabel = new JLabel("<html><center>Outstanding Fines: RM -</center></html>", SwingConstants.CENTER);
+        content.add(createDashboardTile(dashboardOutstandingFinesLabel, new Sparkline(dashboard.getFinesHistory(), Color.RED)));
         
         JButton btnReport = new JButton("Download Report");
         btnReport.addActionListener(e -> showCard("Page16"));
@@ -173,6 +252,30 @@ public class AdminUI extends JFrame {
         return panel;
     }
 
+    private JPanel createDashboardTile(JLabel label, Sparkline sparkline) {
+        JPanel tile = new JPanel(new BorderLayout());
+        tile.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+        tile.setBackground(Color.LIGHT_GRAY);
+        sparkline.setBorder(new EmptyBorder(0, 10, 10, 10));
+        tile.add(label, BorderLayout.CENTER);
+        tile.add(sparkline, BorderLayout.SOUTH);
+        return tile;
+    }
+
+    // Called by the dashboard service once per tick; only formats labels and repaints sparklines
+    private void showDashboard(DashboardService live) {
+        if (reportFinesLabel != null) {
+            reportFinesLabel.setText("Current Unpaid Fines: RM " + String.format("%.2f", live.getTotalUnpaidFines()));
+        }
+        if (dashboardOccupancyLabel == null) {
+            return;
+        }
+        dashboardOccupancyLabel.setText("<html><center>" + String.format("Occupancy Rate: %.1f%% (%d/%d)", live.getOccupancyRate(), live.getOccupiedSpots(), live.getTotalSpots()) + "</center></html>");
+        dashboardRevenueLabel.setText("<html><center>Total Revenue: RM " + String.format("%.2f", live.getTotalRevenue()) + "</center></html>");
+        dashboardOutstandingFinesLabel.setText("<html><center>Outstanding Fines: RM " + String.format("%.2f", live.getTotalUnpaidFines()) + "</center></html>");
+        cards.getPanel().repaint();
+    }
+
     // --- PAGE 11: Parking Management ---
     private JPanel createPage11() {
         JPanel panel = new JPanel(new BorderLayout());
@@ -194,16 +297,15 @@ public class AdminUI extends JFrame {
         top.add(floorCombo);
         content.add(top, BorderLayout.NORTH);
 
-        String[] cols = {"Spot ID", "Plate No", "Type", "Entry", "Duration", "Unpaid Fine"};
-        DefaultTableModel tableModel = new DefaultTableModel(cols, 0);
+        // Fines are worked out only for rows the table actually paints
+        ParkingTableModel tableModel = new ParkingTableModel(
+            (hoursParked, entryMillis) -> dataManager.calculateFineForParkingAtEntryTime(hoursParked, entryMillis, null));
         JTable table = new JTable(tableModel);
         
         // Store references for dynamic updates
         this.parkingTableModel = tableModel;
         this.parkingFloorCombo = floorCombo;
         
-        updateParkingManagementTable(tableModel, "All Floors");
-        
         floorCombo.addActionListener(e -> {
             String selectedFloor = (String) floorCombo.getSelectedItem();
             updateParkingManagementTable(tableModel, selectedFloor);
@@ -235,6 +337,7 @@ public class AdminUI extends JFrame {
         JPanel vipPanel = new JPanel(new BorderLayout());
         vipPanel.setBorder(BorderFactory.createTitledBorder("VIP/Reserved Registered Plates"));
         JTextArea vipArea = new JTextArea();
+        this.vipArea = vipArea;
         vipArea.setEditable(false);
         vipArea.setFont(new Font("Monospaced", Font.PLAIN, 11));
         vipArea.setLineWrap(true);
@@ -254,6 +357,7 @@ public class AdminUI extends JFrame {
         JPanel okuPanel = new JPanel(new BorderLayout());
         okuPanel.setBorder(BorderFactory.createTitledBorder("OKU Card Holder Plates"));
         JTextArea okuArea = new JTextArea();
+        this.okuArea = okuArea;
         okuArea.setEditable(false);
         okuArea.setFont(new Font("Monospaced", Font.PLAIN, 11));
         okuArea.setLineWrap(true);
@@ -314,25 +418,24 @@ public class AdminUI extends JFrame {
             String offenseType = "Reserved Spot Without Reservation";
 
             String normPlate = normalizePlate(plateNo);
-            dataManager.issueFine(normPlate, fineAmount);
-
-            JOptionPane.showMessageDialog(
-                this,
-                "Fine Issued Successfully!\n\n" +
-                "Plate: " + plateNo + "\n" +
-                "Offense: " + offenseType + "\n" +
-                "Fine Amount: RM " + String.format("%.2f", fineAmount) + "\n" +
-                "Total Unpaid Fines: RM " + String.format("%.2f", dataManager.getUnpaidFine(normPlate)) + "\n\n" +
-                "This fine will be charged at vehicle exit.",
-                "Fine Confirmation",
-                JOptionPane.INFORMATION_MESSAGE
-            );
-            
-            // Refresh the parking management table to show updated fines
-            refreshParkingManagementTable();
-            
-            // Refresh dashboard outstanding fines
-            refreshDashboardFines();
+            async.submit("issuing fine to " + normPlate, () -> {
+                dataManager.issueFine(normPlate, fineAmount);
+                return dataManager.getUnpaidFine(normPlate);
+            }, totalUnpaid -> {
+                JOptionPane.showMessageDialog(
+                    this,
+                    "Fine Issued Successfully!\n\n" +
+                    "Plate: " + plateNo + "\n" +
+                    "Offense: " + offenseType + "\n" +
+                    "Fine Amount: RM " + String.format("%.2f", fineAmount) + "\n" +
+                    "Total Unpaid Fines: RM " + String.format("%.2f", totalUnpaid) + "\n\n" +
+                    "This fine will be charged at vehicle exit.",
+                    "Fine Confirmation",
+                    JOptionPane.INFORMATION_MESSAGE
+                );
+                // The table and dashboard pick the fine up from the published FineIssued event
+            }, error -> JOptionPane.showMessageDialog(this, "The fine could not be saved. Please try again.",
+                "Fine Not Issued", JOptionPane.ERROR_MESSAGE));
         }
     }
     
@@ -343,29 +446,6 @@ public class AdminUI extends JFrame {
         }
     }
     
-    private void refreshDashboardFines() {
-        if (dashboardOutstandingFinesLabel != null) {
-            dashboardOutstandingFinesLabel.setText("<html><center>Outstanding Fines: RM " + String.format("%.2f", dataManager.getTotalUnpaidFines()) + "</center></html>");
-        }
-    }
-    
-    private void refreshDashboard() {
-        // Refresh occupancy
-        if (dashboardOccupancyLabel != null) {
-            int totalSpots = dataManager.getTotalSpotCount();
-            int occupiedSpots = dataManager.getParkedVehicles().size();
-            double occupancyRate = occupiedSpots > 0 ? (occupiedSpots / (double) totalSpots) * 100 : 0;
-            dashboardOccupancyLabel.setText("<html><center>" + String.format("Occupancy Rate: %.1f%% (%d/%d)", occupancyRate, occupiedSpots, totalSpots) + "</center></html>");
-        }
-        // Refresh revenue
-        if (dashboardRevenueLabel != null) {
-            double totalRevenue = dataManager.getTotalRevenue();
-            dashboardRevenueLabel.setText("<html><center>Total Revenue: RM " + String.format("%.2f", totalRevenue) + "</center></html>");
-        }
-        // Refresh fines
-        refreshDashboardFines();
-    }
-    
     private void showAddVIPDialog(JTextArea vipArea) {
         String plateNo = JOptionPane.showInputDialog(
             this,
@@ -378,9 +458,10 @@ public class AdminUI extends JFrame {
             if (dataManager.isVIPPlate(plateNo)) {
                 JOptionPane.showMessageDialog(this, "This plate is already registered as VIP.");
             } else {
-                dataManager.addVIPPlate(plateNo);
-                updateVIPDisplay(vipArea);
-                JOptionPane.showMessageDialog(this, "VIP plate " + plateNo + " added successfully!");
+                String plate = plateNo;
+                async.run("adding VIP plate " + plate, () -> dataManager.addVIPPlate(plate), () -> {
+                    JOptionPane.showMessageDialog(this, "VIP plate " + plate + " added successfully!");
+                });
             }
         }
     }
@@ -404,9 +485,9 @@ public class AdminUI extends JFrame {
         );
         
         if (selectedPlate != null) {
-            dataManager.removeVIPPlate(selectedPlate);
-            updateVIPDisplay(vipArea);
-            JOptionPane.showMessageDialog(this, "VIP plate " + selectedPlate + " deleted successfully!");
+            async.run("removing VIP plate " + selectedPlate, () -> dataManager.removeVIPPlate(selectedPlate), () -> {
+                JOptionPane.showMessageDialog(this, "VIP plate " + selectedPlate + " deleted successfully!");
+            });
         }
     }
     
@@ -422,9 +503,10 @@ public class AdminUI extends JFrame {
             if (dataManager.isOKUCardHolder(plateNo)) {
                 JOptionPane.showMessageDialog(this, "This plate is already registered as OKU card holder.");
             } else {
-                dataManager.addOKUCardHolder(plateNo);
-                updateOKUDisplay(okuArea);
-                JOptionPane.showMessageDialog(this, "OKU card holder plate " + plateNo + " added successfully!");
+                String plate = plateNo;
+                async.run("adding OKU plate " + plate, () -> dataManager.addOKUCardHolder(plate), () -> {
+                    JOptionPane.showMessageDialog(this, "OKU card holder plate " + plate + " added successfully!");
+                });
             }
         }
     }
@@ -448,58 +530,35 @@ public class AdminUI extends JFrame {
         );
         
         if (selectedPlate != null) {
-            dataManager.removeOKUCardHolder(selectedPlate);
-            updateOKUDisplay(okuArea);
-            JOptionPane.showMessageDialog(this, "OKU card holder plate " + selectedPlate + " deleted successfully!");
+            async.run("removing OKU plate " + selectedPlate, () -> dataManager.removeOKUCardHolder(selectedPlate), () -> {
+                JOptionPane.showMessageDialog(this, "OKU card holder plate " + selectedPlate + " deleted successfully!");
+            });
         }
     }
     
-    private void updateParkingManagementTable(DefaultTableModel model, String selectedFloor) {
-        model.setRowCount(0);
+    // The snapshot is built in the background; the model applies only what changed since the last one
+    private void updateParkingManagementTable(ParkingTableModel model, String selectedFloor) {
+        async.load("parkingTable", () -> buildParkingSnapshot(selectedFloor), model::apply);
+    }
 
+    private ParkingTableModel.Snapshot buildParkingSnapshot(String selectedFloor) {
         // Get all parked vehicles from database
         Map<String, UIDataManager.ParkedVehicleData> parkedVehicles = dataManager.getParkedVehicles();
+        List<UIDataManager.ParkedVehicleData> shown = new ArrayList<>(parkedVehicles.size());
+        int floorFilter = selectedFloor.equals("All Floors") ? -1 : Integer.parseInt(selectedFloor.replace("Floor ", ""));
 
         for (UIDataManager.ParkedVehicleData vehicle : parkedVehicles.values()) {
             String spotId = vehicle.parkingSpot;
             if (spotId == null || spotId.isEmpty()) continue;
             
             // Extract floor from spot ID (e.g., "F1-Reserved-R1S01" -> "1")
-            int floor = dataManager.getFloorFromSpot(spotId);
-            String floorLabel = "Floor " + floor;
-
-            if (selectedFloor.equals("All Floors") || selectedFloor.contains(floorLabel)) {
-                String normPlate = normalizePlate(vehicle.plate);
-                
-                // Calculate duration
-                long now = System.currentTimeMillis();
-                long elapsedMillis = now - vehicle.entryMillis;
-                long hours = elapsedMillis / (1000 * 60 * 60);
-                long minutes = (elapsedMillis / (1000 * 60)) % 60;
-                String durationStr = String.format("%dh %02dm", hours, minutes);
-                
-                // Calculate fresh auto fine based on current duration and entry time scheme
-                long hoursRoundedUp = Math.max(1L, (elapsedMillis + 60L*60*1000 - 1) / (60L*60*1000));
-                double autoFine = dataManager.calculateFineForParkingAtEntryTime(hoursRoundedUp, vehicle.entryMillis, vehicle.plate);
-                // Get manual fines (e.g., reserved spot violations)
-                double manualFine = dataManager.getUnpaidFine(normPlate);
-                // Total unpaid fine (fresh calculation)
-                double unpaidFine = autoFine + manualFine;
-
-                // Format entry date and time from entryMillis
-                java.text.SimpleDateFormat dateTimeFormat = new java.text.SimpleDateFormat("dd-MMM HH:mm a");
-                String entryDateTimeStr = dateTimeFormat.format(new java.util.Date(vehicle.entryMillis));
-
-                Object[] rowData = new Object[6];
-                rowData[0] = spotId;
-                rowData[1] = vehicle.plate;
-                rowData[2] = vehicle.vehicleType;
-                rowData[3] = entryDateTimeStr;
-                rowData[4] = durationStr;
-                rowData[5] = unpaidFine > 0.0 ? "RM " + String.format("%.2f", unpaidFine) : "RM 0.00";
-                model.addRow(rowData);
+            if (floorFilter < 0 || dataManager.getFloorFromSpot(spotId) == floorFilter) {
+                shown.add(vehicle);
             }
         }
+
+        // Manual fines (e.g., reserved spot violations) for every plate in one read
+        return ParkingTableModel.Snapshot.of(shown, dataManager.getAllUnpaidFines());
     }
     
 
@@ -529,9 +588,10 @@ public class AdminUI extends JFrame {
                 String userId = (String) userTableModel.getValueAt(row, 1);
                 int confirm = JOptionPane.showConfirmDialog(this, "Do you want to delete staff " + userId + "?");
                 if(confirm == JOptionPane.YES_OPTION) {
-                    dataManager.deleteUser(userId);
-                    refreshUserTable();
-                    JOptionPane.showMessageDialog(this, "Staff deleted successfully!");
+                    async.run("deleting staff " + userId, () -> dataManager.deleteUser(userId), () -> {
+                        refreshUserTable();
+                        JOptionPane.showMessageDialog(this, "Staff deleted successfully!");
+                    });
                 }
             } else {
                 JOptionPane.showMessageDialog(this, "Please select a staff to delete.");
@@ -548,14 +608,15 @@ public class AdminUI extends JFrame {
     
     private void refreshUserTable() {
         if (userTableModel != null) {
-            userTableModel.setRowCount(0);
-            java.util.List<java.util.Map<String, String>> users = dataManager.getAllUsers();
-            for (java.util.Map<String, String> user : users) {
-                userTableModel.addRow(new Object[]{
-                    user.get("name"),
-                    user.get("user_id")
-                });
-            }
+            async.load("users", dataManager::getAllUsers, users -> {
+                userTableModel.setRowCount(0);
+                for (java.util.Map<String, String> user : users) {
+                    userTableModel.addRow(new Object[]{
+                        user.get("name"),
+                        user.get("user_id")
+                    });
+                }
+            });
         }
     }
 
@@ -583,18 +644,25 @@ public class AdminUI extends JFrame {
                 return;
             }
             
-            if (dataManager.isUserExists(staffId)) {
-                JOptionPane.showMessageDialog(this, "Staff ID already exists!");
-                return;
-            }
-            
-            // Use Staff ID as password for login
-            dataManager.addUser(staffId, name, staffId, "STAFF");
-            refreshUserTable();
-            JOptionPane.showMessageDialog(this, "Staff " + staffId + " added successfully!\nPassword is the Staff ID.");
-            nameF.setText("");
-            staffIdF.setText("");
-            showCard("Page12");
+            btnConfirm.setEnabled(false);
+            async.submit("adding staff " + staffId, () -> {
+                if (dataManager.isUserExists(staffId)) {
+                    return false;
+                }
+                // Use Staff ID as password for login
+                dataManager.addUser(staffId, name, staffId, "STAFF");
+                return true;
+            }, added -> {
+                btnConfirm.setEnabled(true);
+                if (!added) {
+                    JOptionPane.showMessageDialog(this, "Staff ID already exists!");
+                    return;
+                }
+                JOptionPane.showMessageDialog(this, "Staff " + staffId + " added successfully!\nPassword is the Staff ID.");
+                nameF.setText("");
+                staffIdF.setText("");
+                showCard("Page12");
+            }, error -> btnConfirm.setEnabled(true));
         });
         JButton btnBack = new JButton("Back");
         btnBack.addActionListener(e -> showCard("Page12"));
@@ -652,13 +720,13 @@ public class AdminUI extends JFrame {
         btnGen.setPreferredSize(new Dimension(150, 40));
         btnGen.addActionListener(e -> {
             String selectedScheme = (String) schemeCombo.getSelectedItem();
-            dataManager.setCurrentFineScheme(selectedScheme);
-            if (page14FineSchemeLabel != null) page14FineSchemeLabel.setText("Current Fine Scheme: " + selectedScheme);
-            JOptionPane.showMessageDialog(this, 
-                "Fine Scheme Updated!\n\n" +
-                "Current Scheme: " + selectedScheme + "\n\n" +
-                "This scheme will apply to future fines issued.",
-                "Success", JOptionPane.INFORMATION_MESSAGE);
+            async.run("saving fine scheme", () -> dataManager.setCurrentFineScheme(selectedScheme), () -> {
+                JOptionPane.showMessageDialog(this, 
+                    "Fine Scheme Updated!\n\n" +
+                    "Current Scheme: " + selectedScheme + "\n\n" +
+                    "This scheme will apply to future fines issued.",
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+            });
         });
         bottomPanel.add(btnGen);
 
@@ -698,7 +766,8 @@ public class AdminUI extends JFrame {
                        "- Customers can pay fines when exiting.\n- Unpaid fines carry over to next parking.\n" +
                        "- Fair and proportional to violation duration.";
             default:
-                return "Please select a valid fine scheme.";
+                String description = dataManager.getFineSchemeDescription(scheme);
+                return description != null ? description : "Please select a valid fine scheme.";
         }
     }
 
@@ -726,9 +795,9 @@ public class AdminUI extends JFrame {
         content.add(new JLabel("Select Parked Vehicle:"), gbc);
         
         gbc.gridx = 1;
-        Map<String, UIDataManager.ParkedVehicleData> parkedVehicles = dataManager.getParkedVehicles();
-        String[] vehiclePlates = parkedVehicles.keySet().toArray(new String[0]);
-        JComboBox<String> vehicleCombo = new JComboBox<>(vehiclePlates);
+        // Filled by refreshFineCalculatorVehicles() whenever the page is shown
+        JComboBox<String> vehicleCombo = new JComboBox<>();
+        calculatorVehicleCombo = vehicleCombo;
         vehicleCombo.setPreferredSize(new Dimension(200, 25));
         content.add(vehicleCombo, gbc);
 
@@ -738,6 +807,7 @@ public class AdminUI extends JFrame {
         
         gbc.gridx = 1;
         JLabel entryTimeLabel = new JLabel("-");
+        calculatorEntryTimeLabel = entryTimeLabel;
         entryTimeLabel.setFont(new Font("Arial", Font.PLAIN, 12));
         content.add(entryTimeLabel, gbc);
 
@@ -800,14 +870,13 @@ public class AdminUI extends JFrame {
         JButton calculateBtn = new JButton("Calculate Fine");
         calculateBtn.setFont(new Font("Arial", Font.BOLD, 14));
         calculateBtn.addActionListener(e -> {
-            if (vehiclePlates.length == 0) {
+            String selectedPlate = (String) vehicleCombo.getSelectedItem();
+            UIDataManager.ParkedVehicleData vehicleData = selectedPlate == null ? null : calculatorVehicles.get(selectedPlate);
+            if (vehicleData == null) {
                 resultArea.setText("No parked vehicles available.");
                 return;
             }
             
-            String selectedPlate = (String) vehicleCombo.getSelectedItem();
-            UIDataManager.ParkedVehicleData vehicleData = parkedVehicles.get(selectedPlate);
-            
             try {
                 // Parse manual exit time
                 int year = Integer.parseInt(yearField.getText());
@@ -866,7 +935,7 @@ public class AdminUI extends JFrame {
         vehicleCombo.addActionListener(e -> {
             String selectedPlate = (String) vehicleCombo.getSelectedItem();
             if (selectedPlate != null) {
-                UIDataManager.ParkedVehicleData vehicleData = parkedVehicles.get(selectedPlate);
+                UIDataManager.ParkedVehicleData vehicleData = calculatorVehicles.get(selectedPlate);
                 if (vehicleData != null) {
                     String entryTimeStr = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new java.util.Date(vehicleData.entryMillis));
                     entryTimeLabel.setText(entryTimeStr);
@@ -874,18 +943,26 @@ public class AdminUI extends JFrame {
             }
         });
         
-        // Initialize with first vehicle if available
-        if (vehiclePlates.length > 0) {
-            vehicleCombo.setSelectedIndex(0);
-            UIDataManager.ParkedVehicleData firstVehicle = parkedVehicles.get(vehiclePlates[0]);
-            String entryTimeStr = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new java.util.Date(firstVehicle.entryMillis));
-            entryTimeLabel.setText(entryTimeStr);
-        }
-
         panel.add(content, BorderLayout.CENTER);
         return panel;
     }
 
+    private void refreshFineCalculatorVehicles() {
+        if (calculatorVehicleCombo == null) {
+            return;
+        }
+        async.load("calculatorVehicles", dataManager::getParkedVehicles, vehicles -> {
+            calculatorVehicles.clear();
+            calculatorVehicles.putAll(vehicles);
+            calculatorEntryTimeLabel.setText("-");
+            // Adding the first item selects it, which fills in its entry time
+            calculatorVehicleCombo.removeAllItems();
+            for (String plate : vehicles.keySet()) {
+                calculatorVehicleCombo.addItem(plate);
+            }
+        });
+    }
+
     // --- PAGE 16: Download Report ---
     private JPanel createPage16() {
         JPanel panel = new JPanel(new BorderLayout());
@@ -915,8 +992,22 @@ public class AdminUI extends JFrame {
                 int userSelection = fileChooser.showSaveDialog(this);
                 if (userSelection == JFileChooser.APPROVE_OPTION) {
                     java.io.File fileToSave = fileChooser.getSelectedFile();
-                    generateCSVReport(fileToSave, c1.isSelected(), c2.isSelected(), c3.isSelected());
-                    JOptionPane.showMessageDialog(this, "Report saved successfully to:\n" + fileToSave.getAbsolutePath());
+                    boolean revenue = c1.isSelected(), occupancy = c2.isSelected(), fines = c3.isSelected();
+                    btnProc.setEnabled(false);
+                    async.submit("generating report", () -> {
+                        try {
+                            generateCSVReport(fileToSave, revenue, occupancy, fines);
+                            return fileToSave;
+                        } catch (java.io.IOException ex) {
+                            throw new java.io.UncheckedIOException(ex);
+                        }
+                    }, saved -> {
+                        btnProc.setEnabled(true);
+                        JOptionPane.showMessageDialog(this, "Report saved successfully to:\n" + saved.getAbsolutePath());
+                    }, error -> {
+                        btnProc.setEnabled(true);
+                        JOptionPane.showMessageDialog(this, "Error generating report: " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    });
                 }
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "Error generating report: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -930,9 +1021,9 @@ public class AdminUI extends JFrame {
         gbc.gridy = 4; content.add(btnProc, gbc);
         
         gbc.gridy = 5; 
-        JLabel finesInfoLabel = new JLabel("Current Unpaid Fines: RM " + String.format("%.2f", dataManager.getTotalUnpaidFines()));
-        finesInfoLabel.setFont(new Font("Arial", Font.BOLD, 12));
-        content.add(finesInfoLabel, gbc);
+        reportFinesLabel = new JLabel("Current Unpaid Fines: RM -");
+        reportFinesLabel.setFont(new Font("Arial", Font.BOLD, 12));
+        content.add(reportFinesLabel, gbc);
 
         panel.add(content, BorderLayout.CENTER);
         return panel;
@@ -953,6 +1044,7 @@ public class AdminUI extends JFrame {
             btn.addActionListener(e -> {
                 if (page.equals("Page9")) {
                     // Logout - return to MainPage
+                    async.cancelAll();
                     this.setVisible(false);
                     this.dispose();
                     if (mainPage != null) {
@@ -987,18 +1079,18 @@ public class AdminUI extends JFrame {
         
         if (revenue) {
             writer.println("REVENUE REPORT");
-            double totalRevenue = dataManager.getTotalRevenue();
-            writer.println("Total Revenue,RM " + String.format("%.2f", totalRevenue));
-            writer.println("Payment Method,Amount");
-            writer.println("Cash,RM 800.00");
-            writer.println("Debit/Credit,RM 500.00");
-            writer.println("QR,RM 200.00");
+            RevenueRollup rollup = dataManager.getRevenueRollup();
+            writer.println("Total Revenue,RM " + String.format("%.2f", rollup.getTotalRevenue()));
+            writer.println("Payments," + rollup.getPaymentCount());
             writer.println("");
+            writeRevenueBreakdown(writer, "Payment Method", rollup.getRevenueByMethod());
+            writeRevenueBreakdown(writer, "Spot Type", rollup.getRevenueBySpotType());
+            writeRevenueBreakdown(writer, "Date", rollup.getRevenueByDay());
         }
         
         if (occupancy) {
             int totalSpots = dataManager.getTotalSpotCount();
-            int occupiedSpots = dataManager.getParkedVehicles().size();
+            int occupiedSpots = dataManager.getParkedVehicleCount();
             writer.println("OCCUPANCY REPORT");
             writer.println("Total Spots," + totalSpots);
             writer.println("Occupied Spots," + occupiedSpots);
@@ -1015,7 +1107,7 @@ public class AdminUI extends JFrame {
             writer.println("License Plate,Unpaid Fine Amount");
             
             // Get all unpaid fines from database (including vehicles not currently parked)
-            java.util.Map<String, Double> allUnpaidFines = getAllUnpaidFinesFromDatabase();
+            java.util.Map<String, Double> allUnpaidFines = dataManager.getAllUnpaidFines();
             for (java.util.Map.Entry<String, Double> entry : allUnpaidFines.entrySet()) {
                 writer.println(entry.getKey() + ",RM " + String.format("%.2f", entry.getValue()));
             }
@@ -1024,31 +1116,17 @@ public class AdminUI extends JFrame {
         writer.close();
     }
 
+    private void writeRevenueBreakdown(java.io.PrintWriter writer, String heading, Map<String, Double> amounts) {
+        writer.println(heading + ",Amount");
+        for (Map.Entry<String, Double> entry : amounts.entrySet()) {
+            String label = entry.getKey().isEmpty() ? "(none)" : entry.getKey();
+            writer.println(label + ",RM " + String.format("%.2f", entry.getValue()));
+        }
+        writer.println("");
+    }
+
     private String normalizePlate(String plate) {
         if (plate == null) return "";
         return plate.replaceAll("\\s+", "").toUpperCase();
     }
-
-    private java.util.Map<String, Double> getAllUnpaidFinesFromDatabase() {
-        java.util.Map<String, Double> unpaidFines = new java.util.TreeMap<>();
-        try (java.sql.Connection conn = Database.getConnection()) {
-            if (conn != null) {
-                java.sql.Statement stmt = conn.createStatement();
-                java.sql.ResultSet rs = stmt.executeQuery("SELECT license_plate, amount FROM unpaid_fines ORDER BY license_plate");
-                
-                while (rs.next()) {
-                    String plate = rs.getString("license_plate");
-                    double amount = rs.getDouble("amount");
-                    unpaidFines.put(plate, amount);
-                }
-                
-                rs.close();
-                stmt.close();
-            }
-        } catch (Exception e) {
-            System.err.println("Error retrieving unpaid fines from database: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return unpaidFines;
-    }
 }
@@ -0,0 +1,120 @@
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs UIDataManager calls off the Swing event dispatch thread. Every call
+ * returns a CompletableFuture that runs on a shared background executor
+ * (virtual threads when the JVM has them) and hands its result to a
+ * callback on the EDT via SwingUtilities.invokeLater.
+ * Reads go through load(), keyed by what they refresh: a newer load with the
+ * same key, or cancelAll() when the user navigates away, drops the older
+ * result so a stale response never overwrites the screen. Writes go through
+ * submit()/run() and always report back.
+ * One instance per window; only call its methods on the EDT.
+ */
+public class AsyncDataAccess {
+    private static final int POOL_SIZE = Integer.getInteger("parking.ui.dataThreads", 4);
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    // Latest load per key; touched on the EDT only
+    private final Map<String, CompletableFuture<?>> loads = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the query in the background and passes its result to onResult on
+     * the EDT, unless a newer load for the key or a cancel came first.
+     */
+    public <T> CompletableFuture<T> load(String key, Supplier<T> query, Consumer<? super T> onResult) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(query, EXECUTOR);
+        CompletableFuture<?> previous = loads.put(key, future);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            // Superseded or cancelled: the screen has moved on
+            if (!loads.remove(key, future)) {
+                return;
+            }
+            if (error != null) {
+                report("loading " + key, error);
+                return;
+            }
+            onResult.accept(result);
+        }));
+        return future;
+    }
+
+    /**
+     * Runs a write in the background. Its result always reaches onResult on
+     * the EDT, even after navigation; onFailure (may be null) gets the cause instead if it throws.
+     */
+    public <T> CompletableFuture<T> submit(String name, Supplier<T> task, Consumer<? super T> onResult,
+                                           Consumer<Throwable> onFailure) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(task, EXECUTOR);
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                Throwable cause = report(name, error);
+                if (onFailure != null) {
+                    onFailure.accept(cause);
+                }
+                return;
+            }
+            onResult.accept(result);
+        }));
+        return future;
+    }
+
+    public <T> CompletableFuture<T> submit(String name, Supplier<T> task, Consumer<? super T> onResult) {
+        return submit(name, task, onResult, null);
+    }
+
+    public CompletableFuture<Void> run(String name, Runnable task, Runnable onDone) {
+        return submit(name, () -> {
+            task.run();
+            return null;
+        }, ignored -> onDone.run(), null);
+    }
+
+    public void cancel(String key) {
+        CompletableFuture<?> future = loads.remove(key);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    // Drops every pending load, e.g. when switching pages
+    public void cancelAll() {
+        for (String key : loads.keySet()) {
+            cancel(key);
+        }
+    }
+
+    private static Throwable report(String what, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        System.err.println("Error " + what + ": " + cause);
+        return cause;
+    }
+
+    // Virtual threads on Java 21+, otherwise a small pool of daemon threads
+    private static ExecutorService createExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(POOL_SIZE, r -> {
+                Thread t = new Thread(r, "ui-data-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
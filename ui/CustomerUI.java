@@ -1,6 +1,9 @@
+import Database.ParkedVehicleRecord;
+import Management.CheckoutSession;
+import ParkingLot.AllocationPolicy;
 import java.awt.*;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -9,20 +12,24 @@ import javax.swing.table.DefaultTableModel;
 
 public class CustomerUI extends JFrame {
 
-    private JPanel mainPanel;
-    private CardLayout cardLayout;
+    // Decoded in the background and cached; Main starts both before any window opens
+    public static final String PARKING_MAP_IMAGE = "ui/parkingmap.jpeg";
+    public static final String QR_PAYMENT_IMAGE = "ui/Qrpayment.jpeg";
+
+    // Pages are built on first visit rather than when the window opens
+    private final LazyCards cards = new LazyCards(this::applyGlobalButtonSizing);
 
     private static final Dimension DEFAULT_BUTTON_SIZE = new Dimension(140, 34);
 
     // Data
     private String[] vehicleTypes = {"Motorcycle", "Car", "SUV/Truck", "Handicapped Vehicle"};
     private String[] parkingTypes = {"Compact", "Regular", "Handicapped", "Reserved"};
-    private String[] floors = {"Floor 1", "Floor 2", "Floor 3", "Floor 4", "Floor 5"};
+    private String[] floors;
     private String[] paymentTypes = {"Cash", "Debit/Credit", "QR"};
 
-    // Runtime data storage (shared with AdminUI via shared manager)
-    private Map<String, UIDataManager.ParkedVehicleData> parkedVehicles;
     private UIDataManager dataManager;
+    // Every store call goes through here, so the EDT never waits on the database
+    private final AsyncDataAccess async = new AsyncDataAccess();
     private MainPage mainPage;
     private Set<String> finesSavedThisSession = new HashSet<>(); // Track which vehicles' fines have been saved
 
@@ -58,6 +65,14 @@ public class CustomerUI extends JFrame {
     
     // Page6 (Payment) button panel for dynamic button updating
     private JPanel page6ButtonPanel;
+
+    // Pricing for the exit in progress, opened on Page5 and reused by Page6
+    private CheckoutSession checkoutSession;
+
+    // Page3 spot table, kept current by published parks and exits
+    private DefaultTableModel spotTableModel;
+    private JComboBox<String> spotFloorCombo;
+    private final DataEventBus.Listener dataListener = this::onDataEvents;
     
     // Cache for receipt display - preserved after payment
     private UIDataManager.ParkedVehicleData lastReceiptData = null;
@@ -75,7 +90,7 @@ public class CustomerUI extends JFrame {
 
     public CustomerUI(UIDataManager dataManager, String plate, String vehicleType, boolean isExiting) {
         this.dataManager = dataManager;
-        this.parkedVehicles = dataManager.getParkedVehicles();
+        this.floors = dataManager.getFloorNames();
         this.selectedPlate = plate;
         this.selectedVehicleType = vehicleType;
         this.mainPage = null;
@@ -85,27 +100,23 @@ public class CustomerUI extends JFrame {
         setSize(1200, 700);
         setLocationRelativeTo(null);
 
-        cardLayout = new CardLayout();
-        mainPanel = new JPanel(cardLayout);
-
-        // Initialize All Customer Pages (no Page1, starts from Page2)
-        mainPanel.add(createPage2(), "Page2");
-        mainPanel.add(createPage3(), "Page3");
-        mainPanel.add(createPage4(), "Page4");
-        mainPanel.add(createPage5(), "Page5");
-        mainPanel.add(createPage6(), "Page6");
-        mainPanel.add(createPage7(), "Page7");
-        mainPanel.add(createPage8(), "Page8");
-
-        applyGlobalButtonSizing(mainPanel);
+        // Register All Customer Pages (no Page1, starts from Page2); each is built the first time it is shown
+        cards.register("Page2", this::createPage2);
+        cards.register("Page3", this::createPage3);
+        cards.register("Page4", this::createPage4);
+        cards.register("Page5", this::createPage5);
+        cards.register("Page6", this::createPage6);
+        cards.register("Page7", this::createPage7);
+        cards.register("Page8", this::createPage8);
 
-        add(mainPanel);
+        add(cards.getPanel());
+        dataManager.getEvents().subscribe(dataListener);
         
         // Start from appropriate page
         if (isExiting) {
             showCard("Page5");
         } else {
-            cardLayout.show(mainPanel, "Page2");
+            cards.show("Page2");
         }
     }
 
@@ -113,7 +124,40 @@ public class CustomerUI extends JFrame {
         this.mainPage = mainPage;
     }
 
+    @Override
+    public void dispose() {
+        dataManager.getEvents().unsubscribe(dataListener);
+        super.dispose();
+    }
+
+    // Parks and exits from any window change spot availability; one table refresh covers a whole batch
+    private void onDataEvents(List<DataEvent> events) {
+        int shownFloor = spotFloorCombo == null || spotFloorCombo.getSelectedIndex() <= 0
+            ? -1 : Integer.parseInt(((String) spotFloorCombo.getSelectedItem()).replace("Floor ", ""));
+        boolean spotsChanged = false;
+        for (DataEvent event : events) {
+            String spot = null;
+            if (event instanceof DataEvent.VehicleParked) {
+                spot = ((DataEvent.VehicleParked) event).getVehicle().parkingSpot;
+            } else if (event instanceof DataEvent.VehicleExited) {
+                spot = ((DataEvent.VehicleExited) event).getParkingSpot();
+            } else if (event instanceof DataEvent.SchemeChanged && page5FineSchemeLabel != null) {
+                page5FineSchemeLabel.setText("Current Fine Scheme: " + ((DataEvent.SchemeChanged) event).getScheme());
+            }
+            if (spot != null && shownFloor >= 0 && dataManager.getFloorFromSpot(spot) == shownFloor) {
+                spotsChanged = true;
+            }
+        }
+        if (spotsChanged) {
+            updateSpotTable(spotTableModel, (String) spotFloorCombo.getSelectedItem());
+        }
+    }
+
     private void showCard(String cardName) {
+        // Results still in flight for the page being left would only be stale
+        async.cancelAll();
+        cards.ensureBuilt(cardName);
+
         if (cardName.equals("Page2")) {
             updatePage2Content();
         }
@@ -126,56 +170,8 @@ public class CustomerUI extends JFrame {
         }
 
         if (cardName.equals("Page5")) {
-            // Refresh parked vehicles data from database to get latest info
-            parkedVehicles = dataManager.getParkedVehicles();
-            
-            String norm = normalizePlate(selectedPlate);
-            UIDataManager.ParkedVehicleData v = null;
-            if (selectedPlate != null && parkedVehicles.containsKey(norm)) {
-                v = parkedVehicles.get(norm);
-            } else if (selectedPlate != null && !selectedPlate.isEmpty()) {
-                // Try to find vehicle directly in database
-                v = dataManager.getParkedVehicleData(norm);
-            }
-            
-            if (v != null) {
-                page5PlateLabel.setText("Plate No: " + selectedPlate);
-                page5EntryTimeLabel.setText("Entry Time: " + v.entryTime);
-
-                // Calculate and display duration
-                long parkedMillis = System.currentTimeMillis() - v.entryMillis;
-                if (parkedMillis < 0) parkedMillis = 0;
-                long hoursRoundedUp = Math.max(1L, (parkedMillis + 60L*60*1000 - 1) / (60L*60*1000));
-                String durationText = formatDuration(hoursRoundedUp);
-                page5DurationLabel.setText("Duration: " + durationText);
-
-                String parkingType = dataManager.getSpotType(v.parkingSpot);
-                page5ParkingTypeLabel.setText("Parking Type: " + parkingType);
-                page5SpotLabel.setText("Parking Spot: " + v.parkingSpot);
-
-                double rate = dataManager.getHourlyRate(v.parkingSpot, v.vehicleType, norm);
-                page5ParkingRateLabel.setText(String.format("Parking Rate: RM %.2f/hour", rate));
-
-                double parkingFee = rate * hoursRoundedUp;
-                page5ParkingFeeLabel.setText(String.format("Parking Fee: RM %.2f", parkingFee));
-
-                // Calculate fine based on parking duration using the fine scheme that was active at entry time
-                double autoCalculatedFine = dataManager.calculateFineForParkingAtEntryTime(hoursRoundedUp, v.entryMillis, v.plate);
-                // Get manual fines from unpaid_fines (e.g., reserved spot violations)
-                double manualFine = dataManager.getUnpaidFine(norm);
-                // Display total fine (auto-calculated + manual fines)
-                double totalFine = autoCalculatedFine + manualFine;
-                page5FineLabel.setText("Fine (If Any): RM " + String.format("%.2f", totalFine));
-            } else {
-                page5PlateLabel.setText("Plate No: " + (selectedPlate == null ? "-" : selectedPlate));
-                page5EntryTimeLabel.setText("Entry Time: -");
-                page5DurationLabel.setText("Duration: -");
-                page5ParkingTypeLabel.setText("Parking Type: -");
-                page5SpotLabel.setText("Parking Spot: -");
-                page5ParkingRateLabel.setText("Parking Rate: RM 0.00/hour");
-                page5FineLabel.setText("Fine (If Any): RM 0.00");
-                page5ParkingFeeLabel.setText("Parking Fee: RM 0.00");
-            }
+            // One batched read for this plate; fees and fines are computed from the session
+            async.load("checkout", () -> dataManager.openCheckout(selectedPlate), this::showCheckoutDetails);
             page5FineSchemeLabel.setText("Current Fine Scheme: " + dataManager.getCurrentFineScheme());
         }
 
@@ -187,11 +183,44 @@ public class CustomerUI extends JFrame {
             updateReceiptPage();
         }
 
-        cardLayout.show(mainPanel, cardName);
+        cards.show(cardName);
     }
 
+    private void showCheckoutDetails(CheckoutSession session) {
+        checkoutSession = session;
+        if (session != null) {
+            ParkedVehicleRecord v = session.getVehicle();
+            page5PlateLabel.setText("Plate No: " + selectedPlate);
+            page5EntryTimeLabel.setText("Entry Time: " + v.getEntryTime());
+
+            // Calculate and display duration
+            long hoursRoundedUp = session.getHoursCharged();
+            String durationText = formatDuration(hoursRoundedUp);
+            page5DurationLabel.setText("Duration: " + durationText);
+
+            String parkingType = dataManager.getSpotType(v.getParkingSpot());
+            page5ParkingTypeLabel.setText("Parking Type: " + parkingType);
+            page5SpotLabel.setText("Parking Spot: " + v.getParkingSpot());
+
+            page5ParkingRateLabel.setText(String.format("Parking Rate: RM %.2f/hour", session.getHourlyRate()));
+            page5ParkingFeeLabel.setText(String.format("Parking Fee: RM %.2f", session.getParkingFee()));
+
+            // Fine from the scheme that was active at entry time plus manual fines (e.g., reserved spot violations)
+            page5FineLabel.setText("Fine (If Any): RM " + String.format("%.2f", session.getTotalFine()));
+        } else {
+            page5PlateLabel.setText("Plate No: " + (selectedPlate == null ? "-" : selectedPlate));
+            page5EntryTimeLabel.setText("Entry Time: -");
+            page5DurationLabel.setText("Duration: -");
+            page5ParkingTypeLabel.setText("Parking Type: -");
+            page5SpotLabel.setText("Parking Spot: -");
+            page5ParkingRateLabel.setText("Parking Rate: RM 0.00/hour");
+            page5FineLabel.setText("Fine (If Any): RM 0.00");
+            page5ParkingFeeLabel.setText("Parking Fee: RM 0.00");
+        }
+    }
+
+    // Page8 is reached only after a completed payment, which fills in the receipt fields
     private void updateReceiptPage() {
-        String norm = normalizePlate(selectedPlate);
         String plate = (selectedPlate == null || selectedPlate.isEmpty()) ? "-" : selectedPlate;
         String type = (selectedVehicleType == null || selectedVehicleType.isEmpty()) ? "-" : selectedVehicleType;
         String spot = "-";
@@ -203,7 +232,6 @@ public class CustomerUI extends JFrame {
         double fine = lastFine;
         double remaining = fine;
         
-        // Use cached receipt data if available
         if (lastReceiptData != null) {
             spot = lastReceiptData.parkingSpot != null ? lastReceiptData.parkingSpot : "-";
             entry = lastReceiptData.entryTime != null ? lastReceiptData.entryTime : "-";
@@ -217,27 +245,6 @@ public class CustomerUI extends JFrame {
             long hrs = parkedMillis / (1000*60*60);
             long mins = (parkedMillis / (1000*60)) % 60;
             duration = String.format("%dh %02dm", hrs, mins);
-        } else if (parkedVehicles.containsKey(norm)) {
-            UIDataManager.ParkedVehicleData dv = parkedVehicles.get(norm);
-            spot = dv.parkingSpot != null ? dv.parkingSpot : "-";
-            entry = dv.entryTime != null ? dv.entryTime : "-";
-
-            long usedExit = exitTimeMillis > 0 ? exitTimeMillis : System.currentTimeMillis();
-            long parkedMillis = usedExit - dv.entryMillis;
-            if (parkedMillis < 0) parkedMillis = 0;
-
-            exit = new java.text.SimpleDateFormat("hh:mm a").format(new java.util.Date(usedExit));
-
-            long hrs = parkedMillis / (1000*60*60);
-            long mins = (parkedMillis / (1000*60)) % 60;
-            duration = String.format("%dh %02dm", hrs, mins);
-
-            long hoursRoundedUp = Math.max(1L, (parkedMillis + 60L*60*1000 - 1) / (60L*60*1000));
-            double rate = dataManager.getHourlyRate(spot, dv.vehicleType, norm);
-            parkingFee = rate * hoursRoundedUp;
-
-            fine = dataManager.getUnpaidFine(norm);
-            remaining = fine;
         }
 
         String feeBreakdown = parkingFee > 0 ? String.format("Parking Fee: RM %.2f\n", parkingFee) : "Parking Fee: RM 0.00\n";
@@ -464,6 +471,8 @@ public class CustomerUI extends JFrame {
         String[] columns = {"Spot ID", "Status"};
         DefaultTableModel model = new DefaultTableModel(columns, 0);
         JTable table = new JTable(model);
+        spotTableModel = model;
+        spotFloorCombo = floorCombo;
         
         // Don't load spots until floor is selected
         floorCombo.addActionListener(e -> {
@@ -474,15 +483,8 @@ public class CustomerUI extends JFrame {
         });
         
         JLabel mapLabel = new JLabel();
-        try {
-            ImageIcon mapIcon = new ImageIcon("ui/parkingmap.jpeg");
-            Image scaledImage = mapIcon.getImage().getScaledInstance(650, 500, Image.SCALE_SMOOTH);
-            mapLabel.setIcon(new ImageIcon(scaledImage));
-            mapLabel.setHorizontalAlignment(JLabel.CENTER);
-        } catch (Exception ex) {
-            mapLabel.setText("[Parking Map]");
-            mapLabel.setHorizontalAlignment(JLabel.CENTER);
-        }
+        mapLabel.setHorizontalAlignment(JLabel.CENTER);
+        ImageCache.showOn(mapLabel, PARKING_MAP_IMAGE, 650, 500, "[Parking Map]");
         
         centerPanel.add(new JScrollPane(table));
         centerPanel.add(mapLabel);
@@ -514,24 +516,71 @@ public class CustomerUI extends JFrame {
 
                     java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("hh:mm a");
                     String entryTimeStr = sdf.format(new java.util.Date(entryTime));
-                    if (selectedPlate != null && !selectedPlate.isEmpty()) {
-                        String norm = normalizePlate(selectedPlate);
-                        dataManager.addParkedVehicle(norm, selectedVehicleType, entryTimeStr, selectedSpotId, entryTime);
-                        parkedVehicles.put(norm, new UIDataManager.ParkedVehicleData(norm, selectedVehicleType, entryTimeStr, selectedSpotId, entryTime));
+                    if (selectedPlate == null || selectedPlate.isEmpty()) {
+                        showCard("Page4");
+                        return;
                     }
-
-                    showCard("Page4");
+                    String norm = normalizePlate(selectedPlate);
+                    long parkedAt = entryTime;
+                    btnConfirm.setEnabled(false);
+                    async.submit("parking " + norm, () -> dataManager.addParkedVehicle(norm, selectedVehicleType, entryTimeStr, spotId, parkedAt), parked -> {
+                        btnConfirm.setEnabled(true);
+                        if (!parked) {
+                            JOptionPane.showMessageDialog(this, "Could not park in this spot; it may have just been taken. Please choose another spot.");
+                            updateSpotTable(model, (String) floorCombo.getSelectedItem());
+                            return;
+                        }
+                        showCard("Page4");
+                    }, error -> btnConfirm.setEnabled(true));
                 }
             } else {
                 JOptionPane.showMessageDialog(this, "Please select a spot from the table.");
             }
         });
 
+        // Let the allocator pick a spot instead of choosing from the table
+        JComboBox<String> policyCombo = new JComboBox<>();
+        for (AllocationPolicy policy : AllocationPolicy.values()) {
+            policyCombo.addItem(policy.displayName());
+        }
+        JButton btnAuto = new JButton("Auto Assign");
+        btnAuto.addActionListener(e -> {
+            if (selectedPlate == null || selectedPlate.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Please enter your plate number first.");
+                return;
+            }
+
+            String selectedFloor = (String) floorCombo.getSelectedItem();
+            int entryFloor = floorCombo.getSelectedIndex() > 0 ? Integer.parseInt(selectedFloor.replace("Floor ", "")) : 1;
+            AllocationPolicy policy = AllocationPolicy.fromDisplayName((String) policyCombo.getSelectedItem());
+            long now = System.currentTimeMillis();
+            String entryTimeStr = new java.text.SimpleDateFormat("hh:mm a").format(new java.util.Date(now));
+            String norm = normalizePlate(selectedPlate);
+
+            String parkingType = selectedParkingType;
+            btnAuto.setEnabled(false);
+            async.submit("assigning a spot to " + norm,
+                () -> dataManager.autoAssignSpot(norm, selectedVehicleType, parkingType, policy, entryFloor, entryTimeStr, now), spotId -> {
+                btnAuto.setEnabled(true);
+                if (spotId == null) {
+                    JOptionPane.showMessageDialog(this, "No suitable spot could be assigned right now.");
+                    return;
+                }
+
+                selectedSpotId = spotId;
+                entryTime = now;
+                showCard("Page4");
+            }, error -> btnAuto.setEnabled(true));
+        });
+
         JButton btnBack = new JButton("Back");
         btnBack.addActionListener(e -> showCard("Page2"));
 
         botPanel.add(btnBack);
         botPanel.add(btnConfirm);
+        botPanel.add(new JLabel("Policy: "));
+        botPanel.add(policyCombo);
+        botPanel.add(btnAuto);
 
         panel.add(topPanel, BorderLayout.NORTH);
         panel.add(centerPanel, BorderLayout.CENTER);
@@ -541,11 +590,26 @@ public class CustomerUI extends JFrame {
     }
 
     private void updateSpotTable(DefaultTableModel model, String floor) {
-        model.setRowCount(0);
-        
         int floorNum = Integer.parseInt(floor.replace("Floor ", ""));
         java.util.List<String[]> allSpots = dataManager.getSpotsForFloor(floorNum, selectedParkingType);
 
+        // Same spots as shown: patch the statuses in place so the customer's selection survives
+        if (model.getRowCount() == allSpots.size()) {
+            boolean sameSpots = true;
+            for (int i = 0; i < allSpots.size() && sameSpots; i++) {
+                sameSpots = allSpots.get(i)[0].equals(model.getValueAt(i, 0));
+            }
+            if (sameSpots) {
+                for (int i = 0; i < allSpots.size(); i++) {
+                    if (!allSpots.get(i)[2].equals(model.getValueAt(i, 1))) {
+                        model.setValueAt(allSpots.get(i)[2], i, 1);
+                    }
+                }
+                return;
+            }
+        }
+
+        model.setRowCount(0);
         for (String[] spot : allSpots) {
             model.addRow(new Object[]{spot[0], spot[2]});
         }
@@ -661,15 +725,8 @@ public class CustomerUI extends JFrame {
         qrLabel.setHorizontalAlignment(SwingConstants.CENTER);
         qrLabel.setVisible(false);
         
-        try {
-            ImageIcon qrIcon = new ImageIcon("ui/Qrpayment.jpeg");
-            Image img = qrIcon.getImage();
-            Image scaledImg = img.getScaledInstance(300, 350, Image.SCALE_SMOOTH);
-            qrLabel.setIcon(new ImageIcon(scaledImg));
-            qrLabel.setBorder(BorderFactory.createLineBorder(Color.PINK, 3));
-        } catch (Exception e) {
-            qrLabel.setText("[QR Code]");
-        }
+        qrLabel.setBorder(BorderFactory.createLineBorder(Color.PINK, 3));
+        ImageCache.showOn(qrLabel, QR_PAYMENT_IMAGE, 300, 350, "[QR Code]");
         
         page6PaymentCombo.addActionListener(evt -> {
             String selected = (String) page6PaymentCombo.getSelectedItem();
@@ -699,36 +756,40 @@ public class CustomerUI extends JFrame {
         if (page6ButtonPanel == null) return;
         
         page6ButtonPanel.removeAll();
+        page6ButtonPanel.revalidate();
+        page6ButtonPanel.repaint();
         
+        // Reuse the session opened on Page5, re-priced for now (no store read); open one if we got here directly
         String norm = normalizePlate(selectedPlate);
-        parkedVehicles = dataManager.getParkedVehicles();
-        
-        if (!parkedVehicles.containsKey(norm)) {
+        if (checkoutSession != null && checkoutSession.getPlate().equals(norm)) {
+            showPaymentOptions(checkoutSession.at(System.currentTimeMillis()));
+        } else {
+            async.load("checkout", () -> dataManager.openCheckout(norm), this::showPaymentOptions);
+        }
+    }
+
+    private void showPaymentOptions(CheckoutSession session) {
+        checkoutSession = session;
+        if (session == null) {
             return;
         }
         
-        UIDataManager.ParkedVehicleData dv = parkedVehicles.get(norm);
-        double unpaidFine = dataManager.getUnpaidFine(norm);
-        long now = System.currentTimeMillis();
-        long parkedMillis = now - dv.entryMillis;
-        long hoursRoundedUp = Math.max(1L, (parkedMillis + 60L*60*1000 - 1) / (60L*60*1000));
-        double rate = dataManager.getHourlyRate(dv.parkingSpot, dv.vehicleType, norm);
-        double parkingFee = rate * hoursRoundedUp;
+        double unpaidFine = session.getUnpaidFine();
         
         if (unpaidFine > 0) {
             // Vehicle has unpaid fine - show both options
             JButton btnParkingOnly = new JButton("Pay Parking Fee Only");
-            btnParkingOnly.addActionListener(e -> processPayment(dv, norm, parkingFee, 0.0));
+            btnParkingOnly.addActionListener(e -> processPayment(session, 0.0));
             
             JButton btnParkingAndFine = new JButton("Pay Parking Fee + Fine");
-            btnParkingAndFine.addActionListener(e -> processPayment(dv, norm, parkingFee, unpaidFine));
+            btnParkingAndFine.addActionListener(e -> processPayment(session, unpaidFine));
             
             page6ButtonPanel.add(btnParkingOnly);
             page6ButtonPanel.add(btnParkingAndFine);
         } else {
             // No unpaid fine - show only parking fee button
             JButton btnParkingFee = new JButton("Pay Parking Fee");
-            btnParkingFee.addActionListener(e -> processPayment(dv, norm, parkingFee, 0.0));
+            btnParkingFee.addActionListener(e -> processPayment(session, 0.0));
             
             page6ButtonPanel.add(btnParkingFee);
         }
@@ -738,23 +799,53 @@ public class CustomerUI extends JFrame {
     }
 
     // Process payment with selected amount (parking only or parking+fine)
-    private void processPayment(UIDataManager.ParkedVehicleData dv, String norm, double parkingFee, double fineToInclude) {
-        long now = System.currentTimeMillis();
+    private void processPayment(CheckoutSession session, double fineToInclude) {
+        String paymentMethod = (String) page6PaymentCombo.getSelectedItem();
+        // Disabled until the store answers, so a second click can't pay twice
+        setPaymentButtonsEnabled(false);
+        async.submit("checking out " + session.getPlate(), () -> dataManager.checkout(session, fineToInclude, paymentMethod),
+            completed -> finishPayment(session, fineToInclude, paymentMethod, completed),
+            error -> finishPayment(session, fineToInclude, paymentMethod, false));
+    }
+
+    private void setPaymentButtonsEnabled(boolean enabled) {
+        for (Component button : page6ButtonPanel.getComponents()) {
+            button.setEnabled(enabled);
+        }
+    }
+
+    private void finishPayment(CheckoutSession session, double fineToInclude, String paymentMethod, boolean completed) {
+        String norm = session.getPlate();
+        ParkedVehicleRecord v = session.getVehicle();
+        long now = session.getExitMillis();
+        double parkingFee = session.getParkingFee();
         double amountToPay = parkingFee + fineToInclude;
 
-        selectedPaymentMethod = (String) page6PaymentCombo.getSelectedItem();
+        setPaymentButtonsEnabled(true);
+        if (!completed) {
+            checkoutSession = null;
+            JOptionPane.showMessageDialog(this,
+                "This vehicle has already exited or the payment could not be saved.\nPlease try again.",
+                "Payment Not Completed", JOptionPane.WARNING_MESSAGE);
+            this.setVisible(false);
+            this.dispose();
+            if (mainPage != null) {
+                mainPage.setVisible(true);
+            }
+            return;
+        }
+        checkoutSession = null;
+
+        selectedPaymentMethod = paymentMethod;
         amountPaid = amountToPay;
         exitTimeMillis = now;
         
-        // Cache receipt data before removing vehicle
-        lastReceiptData = dv;
+        // Cache receipt data now that the vehicle is removed
+        lastReceiptData = new UIDataManager.ParkedVehicleData(v.getPlate(), v.getVehicleType(), v.getEntryTime(), v.getParkingSpot(), v.getEntryMillis());
         lastExitTimeMillis = now;
         lastParkingFee = parkingFee;
         lastFine = fineToInclude;
 
-        dataManager.recordPayment(norm, amountToPay, parkingFee, fineToInclude, selectedPaymentMethod);
-        dataManager.removeParkedVehicle(norm);
-        parkedVehicles.remove(norm);
         finesSavedThisSession.remove(norm);
 
         showCard("Page7");
@@ -0,0 +1,181 @@
+import Database.PaymentRecord;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.swing.Timer;
+
+/**
+ * Live figures for the admin dashboard. Seeded from the rollup totals, then
+ * kept current from published DataEvents (payments and fines) and the
+ * in-memory occupancy count, so a tick never touches the store: it samples
+ * a few counters into fixed-size ring buffers for the sparklines and pushes
+ * them to the listeners, O(1) however long the payment history is.
+ * Tick rate -Dparking.dashboard.hz (default 1), sparkline length
+ * -Dparking.dashboard.history samples (default 60). A background reseed
+ * every -Dparking.dashboard.resyncMs (default 300000, 0 = never) picks up
+ * changes made by other instances. Money events carry a sequence number,
+ * so a seed never double counts or drops a payment whose event lands
+ * around it. EDT only.
+ */
+public class DashboardService {
+    private static final double TICK_HZ = Double.parseDouble(System.getProperty("parking.dashboard.hz", "1"));
+    private static final int HISTORY = Integer.getInteger("parking.dashboard.history", 60);
+    private static final long RESYNC_MS = Long.getLong("parking.dashboard.resyncMs", 300000L);
+
+    /**
+     * Fixed-size ring buffer of the most recent samples.
+     */
+    public static final class Series {
+        private final double[] values;
+        private int next;
+        private int count;
+
+        public Series(int capacity) {
+            values = new double[capacity];
+        }
+
+        public void add(double value) {
+            values[next] = value;
+            next = (next + 1) % values.length;
+            if (count < values.length) {
+                count++;
+            }
+        }
+
+        public int size() {
+            return count;
+        }
+
+        // i = 0 is the oldest sample still kept
+        public double get(int i) {
+            return values[(next - count + i + values.length) % values.length];
+        }
+    }
+
+    public interface Listener {
+        void onTick(DashboardService dashboard);
+    }
+
+    private final UIDataManager dataManager;
+    private final AsyncDataAccess async = new AsyncDataAccess();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final DataEventBus.Listener eventListener = this::onDataEvents;
+    private final Timer timer;
+
+    private final Series occupancyHistory = new Series(HISTORY);
+    private final Series revenueHistory = new Series(HISTORY);
+    private final Series finesHistory = new Series(HISTORY);
+
+    private boolean seeded;
+    private long seededAtMillis;
+    private int totalSpots;
+    private int occupiedSpots;
+    private double totalRevenue;
+    private double totalUnpaidFines;
+    // Last money write included in the totals; events up to it are already counted
+    private long appliedSequence;
+    // Events applied while a seed was in flight, replayed on top of it if the seed missed them
+    private boolean seedPending;
+    private final List<DataEvent> appliedDuringSeed = new ArrayList<>();
+
+    public DashboardService(UIDataManager dataManager) {
+        this.dataManager = dataManager;
+        this.timer = new Timer((int) Math.max(1L, Math.round(1000.0 / TICK_HZ)), e -> tick());
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void start() {
+        dataManager.getEvents().subscribe(eventListener);
+        resync();
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+        dataManager.getEvents().unsubscribe(eventListener);
+        async.cancelAll();
+    }
+
+    public boolean isSeeded() { return seeded; }
+    public int getTotalSpots() { return totalSpots; }
+    public int getOccupiedSpots() { return occupiedSpots; }
+    public double getTotalRevenue() { return totalRevenue; }
+    public double getTotalUnpaidFines() { return totalUnpaidFines; }
+    public Series getOccupancyHistory() { return occupancyHistory; }
+    public Series getRevenueHistory() { return revenueHistory; }
+    public Series getFinesHistory() { return finesHistory; }
+
+    public double getOccupancyRate() {
+        return occupiedSpots > 0 ? (occupiedSpots / (double) totalSpots) * 100 : 0;
+    }
+
+    // Two single-cell rollup reads in the background; the timer keeps ticking meanwhile
+    private void resync() {
+        seededAtMillis = System.currentTimeMillis();
+        seedPending = true;
+        appliedDuringSeed.clear();
+        async.load("dashboardSeed", dataManager::loadMoneyTotals, totals -> {
+            totalSpots = dataManager.getTotalSpotCount();
+            totalRevenue = totals.totalRevenue;
+            totalUnpaidFines = totals.totalUnpaidFines;
+            appliedSequence = totals.sequence;
+            seedPending = false;
+            // Events that arrived first but were written after the seed's cut are added back on top
+            for (DataEvent event : appliedDuringSeed) {
+                apply(event);
+            }
+            appliedDuringSeed.clear();
+            seeded = true;
+            tick();
+        });
+    }
+
+    private void onDataEvents(List<DataEvent> events) {
+        for (DataEvent event : events) {
+            if (apply(event) && seedPending) {
+                appliedDuringSeed.add(event);
+            }
+        }
+    }
+
+    // Adds a payment or fine not yet counted; false for other events and ones the totals already include
+    private boolean apply(DataEvent event) {
+        if (event instanceof DataEvent.PaymentRecorded) {
+            DataEvent.PaymentRecorded recorded = (DataEvent.PaymentRecorded) event;
+            if (recorded.getSequence() <= appliedSequence) {
+                return false;
+            }
+            PaymentRecord payment = recorded.getPayment();
+            totalRevenue += payment.getAmount();
+            totalUnpaidFines -= payment.getFineAmount();
+        } else if (event instanceof DataEvent.FineIssued) {
+            DataEvent.FineIssued fine = (DataEvent.FineIssued) event;
+            if (fine.getSequence() <= appliedSequence) {
+                return false;
+            }
+            totalUnpaidFines += fine.getAmount();
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private void tick() {
+        if (RESYNC_MS > 0 && System.currentTimeMillis() - seededAtMillis > RESYNC_MS) {
+            resync();
+        }
+        if (!seeded) {
+            return;
+        }
+        occupiedSpots = dataManager.getParkedVehicleCount();
+        occupancyHistory.add(getOccupancyRate());
+        revenueHistory.add(totalRevenue);
+        finesHistory.add(totalUnpaidFines);
+        for (Listener listener : listeners) {
+            listener.onTick(this);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import Database.PaymentRecord;
+
+/**
+ * Domain change published by UIDataManager on its DataEventBus after the
+ * change is stored. Open screens apply these as deltas instead of reloading.
+ */
+public abstract class DataEvent {
+
+    public static final class VehicleParked extends DataEvent {
+        private final UIDataManager.ParkedVehicleData vehicle;
+
+        public VehicleParked(UIDataManager.ParkedVehicleData vehicle) {
+            this.vehicle = vehicle;
+        }
+
+        public UIDataManager.ParkedVehicleData getVehicle() { return vehicle; }
+    }
+
+    public static final class VehicleExited extends DataEvent {
+        private final String plate;
+        private final String parkingSpot;
+
+        public VehicleExited(String plate, String parkingSpot) {
+            this.plate = plate;
+            this.parkingSpot = parkingSpot;
+        }
+
+        public String getPlate() { return plate; }
+        // Null when the spot was not known
+        public String getParkingSpot() { return parkingSpot; }
+    }
+
+    // sequence orders money writes against UIDataManager.loadMoneyTotals()
+    public static final class PaymentRecorded extends DataEvent {
+        private final PaymentRecord payment;
+        private final long sequence;
+
+        public PaymentRecorded(PaymentRecord payment, long sequence) {
+            this.payment = payment;
+            this.sequence = sequence;
+        }
+
+        public PaymentRecord getPayment() { return payment; }
+        public long getSequence() { return sequence; }
+    }
+
+    public static final class FineIssued extends DataEvent {
+        private final String plate;
+        private final double amount;
+        private final long sequence;
+
+        public FineIssued(String plate, double amount, long sequence) {
+            this.plate = plate;
+            this.amount = amount;
+            this.sequence = sequence;
+        }
+
+        public String getPlate() { return plate; }
+        public double getAmount() { return amount; }
+        public long getSequence() { return sequence; }
+    }
+
+    public static final class SchemeChanged extends DataEvent {
+        private final String scheme;
+
+        public SchemeChanged(String scheme) {
+            this.scheme = scheme;
+        }
+
+        public String getScheme() { return scheme; }
+    }
+
+    // A VIP or OKU card holder plate was added or removed
+    public static final class VipChanged extends DataEvent {
+        private final String plate;
+        private final boolean oku;
+        private final boolean added;
+
+        public VipChanged(String plate, boolean oku, boolean added) {
+            this.plate = plate;
+            this.oku = oku;
+            this.added = added;
+        }
+
+        public String getPlate() { return plate; }
+        public boolean isOku() { return oku; }
+        public boolean isAdded() { return added; }
+    }
+}
@@ -0,0 +1,65 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * In-process bus from UIDataManager to the open screens. publish() may be
+ * called from any thread; events are queued and handed to every listener
+ * on the EDT in one batch per frame (-Dparking.ui.frameMs, default 16), so
+ * a burst of changes costs each screen a single update.
+ */
+public class DataEventBus {
+    private static final int FRAME_MS = Integer.getInteger("parking.ui.frameMs", 16);
+
+    public interface Listener {
+        // Events in publish order, on the EDT
+        void onEvents(List<DataEvent> events);
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<DataEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public void publish(DataEvent event) {
+        queue.add(event);
+        if (flushScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                Timer frame = new Timer(FRAME_MS, e -> flush());
+                frame.setRepeats(false);
+                frame.start();
+            });
+        }
+    }
+
+    private void flush() {
+        // Cleared before draining, so an event published meanwhile schedules the next frame
+        flushScheduled.set(false);
+        List<DataEvent> batch = new ArrayList<>();
+        DataEvent event;
+        while ((event = queue.poll()) != null) {
+            batch.add(event);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.onEvents(batch);
+            } catch (RuntimeException e) {
+                System.err.println("Error applying data events: " + e);
+            }
+        }
+    }
+}
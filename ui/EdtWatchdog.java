@@ -0,0 +1,88 @@
+import java.awt.Window;
+import javax.swing.SwingUtilities;
+
+/**
+ * Reports event dispatch thread stalls. A daemon thread keeps one heartbeat
+ * queued on the EDT; when a heartbeat waits longer than -Dparking.edt.stallMs
+ * (default 100, 0 = off) the EDT's current stack is printed once, and the
+ * total length of the stall is printed when it ends. Heartbeats pause while
+ * no window is open, so the watchdog never keeps AWT from shutting down.
+ */
+public final class EdtWatchdog {
+    private static final long STALL_MS = Long.getLong("parking.edt.stallMs", 100L);
+    private static final int STACK_DEPTH = 12;
+
+    private static boolean started;
+
+    private final long pollMillis = Math.max(5L, STALL_MS / 4);
+    private volatile Thread edt;
+    private volatile boolean pending;
+    private volatile long postedAtNanos;
+    private volatile boolean reported;
+
+    private EdtWatchdog() {
+    }
+
+    public static synchronized void start() {
+        if (started || STALL_MS <= 0) {
+            return;
+        }
+        started = true;
+        EdtWatchdog watchdog = new EdtWatchdog();
+        Thread t = new Thread(watchdog::watch, "edt-watchdog");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void watch() {
+        while (true) {
+            long now = System.nanoTime();
+            if (!pending) {
+                if (hasOpenWindow()) {
+                    postedAtNanos = now;
+                    pending = true;
+                    SwingUtilities.invokeLater(this::heartbeat);
+                }
+            } else if (!reported && now - postedAtNanos > STALL_MS * 1_000_000L) {
+                reported = true;
+                reportStall((now - postedAtNanos) / 1_000_000L);
+            }
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static boolean hasOpenWindow() {
+        for (Window window : Window.getWindows()) {
+            if (window.isDisplayable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Runs on the EDT
+    private void heartbeat() {
+        edt = Thread.currentThread();
+        if (reported) {
+            System.err.println("EDT stall ended after " + (System.nanoTime() - postedAtNanos) / 1_000_000L + " ms");
+            reported = false;
+        }
+        pending = false;
+    }
+
+    private void reportStall(long millis) {
+        StringBuilder message = new StringBuilder("EDT stalled for over " + millis + " ms");
+        Thread thread = edt;
+        if (thread != null) {
+            StackTraceElement[] stack = thread.getStackTrace();
+            for (int i = 0; i < stack.length && i < STACK_DEPTH; i++) {
+                message.append("\n\tat ").append(stack[i]);
+            }
+        }
+        System.err.println(message);
+    }
+}
@@ -0,0 +1,85 @@
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+/**
+ * Decodes and scales UI images in the background, once per file and size.
+ * The scaled pixels are kept for the life of the process, so reopening a
+ * page (or a second window) reuses them. prefetch() lets startup begin
+ * decoding before the page that shows the image exists.
+ */
+public final class ImageCache {
+    private static final AtomicInteger DECODER_COUNT = new AtomicInteger();
+    private static final ExecutorService DECODER = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "image-decoder-" + DECODER_COUNT.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Completes with null when the file is missing or unreadable
+    private static final Map<String, CompletableFuture<ImageIcon>> IMAGES = new ConcurrentHashMap<>();
+
+    private ImageCache() {
+    }
+
+    public static CompletableFuture<ImageIcon> get(String path, int width, int height) {
+        return IMAGES.computeIfAbsent(path + "@" + width + "x" + height,
+            key -> CompletableFuture.supplyAsync(() -> decode(path, width, height), DECODER));
+    }
+
+    public static void prefetch(String path, int width, int height) {
+        get(path, width, height);
+    }
+
+    /**
+     * Shows the image on the label once decoded, or fallbackText if it cannot be read.
+     */
+    public static void showOn(JLabel label, String path, int width, int height, String fallbackText) {
+        CompletableFuture<ImageIcon> image = get(path, width, height);
+        ImageIcon ready = image.getNow(null);
+        if (ready != null) {
+            label.setIcon(ready);
+            return;
+        }
+        image.thenAccept(icon -> SwingUtilities.invokeLater(() -> {
+            if (icon != null) {
+                label.setIcon(icon);
+                label.setText(null);
+            } else {
+                label.setText(fallbackText);
+            }
+        }));
+    }
+
+    private static ImageIcon decode(String path, int width, int height) {
+        try {
+            BufferedImage source = ImageIO.read(new File(path));
+            if (source == null) {
+                throw new IOException("unsupported image format");
+            }
+            // Scale eagerly here rather than with getScaledInstance(), which would defer the work to the first paint
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+            g.dispose();
+            return new ImageIcon(scaled);
+        } catch (IOException e) {
+            System.err.println("Error loading image " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
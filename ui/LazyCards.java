@@ -0,0 +1,54 @@
+import java.awt.CardLayout;
+import java.awt.Container;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+
+/**
+ * Card panel whose pages are built the first time they are shown rather than
+ * all at once when the window opens. Each page is registered with a factory;
+ * show() builds it once, runs the decorator over the new page (e.g. button
+ * sizing) and then flips to it. EDT only.
+ */
+public class LazyCards {
+    private final CardLayout layout = new CardLayout();
+    private final JPanel panel = new JPanel(layout);
+    private final Consumer<Container> decorator;
+    // Pages not built yet; removed once built
+    private final Map<String, Supplier<? extends JComponent>> factories = new HashMap<>();
+
+    public LazyCards(Consumer<Container> decorator) {
+        this.decorator = decorator;
+    }
+
+    public JPanel getPanel() {
+        return panel;
+    }
+
+    public void register(String name, Supplier<? extends JComponent> factory) {
+        factories.put(name, factory);
+    }
+
+    public boolean isBuilt(String name) {
+        return !factories.containsKey(name);
+    }
+
+    // Builds the page if this is its first use, so its fields can be filled in before it is shown
+    public void ensureBuilt(String name) {
+        Supplier<? extends JComponent> factory = factories.remove(name);
+        if (factory == null) {
+            return;
+        }
+        JComponent page = factory.get();
+        decorator.accept(page);
+        panel.add(page, name);
+    }
+
+    public void show(String name) {
+        ensureBuilt(name);
+        layout.show(panel, name);
+    }
+}
@@ -1,5 +1,4 @@
 import java.awt.*;
-import java.util.Map;
 import javax.swing.*;
 
 /**
@@ -10,12 +9,20 @@ import javax.swing.*;
 public class MainPage extends JFrame {
 
     private UIDataManager dataManager;
+    private final AsyncDataAccess async = new AsyncDataAccess();
+    // Disabled until startup hands over the data manager
+    private JButton btnEnter;
+    private JButton btnAdmin;
 
     private String[] vehicleTypes = {"-- Select Vehicle --", "Motorcycle", "Car", "SUV/Truck", "Handicapped Vehicle"};
 
     public MainPage(UIDataManager dataManager) {
-        this.dataManager = dataManager;
+        this();
+        setDataManager(dataManager);
+    }
 
+    // Shown while storage is still starting up; setDataManager() makes it usable
+    public MainPage() {
         setTitle("Poke University Parking Lot Management Office");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(600, 500);
@@ -25,6 +32,12 @@ public class MainPage extends JFrame {
         add(panel);
     }
 
+    public void setDataManager(UIDataManager dataManager) {
+        this.dataManager = dataManager;
+        btnEnter.setEnabled(true);
+        btnAdmin.setEnabled(true);
+    }
+
     private JPanel createMainPanel() {
         JPanel panel = new JPanel(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
@@ -40,8 +53,9 @@ public class MainPage extends JFrame {
         JLabel vehicleLabel = new JLabel("Vehicle Type");
         JComboBox<String> vehicleCombo = new JComboBox<>(vehicleTypes);
 
-        JButton btnEnter = new JButton("Enter");
+        btnEnter = new JButton("Enter");
         btnEnter.setPreferredSize(new Dimension(140, 34));
+        btnEnter.setEnabled(false);
         btnEnter.addActionListener(e -> {
             String plate = plateInput.getText().trim().toUpperCase();
             String vehicleType = (String) vehicleCombo.getSelectedItem();
@@ -57,35 +71,38 @@ public class MainPage extends JFrame {
                 }
                 String normalizedPlate = normalizePlate(plate);
                 
-                // Check if vehicle is already parked
-                Map<String, UIDataManager.ParkedVehicleData> parkedVehicles = dataManager.getParkedVehicles();
-                if (parkedVehicles.containsKey(normalizedPlate)) {
-                    UIDataManager.ParkedVehicleData vehicle = parkedVehicles.get(normalizedPlate);
-                    if (!vehicle.vehicleType.equals(vehicleType)) {
-                        JOptionPane.showMessageDialog(this, 
-                            "Vehicle type mismatch!\n" +
-                            "Plate " + plate + " is registered as: " + vehicle.vehicleType + "\n" +
-                            "You selected: " + vehicleType,
-                            "Validation Error", JOptionPane.ERROR_MESSAGE);
+                // Check if vehicle is already parked (may fall back to the store, so off the EDT)
+                btnEnter.setEnabled(false);
+                async.submit("looking up plate " + normalizedPlate, () -> dataManager.findParkedVehicle(normalizedPlate), vehicle -> {
+                    btnEnter.setEnabled(true);
+                    if (vehicle != null) {
+                        if (!vehicle.getVehicleType().equals(vehicleType)) {
+                            JOptionPane.showMessageDialog(this, 
+                                "Vehicle type mismatch!\n" +
+                                "Plate " + plate + " is registered as: " + vehicle.getVehicleType() + "\n" +
+                                "You selected: " + vehicleType,
+                                "Validation Error", JOptionPane.ERROR_MESSAGE);
+                        } else {
+                            // Vehicle already parked, go to exit page
+                            this.setVisible(false);
+                            CustomerUI customerUI = new CustomerUI(dataManager, normalizedPlate, vehicleType, true);
+                            customerUI.setMainPage(this);
+                            customerUI.setVisible(true);
+                        }
                     } else {
-                        // Vehicle already parked, go to exit page
+                        // New vehicle, go to parking page
                         this.setVisible(false);
-                        CustomerUI customerUI = new CustomerUI(dataManager, normalizedPlate, vehicleType, true);
+                        CustomerUI customerUI = new CustomerUI(dataManager, normalizedPlate, vehicleType, false);
                         customerUI.setMainPage(this);
                         customerUI.setVisible(true);
                     }
-                } else {
-                    // New vehicle, go to parking page
-                    this.setVisible(false);
-                    CustomerUI customerUI = new CustomerUI(dataManager, normalizedPlate, vehicleType, false);
-                    customerUI.setMainPage(this);
-                    customerUI.setVisible(true);
-                }
+                }, error -> btnEnter.setEnabled(true));
             }
         });
 
-        JButton btnAdmin = new JButton("Admin");
+        btnAdmin = new JButton("Admin");
         btnAdmin.setPreferredSize(new Dimension(140, 34));
+        btnAdmin.setEnabled(false);
         btnAdmin.addActionListener(e -> {
             this.setVisible(false);
             AdminUI adminUI = new AdminUI(dataManager, this);
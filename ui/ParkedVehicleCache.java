@@ -0,0 +1,181 @@
+import Database.ParkedVehicleRecord;
+import Database.ParkingStore;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent cache of the parked_vehicles table, keyed by normalized plate.
+ * This instance's own park/exit calls patch it directly; writes made by
+ * other instances are picked up by reloading once the snapshot is older
+ * than the staleness bound (-Dparking.cache.maxStalenessMs, 0 = never).
+ * Rows a reload adds, moves or drops are handed to the SyncListener, so the
+ * in-memory lot can follow other instances' parks and exits.
+ */
+public class ParkedVehicleCache {
+    /**
+     * Receives the rows that changed in the store without going through this
+     * cache's put()/remove(). A moved row appears in both lists. Called under
+     * the cache lock; initialLoad is true for the first load.
+     */
+    public interface SyncListener {
+        void onStoreChanges(List<ParkedVehicleRecord> removed, List<ParkedVehicleRecord> added, boolean initialLoad);
+    }
+
+    private static final long DEFAULT_MAX_STALENESS_MS = Long.getLong("parking.cache.maxStalenessMs", 5000L);
+
+    private final ParkingStore store;
+    private final long maxStalenessMs;
+    private final ConcurrentHashMap<String, ParkedVehicleRecord> byPlate = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private volatile long loadedAtMillis = -1L;
+    private boolean loadedOnce;
+    private SyncListener listener;
+
+    public ParkedVehicleCache(ParkingStore store) {
+        this(store, DEFAULT_MAX_STALENESS_MS);
+    }
+
+    public ParkedVehicleCache(ParkingStore store, long maxStalenessMs) {
+        this.store = store;
+        this.maxStalenessMs = maxStalenessMs;
+    }
+
+    // Set before the first read, so the initial load reaches the listener too
+    public synchronized void setSyncListener(SyncListener listener) {
+        this.listener = listener;
+    }
+
+    // O(1) lookup; a miss is a plate not cached, which callers may check against the store
+    public ParkedVehicleRecord get(String plate) {
+        ensureFresh();
+        ParkedVehicleRecord record = byPlate.get(plate);
+        (record != null ? hits : misses).incrementAndGet();
+        return record;
+    }
+
+    // Read-only live view of every cached vehicle
+    public Collection<ParkedVehicleRecord> values() {
+        ensureFresh();
+        return Collections.unmodifiableCollection(byPlate.values());
+    }
+
+    /**
+     * Takes in a row read from the store outside a reload (e.g. a point lookup
+     * for a plate parked by another instance) and reports it to the listener
+     * when it differs from the cached row.
+     */
+    public synchronized void adopt(ParkedVehicleRecord record) {
+        ParkedVehicleRecord old = byPlate.put(record.getPlate(), record);
+        if (sameRow(old, record)) {
+            return;
+        }
+        version.incrementAndGet();
+        if (listener != null) {
+            List<ParkedVehicleRecord> removed = old == null ? Collections.emptyList() : Collections.singletonList(old);
+            listener.onStoreChanges(removed, Collections.singletonList(record), false);
+        }
+    }
+
+    // Patches are serialized with reloads so a reload can't drop a concurrent write; returns the replaced row
+    public synchronized ParkedVehicleRecord put(ParkedVehicleRecord record) {
+        ParkedVehicleRecord old = byPlate.put(record.getPlate(), record);
+        version.incrementAndGet();
+        return old;
+    }
+
+    public synchronized void remove(String plate) {
+        if (byPlate.remove(plate) != null) {
+            version.incrementAndGet();
+        }
+    }
+
+    // Forces the next read to reload from the store
+    public void invalidate() {
+        loadedAtMillis = -1L;
+    }
+
+    // Bumped on every change, so callers can skip work when nothing moved
+    public long getVersion() { return version.get(); }
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getReloadCount() { return reloads.get(); }
+    public int size() { return byPlate.size(); }
+
+    @Override
+    public String toString() {
+        return String.format("ParkedVehicleCache[size=%d, version=%d, hits=%d, misses=%d, reloads=%d]",
+            size(), getVersion(), getHitCount(), getMissCount(), getReloadCount());
+    }
+
+    // Returns true when this call had to reload from the store
+    private boolean ensureFresh() {
+        if (!isStale()) {
+            return false;
+        }
+        synchronized (this) {
+            if (!isStale()) {
+                return false;
+            }
+            ConcurrentHashMap<String, ParkedVehicleRecord> loaded = new ConcurrentHashMap<>();
+            for (ParkedVehicleRecord record : store.loadParkedVehicles()) {
+                loaded.put(record.getPlate(), record);
+            }
+
+            // What changed behind the cache's back: dropped or moved rows, then new or moved ones
+            List<ParkedVehicleRecord> removed = new ArrayList<>();
+            List<ParkedVehicleRecord> added = new ArrayList<>();
+            for (Map.Entry<String, ParkedVehicleRecord> entry : byPlate.entrySet()) {
+                ParkedVehicleRecord now = loaded.get(entry.getKey());
+                if (!sameRow(entry.getValue(), now)) {
+                    removed.add(entry.getValue());
+                }
+            }
+            for (ParkedVehicleRecord record : loaded.values()) {
+                if (!sameRow(byPlate.get(record.getPlate()), record)) {
+                    added.add(record);
+                }
+            }
+
+            byPlate.keySet().retainAll(loaded.keySet());
+            byPlate.putAll(loaded);
+            loadedAtMillis = System.currentTimeMillis();
+            reloads.incrementAndGet();
+            if (!removed.isEmpty() || !added.isEmpty()) {
+                version.incrementAndGet();
+            }
+            boolean initialLoad = !loadedOnce;
+            loadedOnce = true;
+            if (listener != null && (initialLoad || !removed.isEmpty() || !added.isEmpty())) {
+                listener.onStoreChanges(removed, added, initialLoad);
+            }
+            return true;
+        }
+    }
+
+    // Same plate in the same spot since the same entry; null never matches a row
+    private static boolean sameRow(ParkedVehicleRecord a, ParkedVehicleRecord b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getEntryMillis() == b.getEntryMillis()
+            && Objects.equals(a.getParkingSpot(), b.getParkingSpot())
+            && Objects.equals(a.getVehicleType(), b.getVehicleType());
+    }
+
+    private boolean isStale() {
+        long loadedAt = loadedAtMillis;
+        if (loadedAt < 0) {
+            return true;
+        }
+        return maxStalenessMs > 0 && System.currentTimeMillis() - loadedAt > maxStalenessMs;
+    }
+}
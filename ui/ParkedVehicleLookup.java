@@ -0,0 +1,40 @@
+import Database.ParkedVehicleRecord;
+import Database.ParkingStore;
+
+/**
+ * Point lookups of parked vehicles by plate for the entry/exit gates.
+ * Served from the ParkedVehicleCache map in O(1); a plate the cache does
+ * not know is checked against the store once (it may have been parked by
+ * another instance since the last reload) and adopted into the cache when
+ * found.
+ */
+public class ParkedVehicleLookup {
+    private final ParkedVehicleCache cache;
+    private final ParkingStore store;
+
+    public ParkedVehicleLookup(ParkedVehicleCache cache, ParkingStore store) {
+        this.cache = cache;
+        this.store = store;
+    }
+
+    // Plate must be normalized; returns null when the vehicle is not parked
+    public ParkedVehicleRecord find(String plate) {
+        if (plate == null || plate.isEmpty()) {
+            return null;
+        }
+        ParkedVehicleRecord record = cache.get(plate);
+        if (record != null) {
+            return record;
+        }
+        record = store.findParkedVehicle(plate);
+        if (record != null) {
+            // Reaches the cache's listener, so the lot binds the spot too
+            cache.adopt(record);
+        }
+        return record;
+    }
+
+    public boolean isParked(String plate) {
+        return find(plate) != null;
+    }
+}
@@ -0,0 +1,318 @@
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Parking management table backed by columnar arrays of the parked vehicles,
+ * ordered by spot ID. apply() diffs a new snapshot against the current rows
+ * and fires insert/delete/update events for just the row ranges that changed;
+ * upsert(), removeVehicle() and addManualFine() apply single published changes.
+ * Entry, duration and fine text is derived when a row is first painted and
+ * reused until the clock minute turns, so only visible rows cost anything.
+ * EDT only, except Snapshot.of() which is meant to run in the background.
+ */
+public class ParkingTableModel extends AbstractTableModel {
+    public static final int SPOT = 0, PLATE = 1, TYPE = 2, ENTRY = 3, DURATION = 4, FINE = 5;
+    private static final String[] COLUMNS = {"Spot ID", "Plate No", "Type", "Entry", "Duration", "Unpaid Fine"};
+    private static final long MINUTE_MILLIS = 60L * 1000;
+    private static final long HOUR_MILLIS = 60L * MINUTE_MILLIS;
+
+    // Auto fine for a stay under the scheme active at its entry time
+    public interface FineFunction {
+        double fineAt(long hoursParked, long entryMillis);
+    }
+
+    /**
+     * Immutable columnar copy of the vehicles to show, sorted by spot ID.
+     */
+    public static final class Snapshot {
+        private final String[] spots;
+        private final String[] plates;
+        private final String[] types;
+        private final long[] entryMillis;
+        private final double[] manualFines;
+
+        private Snapshot(int size) {
+            spots = new String[size];
+            plates = new String[size];
+            types = new String[size];
+            entryMillis = new long[size];
+            manualFines = new double[size];
+        }
+
+        // manualFines is keyed by (normalized) plate; vehicles must have a spot
+        public static Snapshot of(Collection<UIDataManager.ParkedVehicleData> vehicles, Map<String, Double> manualFines) {
+            UIDataManager.ParkedVehicleData[] sorted = vehicles.toArray(new UIDataManager.ParkedVehicleData[0]);
+            Arrays.sort(sorted, (a, b) -> a.parkingSpot.compareTo(b.parkingSpot));
+            Snapshot snapshot = new Snapshot(sorted.length);
+            for (int i = 0; i < sorted.length; i++) {
+                snapshot.spots[i] = sorted[i].parkingSpot;
+                snapshot.plates[i] = sorted[i].plate;
+                snapshot.types[i] = sorted[i].vehicleType;
+                snapshot.entryMillis[i] = sorted[i].entryMillis;
+                snapshot.manualFines[i] = manualFines.getOrDefault(sorted[i].plate, 0.0);
+            }
+            return snapshot;
+        }
+
+        public int size() {
+            return spots.length;
+        }
+    }
+
+    private final FineFunction fines;
+    private final SimpleDateFormat entryFormat = new SimpleDateFormat("dd-MMM HH:mm a");
+
+    private int size;
+    private String[] spots = new String[0];
+    private String[] plates = new String[0];
+    private String[] types = new String[0];
+    private long[] entryMillis = new long[0];
+    private double[] manualFines = new double[0];
+    // Derived per row on first paint; derivedMinute is -1 until then
+    private String[] entryText = new String[0];
+    private String[] durationText = new String[0];
+    private String[] fineText = new String[0];
+    private long[] derivedMinute = new long[0];
+
+    public ParkingTableModel(FineFunction fines) {
+        this.fines = fines;
+    }
+
+    /**
+     * Makes the table show the snapshot: rows whose spot was vacated are
+     * deleted, new spots inserted in order, and changed rows updated in place.
+     */
+    public void apply(Snapshot next) {
+        // Rows to keep: the spot is still occupied (both sides are sorted by spot)
+        boolean[] keep = new boolean[size];
+        for (int i = 0, j = 0; i < size && j < next.size(); ) {
+            int cmp = spots[i].compareTo(next.spots[j]);
+            if (cmp == 0) {
+                keep[i++] = true;
+                j++;
+            } else if (cmp < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        // Delete vacated runs from the tail so earlier indices stay valid
+        for (int end = size - 1; end >= 0; end--) {
+            if (keep[end]) {
+                continue;
+            }
+            int start = end;
+            while (start > 0 && !keep[start - 1]) {
+                start--;
+            }
+            remove(start, end - start + 1);
+            fireTableRowsDeleted(start, end);
+            end = start;
+        }
+
+        // Insert new spots and update changed rows, one event per contiguous run
+        int i = 0;
+        int updatedFrom = -1;
+        for (int j = 0; j < next.size(); ) {
+            if (i < size && spots[i].equals(next.spots[j])) {
+                if (!sameRow(i, next, j)) {
+                    set(i, next, j);
+                    if (updatedFrom < 0) {
+                        updatedFrom = i;
+                    }
+                } else if (updatedFrom >= 0) {
+                    fireTableRowsUpdated(updatedFrom, i - 1);
+                    updatedFrom = -1;
+                }
+                i++;
+                j++;
+                continue;
+            }
+            if (updatedFrom >= 0) {
+                fireTableRowsUpdated(updatedFrom, i - 1);
+                updatedFrom = -1;
+            }
+            int runEnd = j;
+            while (runEnd < next.size() && (i >= size || !next.spots[runEnd].equals(spots[i]))) {
+                runEnd++;
+            }
+            int count = runEnd - j;
+            openGap(i, count);
+            for (int k = 0; k < count; k++) {
+                set(i + k, next, j + k);
+            }
+            fireTableRowsInserted(i, i + count - 1);
+            i += count;
+            j = runEnd;
+        }
+        if (updatedFrom >= 0) {
+            fireTableRowsUpdated(updatedFrom, size - 1);
+        }
+    }
+
+    // Adds the vehicle at its spot's position, or replaces whatever the row held
+    public void upsert(UIDataManager.ParkedVehicleData vehicle, double manualFine) {
+        int row = Arrays.binarySearch(spots, 0, size, vehicle.parkingSpot);
+        if (row < 0) {
+            row = -row - 1;
+            openGap(row, 1);
+            setRow(row, vehicle.parkingSpot, vehicle.plate, vehicle.vehicleType, vehicle.entryMillis, manualFine);
+            fireTableRowsInserted(row, row);
+        } else {
+            setRow(row, vehicle.parkingSpot, vehicle.plate, vehicle.vehicleType, vehicle.entryMillis, manualFine);
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    // parkingSpot may be null, in which case the plate is searched for
+    public void removeVehicle(String plate, String parkingSpot) {
+        int row = parkingSpot != null ? Arrays.binarySearch(spots, 0, size, parkingSpot) : rowOfPlate(plate);
+        if (row >= 0 && plates[row].equals(plate)) {
+            remove(row, 1);
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    public void addManualFine(String plate, double amount) {
+        int row = rowOfPlate(plate);
+        if (row >= 0) {
+            setManualFine(plate, manualFines[row] + amount);
+        }
+    }
+
+    public void setManualFine(String plate, double amount) {
+        int row = rowOfPlate(plate);
+        if (row >= 0 && Double.compare(manualFines[row], amount) != 0) {
+            manualFines[row] = amount;
+            derivedMinute[row] = -1;
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return size;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case SPOT: return spots[row];
+            case PLATE: return plates[row];
+            case TYPE: return types[row];
+            default:
+                derive(row);
+                return column == ENTRY ? entryText[row] : column == DURATION ? durationText[row] : fineText[row];
+        }
+    }
+
+    // Formats the derived columns of one row, at most once per clock minute
+    private void derive(int row) {
+        long now = System.currentTimeMillis();
+        long minute = now / MINUTE_MILLIS;
+        if (derivedMinute[row] == minute) {
+            return;
+        }
+        if (entryText[row] == null) {
+            entryText[row] = entryFormat.format(new Date(entryMillis[row]));
+        }
+        long elapsedMillis = now - entryMillis[row];
+        long hours = elapsedMillis / HOUR_MILLIS;
+        long minutes = (elapsedMillis / MINUTE_MILLIS) % 60;
+        durationText[row] = String.format("%dh %02dm", hours, minutes);
+
+        // Total unpaid fine: fresh auto fine plus manual fines
+        long hoursRoundedUp = Math.max(1L, (elapsedMillis + HOUR_MILLIS - 1) / HOUR_MILLIS);
+        double unpaidFine = fines.fineAt(hoursRoundedUp, entryMillis[row]) + manualFines[row];
+        fineText[row] = unpaidFine > 0.0 ? "RM " + String.format("%.2f", unpaidFine) : "RM 0.00";
+        derivedMinute[row] = minute;
+    }
+
+    private boolean sameRow(int row, Snapshot next, int j) {
+        return plates[row].equals(next.plates[j])
+            && types[row].equals(next.types[j])
+            && entryMillis[row] == next.entryMillis[j]
+            && Double.compare(manualFines[row], next.manualFines[j]) == 0;
+    }
+
+    private void set(int row, Snapshot next, int j) {
+        setRow(row, next.spots[j], next.plates[j], next.types[j], next.entryMillis[j], next.manualFines[j]);
+    }
+
+    private void setRow(int row, String spot, String plate, String type, long entry, double manualFine) {
+        spots[row] = spot;
+        plates[row] = plate;
+        types[row] = type;
+        entryMillis[row] = entry;
+        manualFines[row] = manualFine;
+        entryText[row] = null;
+        derivedMinute[row] = -1;
+    }
+
+    // Plates are unique among parked vehicles; -1 when not shown
+    private int rowOfPlate(String plate) {
+        for (int row = 0; row < size; row++) {
+            if (plates[row].equals(plate)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    // Makes room for count rows at index, shifting later rows down
+    private void openGap(int index, int count) {
+        if (size + count > spots.length) {
+            int capacity = Math.max(size + count, spots.length * 2);
+            spots = Arrays.copyOf(spots, capacity);
+            plates = Arrays.copyOf(plates, capacity);
+            types = Arrays.copyOf(types, capacity);
+            entryMillis = Arrays.copyOf(entryMillis, capacity);
+            manualFines = Arrays.copyOf(manualFines, capacity);
+            entryText = Arrays.copyOf(entryText, capacity);
+            durationText = Arrays.copyOf(durationText, capacity);
+            fineText = Arrays.copyOf(fineText, capacity);
+            derivedMinute = Arrays.copyOf(derivedMinute, capacity);
+        }
+        move(index, index + count, size - index);
+        size += count;
+    }
+
+    private void remove(int index, int count) {
+        move(index + count, index, size - index - count);
+        size -= count;
+        // Drop references held by the now unused tail
+        Arrays.fill(spots, size, size + count, null);
+        Arrays.fill(plates, size, size + count, null);
+        Arrays.fill(types, size, size + count, null);
+        Arrays.fill(entryText, size, size + count, null);
+        Arrays.fill(durationText, size, size + count, null);
+        Arrays.fill(fineText, size, size + count, null);
+    }
+
+    private void move(int from, int to, int length) {
+        System.arraycopy(spots, from, spots, to, length);
+        System.arraycopy(plates, from, plates, to, length);
+        System.arraycopy(types, from, types, to, length);
+        System.arraycopy(entryMillis, from, entryMillis, to, length);
+        System.arraycopy(manualFines, from, manualFines, to, length);
+        System.arraycopy(entryText, from, entryText, to, length);
+        System.arraycopy(durationText, from, durationText, to, length);
+        System.arraycopy(fineText, from, fineText, to, length);
+        System.arraycopy(derivedMinute, from, derivedMinute, to, length);
+    }
+}
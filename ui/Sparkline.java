@@ -0,0 +1,49 @@
+import java.awt.*;
+import javax.swing.JComponent;
+
+/**
+ * Small line chart of a DashboardService.Series, scaled to its own min and max.
+ */
+public class Sparkline extends JComponent {
+    private final DashboardService.Series series;
+    private final Color color;
+
+    public Sparkline(DashboardService.Series series, Color color) {
+        this.series = series;
+        this.color = color;
+        setPreferredSize(new Dimension(160, 36));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int n = series.size();
+        if (n < 2) {
+            return;
+        }
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            min = Math.min(min, series.get(i));
+            max = Math.max(max, series.get(i));
+        }
+        double range = max - min;
+
+        Insets insets = getInsets();
+        int w = getWidth() - insets.left - insets.right - 1;
+        int h = getHeight() - insets.top - insets.bottom - 1;
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = insets.left + (int) Math.round(i * w / (double) (n - 1));
+            // A flat series is drawn through the middle
+            double scaled = range == 0 ? 0.5 : (series.get(i) - min) / range;
+            ys[i] = insets.top + h - (int) Math.round(scaled * h);
+        }
+
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setColor(color);
+        g2.drawPolyline(xs, ys, n);
+        g2.dispose();
+    }
+}
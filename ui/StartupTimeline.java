@@ -0,0 +1,52 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records when each startup phase finished, in ms since the JVM started, and
+ * prints the timeline once the main page is interactive. A boot slower than
+ * -Dparking.startup.targetMs (default 2000, 0 = no target) is reported on
+ * stderr so kiosk regressions stand out. Marks after finish() are ignored.
+ */
+public final class StartupTimeline {
+    private static final long TARGET_MS = Long.getLong("parking.startup.targetMs", 2000L);
+    private static final long JVM_START_MILLIS = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    private static final List<String> PHASES = new ArrayList<>();
+    private static boolean finished;
+
+    private StartupTimeline() {
+    }
+
+    // Safe to call from any thread
+    public static synchronized void mark(String phase) {
+        if (finished) {
+            return;
+        }
+        PHASES.add(String.format("%6d ms  %s [%s]", elapsedMillis(), phase, Thread.currentThread().getName()));
+    }
+
+    /**
+     * Marks the app interactive and prints the timeline.
+     */
+    public static synchronized void finish() {
+        if (finished) {
+            return;
+        }
+        mark("interactive");
+        finished = true;
+        long total = elapsedMillis();
+        StringBuilder timeline = new StringBuilder("Startup timeline (since JVM start):");
+        for (String phase : PHASES) {
+            timeline.append("\n  ").append(phase);
+        }
+        System.out.println(timeline);
+        if (TARGET_MS > 0 && total > TARGET_MS) {
+            System.err.println("Startup took " + total + " ms, over the " + TARGET_MS + " ms target");
+        }
+    }
+
+    private static long elapsedMillis() {
+        return System.currentTimeMillis() - JVM_START_MILLIS;
+    }
+}
@@ -1,29 +1,56 @@
-import Database.Database;
+import Database.CheckoutRecord;
+import Database.ParkedVehicleRecord;
+import Database.ParkingStore;
+import Database.ParkingStoreFactory;
+import Database.PaymentRecord;
+import Database.RevenueRollup;
 import Management.Admin;
+import Management.CheckoutSession;
 import Management.Customer;
-import Management.Fine;
-import Management.FixedFine;
-import Management.HourlyFine;
-import Management.ProgressiveFine;
+import Management.FineEngine;
+import Management.FineScheduleLoader;
+import Management.FineSchemeTimeline;
+import Management.MembershipRegistry;
 import Management.Payment;
 import Management.User;
+import ParkingLot.AllocationPolicy;
+import ParkingLot.OccupancyIndex;
 import ParkingLot.ParkingLot;
 import ParkingLot.ParkingSpot;
+import ParkingLot.SpotAllocator;
+import ParkingLot.SpotType;
 import ParkingLot.Ticket;
 import Vehicles.Vehicle;
 import Vehicles.VehicleFactory;
-import java.sql.*;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Centralized data manager for UI - handles parking data, fees, fines, VIP/OKU cards
- * All operations are backed by database for persistence
+ * All operations are backed by the configured ParkingStore for persistence
  */
 public class UIDataManager {
     
+    private static final String DEFAULT_FINE_SCHEME = "Option A (Fixed)";
     private String currentFineScheme;
+    private final ParkingStore store;
+    private final ParkedVehicleCache parkedCache;
+    private final ParkedVehicleLookup parkedLookup;
+    private final MembershipRegistry memberships;
+    private final FineSchemeTimeline schemeTimeline = new FineSchemeTimeline();
+    private final FineEngine fineEngine;
     private final ParkingLot parkingLot;
-    private final Map<String, Ticket> activeTickets = new HashMap<>();
+    private final SpotAllocator allocator;
+    // Written from the background data threads, read by the screens
+    private final Map<String, Ticket> activeTickets = new ConcurrentHashMap<>();
+    private final DataEventBus events = new DataEventBus();
+    // Payments and fines share the read lock; loadMoneyTotals() takes the write lock, so its
+    // totals include exactly the writes numbered up to the sequence it reports
+    private final ReentrantReadWriteLock moneyLock = new ReentrantReadWriteLock();
+    private final AtomicLong moneySequence = new AtomicLong();
 
     // Inner class to hold parked vehicle data
     public static class ParkedVehicleData {
@@ -42,120 +69,167 @@ public class UIDataManager {
         }
     }
 
+    // Revenue and unpaid fine totals, and the last money write they include
+    public static class MoneyTotals {
+        public final double totalRevenue;
+        public final double totalUnpaidFines;
+        public final long sequence;
+
+        public MoneyTotals(double totalRevenue, double totalUnpaidFines, long sequence) {
+            this.totalRevenue = totalRevenue;
+            this.totalUnpaidFines = totalUnpaidFines;
+            this.sequence = sequence;
+        }
+    }
+
     public UIDataManager() {
+        this(ParkingStoreFactory.getStore());
+    }
+
+    public UIDataManager(ParkingStore store) {
+        this.store = store;
+        this.parkedCache = new ParkedVehicleCache(store);
+        this.parkedLookup = new ParkedVehicleLookup(parkedCache, store);
+        this.memberships = MembershipRegistry.getInstance(store);
+        this.fineEngine = loadFineEngine();
         this.currentFineScheme = loadFineSchemeFromDB();
+        this.schemeTimeline.load(store.loadFineSchemeHistory());
         this.parkingLot = ParkingLot.getInstance();
         this.parkingLot.initializeDefaultStructure();
+        this.allocator = new SpotAllocator(parkingLot);
+        rehydrateParkedVehicles();
     }
 
-    // Load fine scheme from database or use default
-    private String loadFineSchemeFromDB() {
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement()) {
-            ResultSet rs = stmt.executeQuery("SELECT scheme_name FROM fine_schemes WHERE is_active = 1 LIMIT 1");
-            if (rs.next()) {
-                return rs.getString("scheme_name");
+    // The first load of parked_vehicles binds each row to its spot and vehicle; later cache
+    // reloads apply other instances' parks and exits the same way, while this instance's own
+    // parks and exits update the lot together with the table
+    private void rehydrateParkedVehicles() {
+        parkedCache.setSyncListener(this::applyStoreChanges);
+        parkedCache.values();
+    }
+
+    // Brings the in-memory lot (and the open screens) in line with rows changed in the store
+    private void applyStoreChanges(List<ParkedVehicleRecord> removed, List<ParkedVehicleRecord> added, boolean initialLoad) {
+        for (ParkedVehicleRecord record : removed) {
+            unbindSpot(record.getPlate(), record.getParkingSpot());
+            activeTickets.remove(record.getPlate());
+            if (!initialLoad) {
+                events.publish(new DataEvent.VehicleExited(record.getPlate(), record.getParkingSpot()));
             }
-        } catch (SQLException e) {
-            System.err.println("Error loading fine scheme: " + e.getMessage());
         }
-        return "Option A (Fixed)";
+
+        int unplaced = 0;
+        int conflicts = 0;
+        for (ParkedVehicleRecord record : added) {
+            ParkingSpot spot = parkingLot.getSpotByUiId(record.getParkingSpot());
+            if (spot == null) {
+                unplaced++;
+                continue;
+            }
+            Vehicle bound = spot.getCurrentVehicle();
+            if (bound != null && bound.getLicensePlate().equals(record.getPlate())) {
+                // Already ours: this instance parked it and the reload saw the row first
+                continue;
+            }
+            Vehicle vehicle = VehicleFactory.fromDisplayType(record.getVehicleType(), record.getPlate(), record.getEntryMillis());
+            boolean claimed = vehicle != null ? parkingLot.parkVehicle(spot, vehicle) : spot.claim() != ParkingSpot.FREE;
+            if (!claimed) {
+                conflicts++;
+                continue;
+            }
+            activeTickets.put(record.getPlate(), new Ticket(record.getPlate(), record.getParkingSpot()));
+            if (!initialLoad) {
+                events.publish(new DataEvent.VehicleParked(toParkedVehicleData(record)));
+            }
+        }
+        if (unplaced > 0) {
+            System.err.println("Warning: " + unplaced + " parked vehicle(s) reference spots missing from the current layout");
+        }
+        if (conflicts > 0) {
+            System.err.println("Warning: " + conflicts + " parked vehicle(s) recorded on spots already held in memory");
+        }
     }
 
-    // Save fine scheme to database
-    private void saveFineSchemeToDB(String scheme) {
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement()) {
-            // Deactivate all schemes
-            stmt.executeUpdate("UPDATE fine_schemes SET is_active = 0");
-            // Activate selected scheme with current timestamp
-            PreparedStatement pstmt = conn.prepareStatement(
-                "INSERT INTO fine_schemes (scheme_name, is_active, changed_at) VALUES (?, 1, CURRENT_TIMESTAMP) " +
-                "ON DUPLICATE KEY UPDATE is_active = 1, changed_at = CURRENT_TIMESTAMP");
-            pstmt.setString(1, scheme);
-            pstmt.executeUpdate();
-            
-            // Log this scheme change to history for future reference
-            PreparedStatement historyPstmt = conn.prepareStatement(
-                "INSERT INTO fine_scheme_history (scheme_name, activated_at) VALUES (?, CURRENT_TIMESTAMP)");
-            historyPstmt.setString(1, scheme);
-            historyPstmt.executeUpdate();
-            
-        } catch (SQLException e) {
-            System.err.println("Error saving fine scheme: " + e.getMessage());
+    // Frees the plate's spot; a spot held without a vehicle (unknown type) is freed only if nothing is bound to it
+    private void unbindSpot(String norm, String parkingSpot) {
+        if (parkingLot.unparkVehicle(norm) != null) {
+            return;
+        }
+        ParkingSpot spot = parkingSpot == null ? null : parkingLot.getSpotByUiId(parkingSpot);
+        if (spot != null && spot.getCurrentVehicle() == null) {
+            spot.release();
+        }
+    }
+
+    private static FineEngine loadFineEngine() {
+        try {
+            return FineScheduleLoader.loadConfigured();
+        } catch (IOException e) {
+            System.err.println("Error loading fine schemes: " + e.getMessage());
+            return FineScheduleLoader.loadDefault();
         }
     }
 
+    // Every stored change is published here for the open screens
+    public DataEventBus getEvents() {
+        return events;
+    }
+
+    // Load fine scheme from database or use default
+    private String loadFineSchemeFromDB() {
+        String scheme = store.loadActiveFineScheme();
+        return scheme != null ? scheme : DEFAULT_FINE_SCHEME;
+    }
+
+    // Save fine scheme to database (also logged to history for future reference)
+    private void saveFineSchemeToDB(String scheme) {
+        long now = System.currentTimeMillis();
+        store.saveActiveFineScheme(scheme, now);
+        schemeTimeline.append(now, scheme);
+        events.publish(new DataEvent.SchemeChanged(scheme));
+    }
+
     // Getters and Setters for shared data
+    // Fresh map built from the parked-vehicle cache; callers may modify it
     public Map<String, ParkedVehicleData> getParkedVehicles() {
         Map<String, ParkedVehicleData> vehicles = new HashMap<>();
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement()) {
-            ResultSet rs = stmt.executeQuery("SELECT license_plate, vehicle_type, entry_time, parking_spot, entry_millis FROM parked_vehicles");
-            while (rs.next()) {
-                String plate = rs.getString("license_plate");
-                vehicles.put(plate, new ParkedVehicleData(
-                    plate,
-                    rs.getString("vehicle_type"),
-                    rs.getString("entry_time"),
-                    rs.getString("parking_spot"),
-                    rs.getLong("entry_millis")
-                ));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error loading parked vehicles: " + e.getMessage());
+        for (ParkedVehicleRecord record : parkedCache.values()) {
+            vehicles.put(record.getPlate(), toParkedVehicleData(record));
         }
         return vehicles;
     }
     
     public ParkedVehicleData getParkedVehicleData(String plate) {
-        String norm = normalizePlate(plate);
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                "SELECT license_plate, vehicle_type, entry_time, parking_spot, entry_millis FROM parked_vehicles WHERE license_plate = ?")) {
-            pstmt.setString(1, norm);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return new ParkedVehicleData(
-                    rs.getString("license_plate"),
-                    rs.getString("vehicle_type"),
-                    rs.getString("entry_time"),
-                    rs.getString("parking_spot"),
-                    rs.getLong("entry_millis")
-                );
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting parked vehicle data: " + e.getMessage());
-        }
-        return null;
+        ParkedVehicleRecord record = findParkedVehicle(plate);
+        return record == null ? null : toParkedVehicleData(record);
+    }
+
+    // Point lookup for the gates: O(1) from memory, store fallback for unknown plates
+    public ParkedVehicleRecord findParkedVehicle(String plate) {
+        return parkedLookup.find(normalizePlate(plate));
+    }
+
+    // Hit/miss/reload counters of the parked-vehicle cache
+    public String getParkedVehicleCacheStats() {
+        return parkedCache.toString();
+    }
+
+    private ParkedVehicleData toParkedVehicleData(ParkedVehicleRecord record) {
+        return new ParkedVehicleData(
+            record.getPlate(),
+            record.getVehicleType(),
+            record.getEntryTime(),
+            record.getParkingSpot(),
+            record.getEntryMillis()
+        );
     }
 
     public Set<String> getVIPPlates() {
-        Set<String> plates = new HashSet<>();
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement()) {
-            ResultSet rs = stmt.executeQuery("SELECT license_plate FROM vip_plates");
-            while (rs.next()) {
-                plates.add(rs.getString("license_plate"));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error loading VIP plates: " + e.getMessage());
-        }
-        return plates;
+        return memberships.getVipPlates();
     }
 
     public Set<String> getOKUCardHolders() {
-        Set<String> holders = new HashSet<>();
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement()) {
-            ResultSet rs = stmt.executeQuery("SELECT license_plate FROM oku_card_holders");
-            while (rs.next()) {
-                holders.add(rs.getString("license_plate"));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error loading OKU card holders: " + e.getMessage());
-        }
-        return holders;
+        return memberships.getOkuCardHolders();
     }
 
     public String getCurrentFineScheme() {
@@ -167,25 +241,24 @@ public class UIDataManager {
     }
 
     public User loginUserByNameAndPassword(String userName, String password) {
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                "SELECT user_id, name, password, role, license_plate FROM users WHERE name = ? AND password = ?")) {
-            pstmt.setString(1, userName);
-            pstmt.setString(2, password);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                String role = rs.getString("role");
-                String userId = rs.getString("user_id");
-                String name = rs.getString("name");
-                if ("ADMIN".equalsIgnoreCase(role)) {
-                    return new Admin(userId, name, password);
-                }
-                return new Customer(userId, name, rs.getString("license_plate"));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error authenticating user: " + e.getMessage());
+        Map<String, String> user = store.findUserByName(userName, password);
+        if (user == null) {
+            return null;
+        }
+        if ("ADMIN".equalsIgnoreCase(user.get("role"))) {
+            return new Admin(user.get("user_id"), user.get("name"), password);
+        }
+        return new Customer(user.get("user_id"), user.get("name"), user.get("license_plate"));
+    }
+
+    // "Floor n" labels for every floor in the configured layout
+    public String[] getFloorNames() {
+        List<Integer> numbers = parkingLot.getFloorNumbers();
+        String[] names = new String[numbers.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "Floor " + numbers.get(i);
         }
-        return null;
+        return names;
     }
 
     public int getTotalSpotCount() {
@@ -233,7 +306,6 @@ public class UIDataManager {
 
     public List<String[]> getSpotsForFloor(int floorNum, String selectedParkingType) {
         List<String[]> allSpots = new ArrayList<>();
-        Set<String> occupiedSpots = getOccupiedSpotIds();
 
         for (ParkingSpot spot : parkingLot.getSpotsForFloor(floorNum)) {
             String type = spot.getType();
@@ -241,9 +313,8 @@ public class UIDataManager {
                 continue;
             }
 
-            String uiSpotId = spot.toUiSpotId();
-            String status = occupiedSpots.contains(uiSpotId) ? "Occupied" : "Available";
-            allSpots.add(new String[]{uiSpotId, type, status});
+            String status = spot.isOccupied() ? "Occupied" : "Available";
+            allSpots.add(new String[]{spot.toUiSpotId(), type, status});
         }
 
         return allSpots;
@@ -254,23 +325,16 @@ public class UIDataManager {
             return "";
         }
 
+        SpotType type = SpotType.fromDisplayName(parkingType);
+        OccupancyIndex occupancy = parkingLot.getOccupancy();
         StringBuilder summary = new StringBuilder();
         summary.append("Parking Type: ").append(parkingType).append("\n\n");
 
-        for (int floor = 1; floor <= 5; floor++) {
-            List<String[]> spots = getSpotsForFloor(floor, parkingType);
-            int totalSpots = spots.size();
-            int availableSpots = 0;
-
-            for (String[] spot : spots) {
-                if (spot[2].equals("Available")) {
-                    availableSpots++;
-                }
-            }
-
+        for (int floor : parkingLot.getFloorNumbers()) {
+            int totalSpots = occupancy.getTotalCount(floor, type);
             if (totalSpots > 0) {
                 summary.append(String.format("Floor %d: %d available / %d total\n",
-                    floor, availableSpots, totalSpots));
+                    floor, occupancy.getFreeCount(floor, type), totalSpots));
             }
         }
 
@@ -284,193 +348,233 @@ public class UIDataManager {
 
     // VIP Plate operations
     public boolean isVIPPlate(String plate) {
-        String norm = normalizePlate(plate);
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM vip_plates WHERE license_plate = ?")) {
-            pstmt.setString(1, norm);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next();
-        } catch (SQLException e) {
-            System.err.println("Error checking VIP plate: " + e.getMessage());
-            return false;
-        }
+        return memberships.isVip(normalizePlate(plate));
     }
 
     public void addVIPPlate(String plate) {
         String norm = normalizePlate(plate);
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("INSERT IGNORE INTO vip_plates (license_plate) VALUES (?)")) {
-            pstmt.setString(1, norm);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Error adding VIP plate: " + e.getMessage());
-        }
+        memberships.addVip(norm);
+        events.publish(new DataEvent.VipChanged(norm, false, true));
     }
 
     public void removeVIPPlate(String plate) {
         String norm = normalizePlate(plate);
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM vip_plates WHERE license_plate = ?")) {
-            pstmt.setString(1, norm);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Error removing VIP plate: " + e.getMessage());
-        }
+        memberships.removeVip(norm);
+        events.publish(new DataEvent.VipChanged(norm, false, false));
     }
 
     // OKU Card operations
     public boolean isOKUCardHolder(String plate) {
-        String norm = normalizePlate(plate);
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM oku_card_holders WHERE license_plate = ?")) {
-            pstmt.setString(1, norm);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next();
-        } catch (SQLException e) {
-            System.err.println("Error checking OKU card holder: " + e.getMessage());
-            return false;
-        }
+        return memberships.isOkuCardHolder(normalizePlate(plate));
     }
 
     public void addOKUCardHolder(String plate) {
         String norm = normalizePlate(plate);
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("INSERT IGNORE INTO oku_card_holders (license_plate) VALUES (?)")) {
-            pstmt.setString(1, norm);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Error adding OKU card holder: " + e.getMessage());
-        }
+        memberships.addOkuCardHolder(norm);
+        events.publish(new DataEvent.VipChanged(norm, true, true));
     }
 
     public void removeOKUCardHolder(String plate) {
         String norm = normalizePlate(plate);
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM oku_card_holders WHERE license_plate = ?")) {
-            pstmt.setString(1, norm);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Error removing OKU card holder: " + e.getMessage());
-        }
+        memberships.removeOkuCardHolder(norm);
+        events.publish(new DataEvent.VipChanged(norm, true, false));
     }
 
     // Fine operations
     public double getUnpaidFine(String plate) {
-        String norm = normalizePlate(plate);
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("SELECT amount FROM unpaid_fines WHERE license_plate = ?")) {
-            pstmt.setString(1, norm);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getDouble("amount");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting unpaid fine: " + e.getMessage());
-        }
-        return 0.0;
+        return store.getUnpaidFine(normalizePlate(plate));
     }
 
     public void issueFine(String plate, double amount) {
         String norm = normalizePlate(plate);
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                "INSERT INTO unpaid_fines (license_plate, amount) VALUES (?, ?) " +
-                "ON DUPLICATE KEY UPDATE amount = amount + ?")) {
-            pstmt.setString(1, norm);
-            pstmt.setDouble(2, amount);
-            pstmt.setDouble(3, amount);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Error issuing fine: " + e.getMessage());
+        long sequence;
+        moneyLock.readLock().lock();
+        try {
+            store.addUnpaidFine(norm, amount);
+            sequence = moneySequence.incrementAndGet();
+        } finally {
+            moneyLock.readLock().unlock();
         }
+        events.publish(new DataEvent.FineIssued(norm, amount, sequence));
     }
 
-    public void recordPayment(String plate, double amount) {
-        recordPayment(plate, amount, 0.0, 0.0, "Cash/Card");
-    }
-    
-    public void recordPayment(String plate, double amount, double parkingFee, double fineAmount) {
-        recordPayment(plate, amount, parkingFee, fineAmount, "Cash/Card");
+    /**
+     * Opens the pricing session for an exit: one store read for the vehicle and
+     * its unpaid fine, everything else from memory. Null when the plate is not parked.
+     */
+    public CheckoutSession openCheckout(String plate) {
+        CheckoutRecord record = store.loadCheckout(normalizePlate(plate));
+        if (record == null) {
+            return null;
+        }
+        ParkedVehicleRecord vehicle = record.getVehicle();
+        double rate = getHourlyRate(vehicle.getParkingSpot(), vehicle.getVehicleType(), vehicle.getPlate());
+        int schemeId = fineSchemeId(getFineSchemeAtTime(vehicle.getEntryMillis()));
+        return new CheckoutSession(record, rate, fineEngine, schemeId, System.currentTimeMillis());
     }
-    
-    public void recordPayment(String plate, double amount, double parkingFee, double fineAmount, String paymentMethod) {
-        String norm = normalizePlate(plate);
-        try (Connection conn = Database.getConnection()) {
-            double currentFine = getUnpaidFine(norm);
-            double remaining = Math.max(0.0, currentFine - fineAmount);
-            
-            // Insert into payments table with full details
-            PreparedStatement paymentStmt = conn.prepareStatement("INSERT INTO payments (license_plate, amount, method, parking_fee, fine_amount) VALUES (?, ?, ?, ?, ?)");
-            paymentStmt.setString(1, norm);
-            paymentStmt.setDouble(2, amount);
-            paymentStmt.setString(3, paymentMethod);
-            paymentStmt.setDouble(4, parkingFee);
-            paymentStmt.setDouble(5, fineAmount);
-            paymentStmt.executeUpdate();
-            
-            if (remaining <= 0.0) {
-                PreparedStatement pstmt = conn.prepareStatement("DELETE FROM unpaid_fines WHERE license_plate = ?");
-                pstmt.setString(1, norm);
-                pstmt.executeUpdate();
-            } else {
-                PreparedStatement pstmt = conn.prepareStatement("UPDATE unpaid_fines SET amount = ? WHERE license_plate = ?");
-                pstmt.setDouble(1, remaining);
-                pstmt.setString(2, norm);
-                pstmt.executeUpdate();
+
+    /**
+     * Completes the exit priced by the session in one store transaction (payment,
+     * fine settlement, parked vehicle removal), then frees the spot in memory.
+     * Returns false when the vehicle was already checked out elsewhere or the write failed.
+     */
+    public boolean checkout(CheckoutSession session, double fineAmount, String paymentMethod) {
+        String norm = session.getPlate();
+        double amount = session.getParkingFee() + fineAmount;
+        PaymentRecord payment = new PaymentRecord(norm, amount, paymentMethod, session.getParkingFee(), fineAmount,
+                session.getExitMillis(), getSpotType(session.getVehicle().getParkingSpot()));
+        long sequence;
+        moneyLock.readLock().lock();
+        try {
+            if (!store.checkout(payment, fineAmount)) {
+                return false;
             }
-        } catch (SQLException e) {
-            System.err.println("Error recording payment: " + e.getMessage());
+            sequence = moneySequence.incrementAndGet();
+        } finally {
+            moneyLock.readLock().unlock();
         }
+        releaseParkedVehicle(norm);
+        events.publish(new DataEvent.PaymentRecorded(payment, sequence));
+        return true;
     }
 
     public double getTotalUnpaidFines() {
-        double total = 0.0;
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement()) {
-            ResultSet rs = stmt.executeQuery("SELECT SUM(amount) as total FROM unpaid_fines");
-            if (rs.next()) {
-                total = rs.getDouble("total");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting total unpaid fines: " + e.getMessage());
+        return store.getTotalUnpaidFines();
+    }
+
+    /**
+     * Both rollup totals as one cut: no payment or fine from this instance is
+     * in flight while they are read, so events up to the returned sequence
+     * are already counted and later ones are not. Holds money writes back
+     * only for the two single-cell reads: the store adds journaled exits not
+     * yet written from memory rather than draining the journal.
+     */
+    public MoneyTotals loadMoneyTotals() {
+        moneyLock.writeLock().lock();
+        try {
+            return new MoneyTotals(store.getTotalRevenue(), store.getTotalUnpaidFines(), moneySequence.get());
+        } finally {
+            moneyLock.writeLock().unlock();
         }
-        return total;
+    }
+
+    // All outstanding fines by plate, including vehicles not currently parked
+    public Map<String, Double> getAllUnpaidFines() {
+        return store.getAllUnpaidFines();
     }
 
     // Parked vehicle operations
-    public void addParkedVehicle(String plate, String vehicleType, String entryTime, String parkingSpot, long entryMillis) {
+
+    /**
+     * Claims the spot and persists the vehicle. Returns false, leaving the
+     * lot as it was, when another entry already holds the spot or the store
+     * write fails.
+     */
+    public boolean addParkedVehicle(String plate, String vehicleType, String entryTime, String parkingSpot, long entryMillis) {
         String norm = normalizePlate(plate);
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                "INSERT INTO parked_vehicles (license_plate, vehicle_type, entry_time, parking_spot, entry_millis) " +
-                "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
-                "vehicle_type = VALUES(vehicle_type), entry_time = VALUES(entry_time), " +
-                "parking_spot = VALUES(parking_spot), entry_millis = VALUES(entry_millis)")) {
-            pstmt.setString(1, norm);
-            pstmt.setString(2, vehicleType);
-            pstmt.setString(3, entryTime);
-            pstmt.setString(4, parkingSpot);
-            pstmt.setLong(5, entryMillis);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Error adding parked vehicle: " + e.getMessage());
+        ParkingSpot spot = parkingLot.getSpotByUiId(parkingSpot);
+        if (spot == null) {
+            return persistParkedVehicle(norm, vehicleType, entryTime, parkingSpot, entryMillis);
+        }
+
+        Vehicle vehicle = VehicleFactory.fromDisplayType(vehicleType, norm, entryMillis);
+        if (vehicle == null) {
+            // Unknown vehicle type: hold the spot without binding a vehicle
+            long occupant = spot.claim();
+            if (occupant == ParkingSpot.FREE) {
+                return false;
+            }
+            if (!persistParkedVehicle(norm, vehicleType, entryTime, parkingSpot, entryMillis)) {
+                spot.release(occupant);
+                return false;
+            }
+            return true;
+        }
+
+        ParkingSpot previous = parkingLot.getSpotForPlate(norm);
+        Vehicle previousVehicle = previous == null ? null : previous.getCurrentVehicle();
+        if (!parkingLot.parkVehicle(spot, vehicle)) {
+            return false;
+        }
+        if (!persistParkedVehicle(norm, vehicleType, entryTime, parkingSpot, entryMillis)) {
+            undoPark(norm, previous, previousVehicle);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Picks, claims and persists the best free spot for the vehicle.
+     * Returns the UI spot ID, or null when nothing compatible is free.
+     * parkingType limits the search to one spot type (null or empty for any).
+     */
+    public String autoAssignSpot(String plate, String vehicleType, String parkingType, AllocationPolicy policy,
+                                 int entryFloor, String entryTime, long entryMillis) {
+        String norm = normalizePlate(plate);
+        Vehicle vehicle = VehicleFactory.fromDisplayType(vehicleType, norm, entryMillis);
+        if (vehicle == null) {
+            return null;
+        }
+
+        SpotType onlyType = parkingType == null || parkingType.isEmpty() ? null : SpotType.fromDisplayName(parkingType);
+        ParkingSpot previous = parkingLot.getSpotForPlate(norm);
+        Vehicle previousVehicle = previous == null ? null : previous.getCurrentVehicle();
+        ParkingSpot spot = allocator.allocate(vehicle, isVIPPlate(norm), policy, entryFloor, onlyType);
+        if (spot == null) {
+            return null;
+        }
+        if (!persistParkedVehicle(norm, vehicleType, entryTime, spot.toUiSpotId(), entryMillis)) {
+            undoPark(norm, previous, previousVehicle);
+            return null;
+        }
+        return spot.toUiSpotId();
+    }
+
+    // The store write behind a park failed: free the new spot and put the plate back where it was
+    private void undoPark(String norm, ParkingSpot previous, Vehicle previousVehicle) {
+        parkingLot.unparkVehicle(norm);
+        if (previous != null && previousVehicle != null) {
+            parkingLot.parkVehicle(previous, previousVehicle);
+        }
+    }
+
+    // Called once the spot is claimed in memory; false when the store write failed and nothing was published
+    private boolean persistParkedVehicle(String norm, String vehicleType, String entryTime, String parkingSpot, long entryMillis) {
+        ParkedVehicleRecord record = new ParkedVehicleRecord(norm, vehicleType, entryTime, parkingSpot, entryMillis);
+        if (!store.saveParkedVehicle(record)) {
+            return false;
         }
+        ParkedVehicleRecord moved = parkedCache.put(record);
 
         if (parkingSpot != null && !parkingSpot.isEmpty()) {
             activeTickets.put(norm, new Ticket(norm, parkingSpot));
         }
+        // Re-parked elsewhere (parkVehicle has freed the old spot): screens drop the old spot's row first
+        if (moved != null && !Objects.equals(moved.getParkingSpot(), parkingSpot)) {
+            events.publish(new DataEvent.VehicleExited(norm, moved.getParkingSpot()));
+        }
+        events.publish(new DataEvent.VehicleParked(toParkedVehicleData(record)));
+        return true;
     }
 
     public void removeParkedVehicle(String plate) {
         String norm = normalizePlate(plate);
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM parked_vehicles WHERE license_plate = ?")) {
-            pstmt.setString(1, norm);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Error removing parked vehicle: " + e.getMessage());
-        }
+        store.deleteParkedVehicle(norm);
+        releaseParkedVehicle(norm);
+    }
+
+    // In-memory side of an exit: frees the spot and drops the plate from the cache
+    private void releaseParkedVehicle(String norm) {
+        ParkedVehicleRecord record = parkedCache.get(norm);
+        unbindSpot(norm, record == null ? null : record.getParkingSpot());
+        parkedCache.remove(norm);
         activeTickets.remove(norm);
+        events.publish(new DataEvent.VehicleExited(norm, record == null ? null : record.getParkingSpot()));
+    }
+
+    // Vehicles currently parked, from the in-memory lot
+    public int getParkedVehicleCount() {
+        return parkingLot.getParkedVehicleCount();
     }
 
     public Ticket getTicket(String plate) {
@@ -480,108 +584,30 @@ public class UIDataManager {
         return activeTickets.get(normalizePlate(plate));
     }
 
-    private Set<String> getOccupiedSpotIds() {
-        Set<String> occupiedSpots = new HashSet<>();
-        Map<String, ParkedVehicleData> vehicles = getParkedVehicles();
-        for (ParkedVehicleData vehicle : vehicles.values()) {
-            if (vehicle.parkingSpot != null && !vehicle.parkingSpot.isEmpty()) {
-                occupiedSpots.add(vehicle.parkingSpot);
-            }
-        }
-        return occupiedSpots;
+    public double getTotalRevenue() {
+        return store.getTotalRevenue();
     }
 
-    public Map<String, Object> getParkedVehicleInfo(String plate) {
-        String norm = normalizePlate(plate);
-        Map<String, ParkedVehicleData> vehicles = getParkedVehicles();
-        ParkedVehicleData vehicle = vehicles.get(norm);
-        if (vehicle == null) return null;
-
-        Map<String, Object> info = new HashMap<>();
-        info.put("plate", vehicle.plate);
-        info.put("vehicleType", vehicle.vehicleType);
-        info.put("entryTime", vehicle.entryTime);
-        info.put("parkingSpot", vehicle.parkingSpot);
-        info.put("entryMillis", vehicle.entryMillis);
-
-        // Calculate duration
-        long now = System.currentTimeMillis();
-        long elapsedMillis = now - vehicle.entryMillis;
-        long hours = elapsedMillis / (1000 * 60 * 60);
-        long minutes = (elapsedMillis / (1000 * 60)) % 60;
-        info.put("duration", hours + "h " + minutes + "m");
-
-        return info;
-    }
-
-    public double getTotalRevenue() {
-        double total = 0.0;
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement()) {
-            ResultSet rs = stmt.executeQuery("SELECT SUM(amount) as total FROM payments");
-            if (rs.next()) {
-                total = rs.getDouble("total");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting total revenue: " + e.getMessage());
-        }
-        return total;
+    // Revenue by day, payment method and spot type, plus outstanding fines, from the rollups
+    public RevenueRollup getRevenueRollup() {
+        return store.getRevenueRollup();
     }
 
     // User management operations
     public void addUser(String userId, String name, String password, String role) {
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                "INSERT INTO users (user_id, name, password, role) VALUES (?, ?, ?, ?) " +
-                "ON DUPLICATE KEY UPDATE name = VALUES(name), password = VALUES(password), role = VALUES(role)")) {
-            pstmt.setString(1, userId);
-            pstmt.setString(2, name);
-            pstmt.setString(3, password);
-            pstmt.setString(4, role);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Error adding/updating user: " + e.getMessage());
-        }
+        store.saveUser(userId, name, password, role);
     }
     
     public void deleteUser(String userId) {
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM users WHERE user_id = ?")) {
-            pstmt.setString(1, userId);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Error deleting user: " + e.getMessage());
-        }
+        store.deleteUser(userId);
     }
     
     public java.util.List<java.util.Map<String, String>> getAllUsers() {
-        java.util.List<java.util.Map<String, String>> users = new java.util.ArrayList<>();
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement()) {
-            ResultSet rs = stmt.executeQuery("SELECT user_id, name, role FROM users WHERE role != 'ADMIN'");
-            while (rs.next()) {
-                java.util.Map<String, String> user = new java.util.HashMap<>();
-                user.put("user_id", rs.getString("user_id"));
-                user.put("name", rs.getString("name"));
-                user.put("role", rs.getString("role"));
-                users.add(user);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting all users: " + e.getMessage());
-        }
-        return users;
+        return store.getNonAdminUsers();
     }
     
     public boolean isUserExists(String userId) {
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM users WHERE user_id = ?")) {
-            pstmt.setString(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next();
-        } catch (SQLException e) {
-            System.err.println("Error checking user existence: " + e.getMessage());
-        }
-        return false;
+        return store.userExists(userId);
     }
     
     public boolean authenticateUser(String userName, String password) {
@@ -590,75 +616,59 @@ public class UIDataManager {
 
     /**
      * Calculate fine for a vehicle based on hours parked and current fine scheme
-     * This uses the Strategy Pattern with Fine implementations
+     * Schemes are data-defined FineSchedules compiled into the FineEngine
      */
     public double calculateFineForParking(long hoursParked) {
-        Fine fineStrategy = getFineStrategy();
-        return fineStrategy.calculateFine(hoursParked);
+        return fineEngine.evaluate(hoursParked, fineSchemeId(currentFineScheme));
     }
 
     // New method to calculate fine based on entry time (uses the scheme that was active at entry time)
     public double calculateFineForParkingAtEntryTime(long hoursParked, long entryMillis, String plate) {
-        String schemeAtEntry = getFineSchemeAtTime(entryMillis);
-        Fine fineStrategy = getFineStrategyByName(schemeAtEntry);
-        double fine = fineStrategy.calculateFine(hoursParked);
+        return fineEngine.evaluate(hoursParked, fineSchemeId(getFineSchemeAtTime(entryMillis)));
+    }
+
+    // Bulk version: fines[i] for hoursParked[i] under the scheme active at entryMillis[i]
+    public double[] calculateFinesAtEntryTimes(long[] hoursParked, long[] entryMillis) {
+        String[] schemes = getFineSchemesAtTimes(entryMillis);
+        int[] schemeIds = new int[schemes.length];
+        String lastName = null;
+        int lastId = -1;
+        for (int i = 0; i < schemes.length; i++) {
+            // Neighbouring vehicles usually share a scheme, so skip the map lookup
+            if (!schemes[i].equals(lastName)) {
+                lastName = schemes[i];
+                lastId = fineSchemeId(lastName);
+            }
+            schemeIds[i] = lastId;
+        }
+        return fineEngine.evaluate(hoursParked, schemeIds);
+    }
 
-        return fine;
+    public String[] getFineSchemeNames() {
+        return fineEngine.getSchemeNames().toArray(new String[0]);
     }
 
-    // Legacy helper removed — use public isOKUCardHolder(String) which checks `oku_card_holders` table
+    // Tier summary for a scheme, or null when it is not defined
+    public String getFineSchemeDescription(String schemeName) {
+        int id = fineEngine.schemeId(schemeName);
+        return id < 0 ? null : fineEngine.getSchedule(id).describe();
+    }
 
-    /**
-     * Get the appropriate Fine strategy based on current fine scheme
-     */
-    private Fine getFineStrategy() {
-        switch (currentFineScheme) {
-            case "Option A (Fixed)":
-                return new FixedFine();
-            case "Option B (Progressive)":
-                return new ProgressiveFine();
-            case "Option C (Hourly)":
-                return new HourlyFine();
-            default:
-                return new FixedFine();
-        }
-    }
-
-    // Get fine strategy by scheme name
-    private Fine getFineStrategyByName(String schemeName) {
-        switch (schemeName) {
-            case "Option A (Fixed)":
-                return new FixedFine();
-            case "Option B (Progressive)":
-                return new ProgressiveFine();
-            case "Option C (Hourly)":
-                return new HourlyFine();
-            default:
-                return new FixedFine();
-        }
-    }
-
-    // Get fine scheme that was active at a specific time (from history)
+    // Schemes no longer defined (e.g. removed from the file) fall back to the default one
+    private int fineSchemeId(String schemeName) {
+        int id = fineEngine.schemeId(schemeName);
+        return id >= 0 ? id : fineEngine.schemeId(DEFAULT_FINE_SCHEME);
+    }
+
+    // Get fine scheme that was active at a specific time (in-memory history, no I/O)
     public String getFineSchemeAtTime(long entryMillis) {
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                "SELECT scheme_name FROM fine_scheme_history " +
-                "WHERE TIMESTAMP(activated_at) <= TIMESTAMP(FROM_UNIXTIME(?)) " +
-                "ORDER BY activated_at DESC " +
-                "LIMIT 1")) {
-            pstmt.setLong(1, entryMillis / 1000); // Convert milliseconds to seconds
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                String schemeName = rs.getString("scheme_name");
-                System.out.println("DEBUG: Fine scheme for entry time " + new java.util.Date(entryMillis) + " = " + schemeName);
-                return schemeName;
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting fine scheme at time: " + e.getMessage());
-            e.printStackTrace();
-        }
-        System.out.println("DEBUG: No scheme found in history, using default Option A (Fixed)");
-        return "Option A (Fixed)"; // Default fallback
+        String schemeName = schemeTimeline.schemeAt(entryMillis);
+        return schemeName != null ? schemeName : DEFAULT_FINE_SCHEME;
+    }
+
+    // Same as getFineSchemeAtTime for many entry times in one pass
+    public String[] getFineSchemesAtTimes(long[] entryMillis) {
+        return schemeTimeline.schemesAt(entryMillis, DEFAULT_FINE_SCHEME);
     }
 
     // Utility method